@@ -0,0 +1,71 @@
+package com.timgroup.eventstore.api;
+
+import com.timgroup.eventstore.api.EventStreamWriter.StreamWriteRequest;
+
+import javax.annotation.Nonnull;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Writes events without blocking the caller. Each returned future completes once the write has been committed,
+ * or completes exceptionally with the exception the equivalent {@link EventStreamWriter} method would have thrown,
+ * such as {@link WrongExpectedVersionException}.
+ */
+public interface AsyncEventStreamWriter {
+    @Nonnull
+    CompletableFuture<WriteResult> writeAsync(StreamId streamId, Collection<NewEvent> events);
+
+    @Nonnull
+    CompletableFuture<WriteResult> writeAsync(StreamId streamId, Collection<NewEvent> events, long expectedVersion);
+
+    @Nonnull
+    CompletableFuture<WriteResult> executeAsync(Collection<StreamWriteRequest> writeRequests);
+
+    /**
+     * @return the writer itself if it writes asynchronously already, otherwise an adapter that runs its blocking
+     *         writes on {@code executor} and so cannot report a {@link WriteResult}
+     */
+    @Nonnull
+    static AsyncEventStreamWriter asyncEventStreamWriter(EventStreamWriter writer, Executor executor) {
+        if (writer instanceof AsyncEventStreamWriter) {
+            return (AsyncEventStreamWriter) writer;
+        }
+        requireNonNull(executor);
+        return new AsyncEventStreamWriter() {
+            @Nonnull
+            @Override
+            public CompletableFuture<WriteResult> writeAsync(StreamId streamId, Collection<NewEvent> events) {
+                return run(() -> writer.write(streamId, events));
+            }
+
+            @Nonnull
+            @Override
+            public CompletableFuture<WriteResult> writeAsync(StreamId streamId, Collection<NewEvent> events, long expectedVersion) {
+                return run(() -> writer.write(streamId, events, expectedVersion));
+            }
+
+            @Nonnull
+            @Override
+            public CompletableFuture<WriteResult> executeAsync(Collection<StreamWriteRequest> writeRequests) {
+                return run(() -> writer.execute(writeRequests));
+            }
+
+            private CompletableFuture<WriteResult> run(Runnable write) {
+                return CompletableFuture.supplyAsync(() -> {
+                    write.run();
+                    return WriteResult.unknownWriteResult();
+                }, executor);
+            }
+
+            @Override
+            public String toString() {
+                return "asyncEventStreamWriter{" +
+                        "writer=" + writer +
+                        '}';
+            }
+        };
+    }
+}
@@ -4,6 +4,7 @@ import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
 public interface EventCategoryReader {
@@ -17,6 +18,45 @@ public interface EventCategoryReader {
     @CheckReturnValue
     Stream<ResolvedEvent> readCategoryForwards(String category, Position positionExclusive);
 
+    /**
+     * Reads the events in the category after the given position whose type is one of {@code eventTypes}.
+     * Implementations may avoid loading the other events at all.
+     */
+    @Nonnull
+    @CheckReturnValue
+    default Stream<ResolvedEvent> readCategoryForwardsOfTypes(String category, Set<String> eventTypes, Position positionExclusive) {
+        return readCategoryForwards(category, positionExclusive).filter(event -> eventTypes.contains(event.eventRecord().eventType()));
+    }
+
+    /**
+     * Reads the events in any of the categories after the given position whose type is one of {@code eventTypes}.
+     * Implementations may avoid loading the other events at all.
+     */
+    @Nonnull
+    @CheckReturnValue
+    default Stream<ResolvedEvent> readCategoriesForwardsOfTypes(List<String> categories, Set<String> eventTypes, Position positionExclusive) {
+        return readCategoriesForwards(categories, positionExclusive).filter(event -> eventTypes.contains(event.eventRecord().eventType()));
+    }
+
+    /**
+     * Reads the same events as {@link #readCategoryForwards(String)}, without their data or metadata.
+     */
+    @Nonnull
+    @CheckReturnValue
+    default Stream<EventHeader> readCategoryHeadersForwards(String category) {
+        return readCategoryHeadersForwards(category, emptyCategoryPosition(category));
+    }
+
+    /**
+     * Reads the same events as {@link #readCategoryForwards(String, Position)}, without their data or metadata.
+     * Implementations may avoid loading the data and metadata at all.
+     */
+    @Nonnull
+    @CheckReturnValue
+    default Stream<EventHeader> readCategoryHeadersForwards(String category, Position positionExclusive) {
+        return readCategoryForwards(category, positionExclusive).map(ResolvedEvent::header);
+    }
+
     @Nonnull
     @CheckReturnValue
     default Stream<ResolvedEvent> readCategoriesForwards(List<String> categories, Position positionExclusive) {
@@ -0,0 +1,90 @@
+package com.timgroup.eventstore.api;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Instant;
+import java.util.Objects;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Everything about a stored event except its data and metadata.
+ */
+public final class EventHeader {
+    private final Position position;
+    private final Instant timestamp;
+    private final StreamId streamId;
+    private final long eventNumber;
+    private final String eventType;
+
+    public EventHeader(Position position, Instant timestamp, StreamId streamId, long eventNumber, String eventType) {
+        this.position = requireNonNull(position);
+        this.timestamp = requireNonNull(timestamp);
+        this.streamId = requireNonNull(streamId);
+        this.eventNumber = eventNumber;
+        this.eventType = requireNonNull(eventType);
+    }
+
+    @Nonnull
+    public String locator() {
+        return String.format("@%s<%s/%s/%s>(%s)",
+                position,
+                streamId.category(),
+                streamId.id(),
+                eventNumber,
+                eventType
+        );
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        EventHeader that = (EventHeader) o;
+        return eventNumber == that.eventNumber &&
+                Objects.equals(position, that.position) &&
+                Objects.equals(timestamp, that.timestamp) &&
+                Objects.equals(streamId, that.streamId) &&
+                Objects.equals(eventType, that.eventType);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(position, timestamp, streamId, eventNumber, eventType);
+    }
+
+    @Override
+    public String toString() {
+        return "EventHeader{" +
+                "position=" + position +
+                ", timestamp=" + timestamp +
+                ", streamId=" + streamId +
+                ", eventNumber=" + eventNumber +
+                ", eventType='" + eventType + '\'' +
+                '}';
+    }
+
+    @Nonnull
+    public Position position() {
+        return position;
+    }
+
+    @Nonnull
+    public Instant timestamp() {
+        return timestamp;
+    }
+
+    @Nonnull
+    public StreamId streamId() {
+        return streamId;
+    }
+
+    public long eventNumber() {
+        return eventNumber;
+    }
+
+    @Nonnull
+    public String eventType() {
+        return eventType;
+    }
+}
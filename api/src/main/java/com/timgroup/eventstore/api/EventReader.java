@@ -2,7 +2,10 @@ package com.timgroup.eventstore.api;
 
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
+import java.time.Instant;
+import java.util.Iterator;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
 public interface EventReader {
@@ -16,6 +19,65 @@ public interface EventReader {
     @CheckReturnValue
     Stream<ResolvedEvent> readAllForwards(Position positionExclusive);
 
+    /**
+     * Reads the events after the given position whose type is one of {@code eventTypes}.
+     * Implementations may avoid loading the other events at all.
+     */
+    @Nonnull
+    @CheckReturnValue
+    default Stream<ResolvedEvent> readAllForwardsOfTypes(Set<String> eventTypes, Position positionExclusive) {
+        return readAllForwards(positionExclusive).filter(event -> eventTypes.contains(event.eventRecord().eventType()));
+    }
+
+    /**
+     * Reads the same events as {@link #readAllForwards()}, without their data or metadata.
+     */
+    @Nonnull
+    @CheckReturnValue
+    default Stream<EventHeader> readAllHeadersForwards() {
+        return readAllHeadersForwards(emptyStorePosition());
+    }
+
+    /**
+     * Reads the same events as {@link #readAllForwards(Position)}, without their data or metadata.
+     * Implementations may avoid loading the data and metadata at all.
+     */
+    @Nonnull
+    @CheckReturnValue
+    default Stream<EventHeader> readAllHeadersForwards(Position positionExclusive) {
+        return readAllForwards(positionExclusive).map(ResolvedEvent::header);
+    }
+
+    /**
+     * Reads the events from the first one written at or after {@code timestamp}.
+     */
+    @Nonnull
+    @CheckReturnValue
+    default Stream<ResolvedEvent> readAllForwardsFrom(Instant timestamp) {
+        return readAllForwards(positionAt(timestamp));
+    }
+
+    /**
+     * Finds the position to read forwards from to start at the first event written at or after {@code timestamp},
+     * assuming that timestamps never go down as positions go up. This implementation scans the event headers from
+     * the start of the store; implementations should seek directly if they can.
+     */
+    @Nonnull
+    default Position positionAt(Instant timestamp) {
+        Position position = emptyStorePosition();
+        try (Stream<EventHeader> headers = readAllHeadersForwards()) {
+            Iterator<EventHeader> iterator = headers.iterator();
+            while (iterator.hasNext()) {
+                EventHeader header = iterator.next();
+                if (!header.timestamp().isBefore(timestamp)) {
+                    break;
+                }
+                position = header.position();
+            }
+        }
+        return position;
+    }
+
     @Nonnull
     @CheckReturnValue
     default Stream<ResolvedEvent> readAllBackwards() {
@@ -28,11 +90,23 @@ public interface EventReader {
         throw new UnsupportedOperationException("reading backwards is not yet supported");
     }
 
+    @Nonnull
+    default Optional<EventHeader> readFirstEventHeader() {
+        try (Stream<EventHeader> headers = readAllHeadersForwards()) {
+            return headers.findFirst();
+        }
+    }
+
     @Nonnull
     default Optional<ResolvedEvent> readLastEvent() {
         return readAllBackwards().findFirst();
     }
 
+    @Nonnull
+    default Optional<EventHeader> readLastEventHeader() {
+        return readLastEvent().map(ResolvedEvent::header);
+    }
+
     @Nonnull
     Position emptyStorePosition();
 }
@@ -0,0 +1,21 @@
+package com.timgroup.eventstore.api;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Tells listeners when new events may have been written to an event store, so that readers can wait to be woken
+ * instead of each polling the store.
+ */
+public interface HeadWatcher {
+    /**
+     * Registers a listener to be run whenever the head of the store advances. Listeners are run on the watcher's
+     * own thread, and so should only schedule work rather than do it.
+     */
+    @Nonnull
+    Registration register(Runnable listener);
+
+    interface Registration extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
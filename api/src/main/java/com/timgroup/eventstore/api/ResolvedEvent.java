@@ -51,4 +51,9 @@ public final class ResolvedEvent {
     public EventRecord eventRecord() {
         return eventRecord;
     }
+
+    @Nonnull
+    public EventHeader header() {
+        return new EventHeader(position, eventRecord.timestamp(), eventRecord.streamId(), eventRecord.eventNumber(), eventRecord.eventType());
+    }
 }
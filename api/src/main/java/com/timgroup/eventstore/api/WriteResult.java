@@ -0,0 +1,83 @@
+package com.timgroup.eventstore.api;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+
+/**
+ * What a writer knows about the events it has just written: the version of each stream written to, and the
+ * positions of the written events in the order they were written.
+ *
+ * Writers that cannot tell leave these out, so an empty result only means that nothing is known.
+ */
+public final class WriteResult {
+    private static final WriteResult UNKNOWN = new WriteResult(emptyMap(), emptyList());
+
+    private final Map<StreamId, Long> streamVersions;
+    private final List<Position> positions;
+
+    private WriteResult(Map<StreamId, Long> streamVersions, List<Position> positions) {
+        this.streamVersions = Collections.unmodifiableMap(new LinkedHashMap<>(streamVersions));
+        this.positions = Collections.unmodifiableList(new ArrayList<>(positions));
+    }
+
+    @Nonnull
+    public static WriteResult writeResult(Map<StreamId, Long> streamVersions, List<Position> positions) {
+        return new WriteResult(streamVersions, positions);
+    }
+
+    @Nonnull
+    public static WriteResult unknownWriteResult() {
+        return UNKNOWN;
+    }
+
+    /**
+     * @return the event number of the last event in the stream after the write, if known
+     */
+    @Nonnull
+    public OptionalLong streamVersion(StreamId streamId) {
+        Long version = streamVersions.get(streamId);
+        return version == null ? OptionalLong.empty() : OptionalLong.of(version);
+    }
+
+    @Nonnull
+    public Map<StreamId, Long> streamVersions() {
+        return streamVersions;
+    }
+
+    @Nonnull
+    public List<Position> positions() {
+        return positions;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        WriteResult that = (WriteResult) o;
+        return streamVersions.equals(that.streamVersions) &&
+                positions.equals(that.positions);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(streamVersions, positions);
+    }
+
+    @Override
+    public String toString() {
+        return "WriteResult{" +
+                "streamVersions=" + streamVersions +
+                ", positions=" + positions +
+                '}';
+    }
+}
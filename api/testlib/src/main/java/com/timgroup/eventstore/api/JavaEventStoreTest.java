@@ -13,11 +13,15 @@ import org.junit.rules.ExpectedException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.stream.Stream;
@@ -28,6 +32,8 @@ import static com.timgroup.eventstore.api.ObjectPropertiesMatcher.objectWith;
 import static com.timgroup.eventstore.api.StreamId.streamId;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
 import static java.util.Collections.singletonList;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.stream.Collectors.toList;
@@ -36,6 +42,7 @@ import static java.util.stream.LongStream.range;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
@@ -61,6 +68,22 @@ public abstract class JavaEventStoreTest {
 
     public abstract EventSource eventSource();
 
+    /**
+     * Stores whose writers cannot report the versions of the streams they write in a {@link WriteResult} override
+     * this to expect none.
+     */
+    protected boolean writeResultsHaveStreamVersions() {
+        return true;
+    }
+
+    /**
+     * Stores whose writers cannot report the positions of the events they write in a {@link WriteResult} override
+     * this to expect none.
+     */
+    protected boolean writeResultsHavePositions() {
+        return true;
+    }
+
     private Instant timeBeforeTest;
 
     @Before
@@ -346,6 +369,56 @@ public abstract class JavaEventStoreTest {
         }
     }
 
+    @Test
+    public void
+    can_read_all_events_of_given_types() {
+        eventSource().writeStream().write(stream_1, asList(event_1, event_2));
+        eventSource().writeStream().write(stream_2, singletonList(event_3));
+        eventSource().writeStream().write(stream_3, asList(event_4, event_5));
+
+        List<ResolvedEvent> events = eventSource().readAll().readAllForwardsOfTypes(new HashSet<>(asList("type-B", "type-D", "type-X")), eventSource().readAll().emptyStorePosition()).collect(toList());
+
+        assertThat(events.stream().map(ResolvedEvent::eventRecord).collect(toList()), contains(
+                objectWith(EventRecord::streamId, stream_1).and(EventRecord::eventNumber, 1L).and(EventRecord::eventType, "type-B"),
+                objectWith(EventRecord::streamId, stream_3).and(EventRecord::eventNumber, 0L).and(EventRecord::eventType, "type-D")
+        ));
+        assertThat(eventSource().readAll().readAllForwardsOfTypes(singleton("type-D"), events.get(1).position()).collect(toList()), empty());
+        assertThat(eventSource().readAll().readAllForwardsOfTypes(emptySet(), eventSource().readAll().emptyStorePosition()).collect(toList()), empty());
+    }
+
+    @Test
+    public void
+    can_read_headers_of_all_events() {
+        eventSource().writeStream().write(stream_1, singletonList(event_1));
+        eventSource().writeStream().write(stream_2, singletonList(event_2));
+        eventSource().writeStream().write(stream_3, singletonList(event_3));
+
+        List<EventHeader> expectedHeaders = eventSource().readAll().readAllForwards().map(ResolvedEvent::header).collect(toList());
+
+        assertThat(eventSource().readAll().readAllHeadersForwards().collect(toList()), is(expectedHeaders));
+        assertThat(eventSource().readAll().readAllHeadersForwards(expectedHeaders.get(0).position()).collect(toList()), is(expectedHeaders.subList(1, 3)));
+    }
+
+    @Test
+    public void
+    can_read_header_of_last_event() {
+        eventSource().writeStream().write(stream_1, singletonList(event_1));
+        eventSource().writeStream().write(stream_2, singletonList(event_2));
+
+        assertThat(eventSource().readAll().readLastEventHeader().get(), is(eventSource().readAll().readLastEvent().get().header()));
+    }
+
+    @Test
+    public void
+    can_read_header_of_first_event() {
+        assertThat(eventSource().readAll().readFirstEventHeader(), is(Optional.empty()));
+
+        eventSource().writeStream().write(stream_1, singletonList(event_1));
+        eventSource().writeStream().write(stream_2, singletonList(event_2));
+
+        assertThat(eventSource().readAll().readFirstEventHeader().get(), is(eventSource().readAll().readAllForwards().findFirst().get().header()));
+    }
+
     @Test
     public void
     fails_if_expected_version_has_not_been_reached() {
@@ -399,6 +472,37 @@ public abstract class JavaEventStoreTest {
         ));
     }
 
+    @Test
+    public void
+    can_read_events_by_category_of_given_types() {
+        eventSource().writeStream().write(streamId(category_1, "Id1"), asList(event_1, event_2));
+        eventSource().writeStream().write(streamId(category_2, "Id1"), asList(event_1, event_2));
+        eventSource().writeStream().write(streamId(category_1, "Id2"), asList(event_3, event_1));
+
+        List<ResolvedEvent> events = eventSource().readCategory().readCategoryForwardsOfTypes(category_1, singleton("type-A"), eventSource().readCategory().emptyCategoryPosition(category_1)).collect(toList());
+
+        assertThat(events.stream().map(ResolvedEvent::eventRecord).collect(toList()), contains(
+                objectWith(EventRecord::streamId, streamId(category_1, "Id1")).and(EventRecord::eventNumber, 0L),
+                objectWith(EventRecord::streamId, streamId(category_1, "Id2")).and(EventRecord::eventNumber, 1L)
+        ));
+        assertThat(eventSource().readCategory().readCategoryForwardsOfTypes(category_1, singleton("type-A"), events.get(0).position()).map(ResolvedEvent::eventRecord).collect(toList()), contains(
+                objectWith(EventRecord::streamId, streamId(category_1, "Id2")).and(EventRecord::eventNumber, 1L)
+        ));
+    }
+
+    @Test
+    public void
+    can_read_headers_of_events_by_category() {
+        eventSource().writeStream().write(streamId(category_1, "Id1"), singletonList(anEvent()));
+        eventSource().writeStream().write(streamId(category_2, "Id1"), singletonList(anEvent()));
+        eventSource().writeStream().write(streamId(category_1, "Id2"), singletonList(anEvent()));
+
+        List<EventHeader> expectedHeaders = eventSource().readCategory().readCategoryForwards(category_1).map(ResolvedEvent::header).collect(toList());
+
+        assertThat(eventSource().readCategory().readCategoryHeadersForwards(category_1).collect(toList()), is(expectedHeaders));
+        assertThat(eventSource().readCategory().readCategoryHeadersForwards(category_1, expectedHeaders.get(0).position()).collect(toList()), is(expectedHeaders.subList(1, 2)));
+    }
+
     @Test
     public void
     can_continue_reading_from_position_of_category() {
@@ -431,6 +535,24 @@ public abstract class JavaEventStoreTest {
         assertThat(eventSource().readCategory().readCategoryForwards(category_1, position).collect(toList()), empty());
     }
 
+    @Test public void
+    can_read_all_events_from_a_timestamp() throws Exception {
+        eventSource().writeStream().write(stream_1, singletonList(event_1));
+        Thread.sleep(5);
+        eventSource().writeStream().write(stream_2, singletonList(event_2));
+        Thread.sleep(5);
+        eventSource().writeStream().write(stream_1, singletonList(event_3));
+
+        List<EventRecord> events = eventSource().readAll().readAllForwards().map(ResolvedEvent::eventRecord).collect(toList());
+
+        for (EventRecord event : events) {
+            assertThat(eventSource().readAll().readAllForwardsFrom(event.timestamp()).map(ResolvedEvent::eventRecord).collect(toList()),
+                    is(events.stream().filter(e -> !e.timestamp().isBefore(event.timestamp())).collect(toList())));
+        }
+        assertThat(eventSource().readAll().readAllForwardsFrom(Instant.EPOCH).map(ResolvedEvent::eventRecord).collect(toList()), is(events));
+        assertThat(eventSource().readAll().readAllForwardsFrom(events.get(2).timestamp().plusSeconds(1)).collect(toList()), empty());
+    }
+
     @Test public void
     can_read_multiple_categories_in_one_request() {
         eventSource().writeStream().write(streamId(category_1, "Id1"), singletonList(anEvent()));
@@ -603,6 +725,46 @@ public abstract class JavaEventStoreTest {
         ));
     }
 
+    @Test public void
+    can_write_asynchronously() throws Exception {
+        AsyncEventStreamWriter writer = AsyncEventStreamWriter.asyncEventStreamWriter(eventSource().writeStream(), Runnable::run);
+        eventSource().writeStream().write(stream_1, singletonList(event_1));
+
+        WriteResult result = writer.executeAsync(Arrays.asList(
+                new StreamWriteRequest(stream_1, singletonList(event_2), OptionalLong.of(0)),
+                new StreamWriteRequest(stream_2, asList(event_3, event_4), OptionalLong.empty())
+        )).get(5, SECONDS);
+
+        List<ResolvedEvent> written = eventSource().readAll().readAllForwards().skip(1).collect(toList());
+        assertThat(written.stream().map(ResolvedEvent::eventRecord).collect(toList()), contains(
+                objectWith(EventRecord::streamId, stream_1).and(EventRecord::eventNumber, 1L),
+                objectWith(EventRecord::streamId, stream_2).and(EventRecord::eventNumber, 0L),
+                objectWith(EventRecord::streamId, stream_2).and(EventRecord::eventNumber, 1L)
+        ));
+        if (writeResultsHaveStreamVersions()) {
+            assertThat(result.streamVersion(stream_1), is(OptionalLong.of(1)));
+            assertThat(result.streamVersion(stream_2), is(OptionalLong.of(1)));
+        } else {
+            assertThat(result.streamVersions().isEmpty(), is(true));
+        }
+        if (writeResultsHavePositions()) {
+            assertThat(result.positions(), is(written.stream().map(ResolvedEvent::position).collect(toList())));
+        } else {
+            assertThat(result.positions(), is(empty()));
+        }
+    }
+
+    @Test public void
+    asynchronous_write_fails_if_expected_version_does_not_match() throws Exception {
+        AsyncEventStreamWriter writer = AsyncEventStreamWriter.asyncEventStreamWriter(eventSource().writeStream(), Runnable::run);
+
+        CompletableFuture<WriteResult> result = writer.writeAsync(stream_1, singletonList(event_1), 0);
+
+        thrown.expect(ExecutionException.class);
+        thrown.expectCause(instanceOf(WrongExpectedVersionException.class));
+        result.get(5, SECONDS);
+    }
+
     private static Matcher<Instant> shortlyAfter(Instant expected) {
         return new TypeSafeDiagnosingMatcher<Instant>() {
             @Override
@@ -10,6 +10,8 @@ import javax.annotation.Nonnull;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Iterator;
 import java.util.stream.Stream;
 
 import static com.timgroup.eventstore.api.EventRecord.eventRecord;
@@ -73,6 +75,31 @@ final class FlatFilesystemEventReader implements EventReader {
         }
     }
 
+    /**
+     * Finds the position from the timestamps in the filenames, without reading any of the files.
+     */
+    @Nonnull
+    @Override
+    public Position positionAt(Instant timestamp) {
+        try (Stream<Path> stream = Files.list(directory)) {
+            Iterator<Path> dataPaths = stream
+                    .filter(p -> p.getFileName().toString().endsWith(dataSuffix))
+                    .sorted(comparing(Path::getFileName))
+                    .iterator();
+            Position position = FilesystemPosition.EMPTY;
+            while (dataPaths.hasNext()) {
+                Path dataPath = dataPaths.next();
+                if (!FilenameCodec.parse(dataPath, (fileTimestamp, streamId, eventNumber, eventType) -> fileTimestamp.isBefore(timestamp))) {
+                    break;
+                }
+                position = new FilesystemPosition(dataPath.getFileName().toString());
+            }
+            return position;
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to list files in " + directory, e);
+        }
+    }
+
     boolean streamExists(StreamId streamId) {
         try (Stream<Path> stream = Files.list(directory)) {
             return stream
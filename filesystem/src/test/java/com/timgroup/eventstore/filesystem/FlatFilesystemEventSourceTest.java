@@ -18,6 +18,16 @@ public class FlatFilesystemEventSourceTest extends JavaEventStoreTest {
         return new FlatFilesystemEventSource(folder.getRoot().toPath(), Clock.systemDefaultZone(), ".json");
     }
 
+    @Override
+    protected boolean writeResultsHaveStreamVersions() {
+        return false;
+    }
+
+    @Override
+    protected boolean writeResultsHavePositions() {
+        return false;
+    }
+
     @Test
     @Ignore
     @Override
@@ -2,10 +2,13 @@ package com.timgroup.eventstore.ges.http;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.timgroup.eventstore.api.AsyncEventStreamWriter;
 import com.timgroup.eventstore.api.EventStreamWriter;
 import com.timgroup.eventstore.api.NewEvent;
 import com.timgroup.eventstore.api.StreamId;
+import com.timgroup.eventstore.api.WriteResult;
 import com.timgroup.eventstore.api.WrongExpectedVersionException;
+import org.apache.http.Header;
 import org.apache.http.HttpHost;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.ByteArrayEntity;
@@ -13,23 +16,56 @@ import org.apache.http.entity.ContentType;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 
+import javax.annotation.Nonnull;
 import javax.annotation.ParametersAreNonnullByDefault;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.OptionalLong;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 
 import static java.lang.Long.MIN_VALUE;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonMap;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.stream.Collectors.toList;
 
 @ParametersAreNonnullByDefault
-public class HttpGesEventStreamWriter implements EventStreamWriter {
+public class HttpGesEventStreamWriter implements EventStreamWriter, AsyncEventStreamWriter {
+    private static final int DEFAULT_ASYNC_THREADS = 15;
+    /**
+     * Runs at most {@value #DEFAULT_ASYNC_THREADS} asynchronous writes at once. Writes submitted while all of
+     * those threads are busy run on the submitting thread instead, which holds back callers that write faster
+     * than the writes complete.
+     */
+    private static final Executor DEFAULT_ASYNC_EXECUTOR = new ThreadPoolExecutor(0, DEFAULT_ASYNC_THREADS, 60, SECONDS, new SynchronousQueue<>(), runnable -> {
+        Thread thread = new Thread(runnable, "HttpGesEventStreamWriter-async");
+        thread.setDaemon(true);
+        return thread;
+    }, new ThreadPoolExecutor.CallerRunsPolicy());
+
     private final ObjectMapper mapper = new ObjectMapper();
     private final String host;
+    private final Executor asyncExecutor;
 
     public HttpGesEventStreamWriter(String host) {
+        this(host, DEFAULT_ASYNC_EXECUTOR);
+    }
+
+    /**
+     * @param asyncExecutor runs the blocking HTTP requests of asynchronous writes; should be bounded
+     */
+    public HttpGesEventStreamWriter(String host, Executor asyncExecutor) {
         this.host = host;
+        this.asyncExecutor = requireNonNull(asyncExecutor);
     }
 
     @Override
@@ -42,6 +78,41 @@ public class HttpGesEventStreamWriter implements EventStreamWriter {
         write(streamId, events, OptionalLong.of(expectedVersion));
     }
 
+    @Nonnull
+    @Override
+    public CompletableFuture<WriteResult> writeAsync(StreamId streamId, Collection<NewEvent> events) {
+        return CompletableFuture.supplyAsync(() -> write(streamId, events, OptionalLong.empty()), asyncExecutor);
+    }
+
+    @Nonnull
+    @Override
+    public CompletableFuture<WriteResult> writeAsync(StreamId streamId, Collection<NewEvent> events, long expectedVersion) {
+        return CompletableFuture.supplyAsync(() -> write(streamId, events, OptionalLong.of(expectedVersion)), asyncExecutor);
+    }
+
+    /**
+     * Writes to each stream in turn, as the HTTP API cannot write to several streams at once.
+     */
+    @Nonnull
+    @Override
+    public CompletableFuture<WriteResult> executeAsync(Collection<StreamWriteRequest> writeRequests) {
+        return CompletableFuture.supplyAsync(() -> {
+            Map<StreamId, Long> streamVersions = new LinkedHashMap<>();
+            List<String> failures = new ArrayList<>();
+            for (StreamWriteRequest request : writeRequests) {
+                try {
+                    write(request.streamId, request.events, request.expectedVersion).streamVersions().forEach(streamVersions::put);
+                } catch (WrongExpectedVersionException e) {
+                    failures.add(request.streamId + ": " + e.getMessage());
+                }
+            }
+            if (!failures.isEmpty()) {
+                throw new WrongExpectedVersionException(String.join(",", failures));
+            }
+            return WriteResult.writeResult(streamVersions, emptyList());
+        }, asyncExecutor);
+    }
+
 
     @Override
     public String toString() {
@@ -51,7 +122,11 @@ public class HttpGesEventStreamWriter implements EventStreamWriter {
                 '}';
     }
 
-    private void write(StreamId streamId, Collection<NewEvent> events, OptionalLong maybeExpectedVersion) {
+    /**
+     * The event store reports the location of the first event written, which gives the new version of the
+     * stream; it does not report positions.
+     */
+    private WriteResult write(StreamId streamId, Collection<NewEvent> events, OptionalLong maybeExpectedVersion) {
         try {
             CloseableHttpClient client = HttpClientBuilder.create().build();
 
@@ -79,14 +154,23 @@ public class HttpGesEventStreamWriter implements EventStreamWriter {
 
             writeRequest.setEntity(new ByteArrayEntity(bytes, ContentType.create("application/vnd.eventstore.events+json")));
 
-            client.execute(HttpHost.create(host), writeRequest, response -> {
+            return client.execute(HttpHost.create(host), writeRequest, response -> {
                 if (response.getStatusLine().getStatusCode() == 400 && response.getStatusLine().getReasonPhrase().equals("Wrong expected EventNumber")) {
                     //todo: remove need for MIN_VALUE
                     throw new WrongExpectedVersionException(MIN_VALUE, maybeExpectedVersion.getAsLong());
                 } else if (response.getStatusLine().getStatusCode() != 201) {
                     throw new RuntimeException("Write request failed: " + response.getStatusLine());
                 }
-                return null;
+                Header location = response.getFirstHeader("Location");
+                if (location == null || events.isEmpty()) {
+                    return WriteResult.unknownWriteResult();
+                }
+                String firstEventNumber = location.getValue().substring(location.getValue().lastIndexOf('/') + 1);
+                try {
+                    return WriteResult.writeResult(singletonMap(streamId, Long.parseLong(firstEventNumber) + events.size() - 1), emptyList());
+                } catch (NumberFormatException e) {
+                    return WriteResult.unknownWriteResult();
+                }
             });
         } catch (IOException e) {
             throw new RuntimeException(e);
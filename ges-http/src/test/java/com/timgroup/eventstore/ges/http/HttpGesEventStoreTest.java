@@ -10,4 +10,9 @@ public class HttpGesEventStoreTest extends JavaEventStoreTest {
     public EventSource eventSource() {
         return new HttpGesEventSource("http://localhost:2113");
     }
+
+    @Override
+    protected boolean writeResultsHavePositions() {
+        return false;
+    }
 }
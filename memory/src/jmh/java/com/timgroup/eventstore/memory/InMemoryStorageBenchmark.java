@@ -0,0 +1,126 @@
+package com.timgroup.eventstore.memory;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static java.util.Collections.singletonList;
+
+/**
+ * Compares the copy-on-write list the in-memory store used to keep its events in with the {@link AppendOnlyLog}
+ * it keeps them in now: appending events one at a time to an empty store, and reading a hundred events from a
+ * random position of a full one.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class InMemoryStorageBenchmark {
+    private static final int READ_LENGTH = 100;
+
+    @Param
+    public StorageKind storage;
+
+    @Param("100000")
+    public int events;
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Object append_events_one_at_a_time() {
+        return filled(storage, events);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public long read_from_a_random_position(Full full) {
+        return full.storage.sumFrom(full.random.nextInt(events));
+    }
+
+    @State(Scope.Thread)
+    public static class Full {
+        private Storage storage;
+        private Random random;
+
+        @Setup
+        public void fill(InMemoryStorageBenchmark benchmark) {
+            storage = filled(benchmark.storage, benchmark.events);
+            random = new Random(0);
+        }
+    }
+
+    private static Storage filled(StorageKind kind, int events) {
+        Storage storage = kind.create();
+        for (int i = 0; i < events; i++) {
+            storage.append(singletonList(i));
+        }
+        return storage;
+    }
+
+    public enum StorageKind {
+        COPY_ON_WRITE_LIST {
+            @Override
+            Storage create() {
+                return new CopyOnWriteListStorage();
+            }
+        },
+        APPEND_ONLY_LOG {
+            @Override
+            Storage create() {
+                return new AppendOnlyLogStorage();
+            }
+        };
+
+        abstract Storage create();
+    }
+
+    interface Storage {
+        void append(Collection<Integer> items);
+
+        long sumFrom(int position);
+    }
+
+    private static final class CopyOnWriteListStorage implements Storage {
+        private final List<Integer> items = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void append(Collection<Integer> newItems) {
+            items.addAll(newItems);
+        }
+
+        @Override
+        public long sumFrom(int position) {
+            return items.stream().skip(position).limit(READ_LENGTH).mapToLong(Integer::longValue).sum();
+        }
+    }
+
+    private static final class AppendOnlyLogStorage implements Storage {
+        private final AppendOnlyLog<Integer> items = new AppendOnlyLog<>();
+
+        @Override
+        public void append(Collection<Integer> newItems) {
+            items.addAll(newItems);
+        }
+
+        @Override
+        public long sumFrom(int position) {
+            int size = items.size();
+            return items.stream(position, Math.min(size, position + READ_LENGTH)).mapToLong(Integer::longValue).sum();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.timgroup.eventstore.memory;
+
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static com.timgroup.eventstore.api.NewEvent.newEvent;
+import static com.timgroup.eventstore.api.StreamId.streamId;
+import static java.util.Collections.singletonList;
+
+/**
+ * Compares the in-memory store keeping events on the heap with it keeping them off it: loading events into an
+ * empty store, and reading them all back. Run with {@code -prof gc} to compare the heap allocated along the way.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class OffHeapStorageBenchmark {
+    @Param
+    public StoreKind store;
+
+    @Param("1000000")
+    public int events;
+
+    @Param("200")
+    public int payloadBytes;
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Object load_events() {
+        return loaded(store, events, payloadBytes);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long read_all_events(Loaded loaded) {
+        return loaded.store.readAllForwards().count();
+    }
+
+    @State(Scope.Thread)
+    public static class Loaded {
+        private JavaInMemoryEventStore store;
+
+        @Setup
+        public void load(OffHeapStorageBenchmark benchmark) {
+            store = loaded(benchmark.store, benchmark.events, benchmark.payloadBytes);
+        }
+    }
+
+    private static JavaInMemoryEventStore loaded(StoreKind kind, int events, int payloadBytes) {
+        JavaInMemoryEventStore store = kind.create();
+        for (int i = 0; i < events; i++) {
+            store.write(streamId("benchmark", Integer.toString(i % 10_000)), singletonList(newEvent("Benchmarked", new byte[payloadBytes], new byte[20])));
+        }
+        return store;
+    }
+
+    public enum StoreKind {
+        HEAP {
+            @Override
+            JavaInMemoryEventStore create() {
+                return new JavaInMemoryEventStore(Clock.systemUTC());
+            }
+        },
+        OFF_HEAP {
+            @Override
+            JavaInMemoryEventStore create() {
+                return JavaInMemoryEventStore.withOffHeapPayloads(Clock.systemUTC());
+            }
+        };
+
+        abstract JavaInMemoryEventStore create();
+    }
+}
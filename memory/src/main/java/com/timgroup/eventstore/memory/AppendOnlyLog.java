@@ -0,0 +1,66 @@
+package com.timgroup.eventstore.memory;
+
+import java.util.Collection;
+
+/**
+ * A list that can only be appended to, by one thread at a time, and read by any number of threads without locking.
+ *
+ * Items are kept in chunks that double in size, so appending never copies earlier items and small logs stay
+ * small, and an index maps to its chunk with a little arithmetic. The size is published after the items it
+ * covers, so a reader that has read the size can read every item below it, and a batch of items becomes visible
+ * all at once.
+ */
+final class AppendOnlyLog<T> implements IndexedLog<T> {
+    private static final int FIRST_CHUNK_BITS = 3;
+    static final int MAX_CHUNKS = 32 - FIRST_CHUNK_BITS;
+
+    private final Object[][] chunks = new Object[MAX_CHUNKS][];
+    private volatile int size = 0;
+
+    /**
+     * Callers must not append from more than one thread at a time.
+     */
+    void addAll(Collection<? extends T> items) {
+        int index = size;
+        for (T item : items) {
+            int chunk = chunkOf(index);
+            if (chunks[chunk] == null) {
+                chunks[chunk] = new Object[chunkLength(chunk)];
+            }
+            chunks[chunk][offsetOf(index, chunk)] = item;
+            index++;
+        }
+        size = index;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        int chunk = chunkOf(index);
+        return (T) chunks[chunk][offsetOf(index, chunk)];
+    }
+
+    static int chunkOf(int index) {
+        return 31 - Integer.numberOfLeadingZeros((index >>> FIRST_CHUNK_BITS) + 1);
+    }
+
+    static int offsetOf(int index, int chunk) {
+        return index - (((1 << chunk) - 1) << FIRST_CHUNK_BITS);
+    }
+
+    static int chunkLength(int chunk) {
+        return 1 << (chunk + FIRST_CHUNK_BITS);
+    }
+
+    @Override
+    public String toString() {
+        return "AppendOnlyLog{" +
+                "size=" + size +
+                '}';
+    }
+}
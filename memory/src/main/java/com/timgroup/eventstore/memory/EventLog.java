@@ -0,0 +1,32 @@
+package com.timgroup.eventstore.memory;
+
+import com.timgroup.eventstore.api.ResolvedEvent;
+import com.timgroup.eventstore.memory.JavaInMemoryEventStore.InMemoryEventStorePosition;
+
+/**
+ * Events in position order, whose positions can be read without reading the rest of the event, for seeking.
+ */
+interface EventLog extends IndexedLog<ResolvedEvent> {
+    EventLog EMPTY = new EventLog() {
+        @Override
+        public int size() {
+            return 0;
+        }
+
+        @Override
+        public ResolvedEvent get(int index) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: 0");
+        }
+
+        @Override
+        public long positionAt(int index) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: 0");
+        }
+    };
+
+    /**
+     * @param index must be below a size previously read from this log
+     * @return the position of the event at {@code index}, as {@link InMemoryEventStorePosition#eventNumber}
+     */
+    long positionAt(int index);
+}
@@ -0,0 +1,35 @@
+package com.timgroup.eventstore.memory;
+
+import com.timgroup.eventstore.api.ResolvedEvent;
+import com.timgroup.eventstore.api.StreamId;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * Where {@link JavaInMemoryEventStore} keeps its events, indexed by stream and by category. Each index holds the
+ * events in position order.
+ */
+interface EventStorage {
+    EventLog all();
+
+    /**
+     * @return the events of the stream, or null if nothing has been written to it
+     */
+    @Nullable
+    EventLog stream(StreamId streamId);
+
+    /**
+     * @return the events of the category, or null if nothing has been written to it
+     */
+    @Nullable
+    EventLog category(String category);
+
+    /**
+     * Appends events just written to a stream, whose positions follow on from the last event stored. Callers must
+     * not append from more than one thread at a time. The events are published to {@link #all()} after their stream
+     * and category, so that a reader that has read the size of {@code all()} finds every event up to it in its
+     * stream and category too.
+     */
+    void append(StreamId streamId, List<ResolvedEvent> written);
+}
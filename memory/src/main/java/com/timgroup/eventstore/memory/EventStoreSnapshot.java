@@ -0,0 +1,203 @@
+package com.timgroup.eventstore.memory;
+
+import com.timgroup.eventstore.api.EventRecord;
+import com.timgroup.eventstore.api.ResolvedEvent;
+import com.timgroup.eventstore.api.StreamId;
+import com.timgroup.eventstore.memory.JavaInMemoryEventStore.InMemoryEventStorePosition;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Reads and writes the events of an in-memory store as a file:
+ * <pre>
+ * magic, version
+ * stream count, (category, id)*
+ * event type count, event type*
+ * event count, (stream number, event type number, event number, epoch second, nano, data, metadata)*
+ * </pre>
+ * where strings and byte arrays are written as their length followed by their bytes. Stream ids and event types
+ * are written once each and referred to by their order, which keeps the file compact and lets a loaded store
+ * share one instance of each. Positions are not written, as they run from one without gaps.
+ */
+final class EventStoreSnapshot {
+    private static final int MAGIC = 0x45565354;
+    private static final int VERSION = 1;
+    private static final int MAP_WINDOW_BYTES = 1 << 30;
+
+    static void write(IndexedLog<ResolvedEvent> events, Path path) {
+        int size = events.size();
+        Map<StreamId, Integer> streamNumbers = new LinkedHashMap<>();
+        Map<String, Integer> eventTypeNumbers = new LinkedHashMap<>();
+        events.stream(0, size).forEach(event -> {
+            streamNumbers.putIfAbsent(event.eventRecord().streamId(), streamNumbers.size());
+            eventTypeNumbers.putIfAbsent(event.eventRecord().eventType(), eventTypeNumbers.size());
+        });
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(streamNumbers.size());
+            for (StreamId streamId : streamNumbers.keySet()) {
+                writeBytes(out, streamId.category().getBytes(UTF_8));
+                writeBytes(out, streamId.id().getBytes(UTF_8));
+            }
+            out.writeInt(eventTypeNumbers.size());
+            for (String eventType : eventTypeNumbers.keySet()) {
+                writeBytes(out, eventType.getBytes(UTF_8));
+            }
+            out.writeInt(size);
+            for (int index = 0; index < size; index++) {
+                EventRecord record = events.get(index).eventRecord();
+                out.writeInt(streamNumbers.get(record.streamId()));
+                out.writeInt(eventTypeNumbers.get(record.eventType()));
+                out.writeLong(record.eventNumber());
+                out.writeLong(record.timestamp().getEpochSecond());
+                out.writeInt(record.timestamp().getNano());
+                writeBytes(out, record.data());
+                writeBytes(out, record.metadata());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to save events to " + path, e);
+        }
+    }
+
+    /**
+     * Passes the events in {@code path} to {@code load} in order, in batches of consecutive events of one stream.
+     */
+    static void read(Path path, BiConsumer<StreamId, List<ResolvedEvent>> load) {
+        read(path, MAP_WINDOW_BYTES, load);
+    }
+
+    /**
+     * Maps the file {@code windowBytes} at a time, or more where a single field needs it, since a mapping cannot
+     * cover more than 2GB.
+     */
+    static void read(Path path, int windowBytes, BiConsumer<StreamId, List<ResolvedEvent>> load) {
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            MappedInput in = new MappedInput(path, channel, windowBytes);
+
+            if (in.remaining() < 2 * Integer.BYTES || in.getInt() != MAGIC) {
+                throw new IllegalArgumentException(path + " is not a saved in-memory event store");
+            }
+            int version = in.getInt();
+            if (version != VERSION) {
+                throw new IllegalArgumentException(path + " was saved in unsupported format version " + version);
+            }
+
+            StreamId[] streamIds = new StreamId[in.getInt()];
+            for (int i = 0; i < streamIds.length; i++) {
+                streamIds[i] = StreamId.streamId(in.getString(), in.getString());
+            }
+            String[] eventTypes = new String[in.getInt()];
+            for (int i = 0; i < eventTypes.length; i++) {
+                eventTypes[i] = in.getString();
+            }
+
+            int size = in.getInt();
+            StreamId batchStreamId = null;
+            List<ResolvedEvent> batch = new ArrayList<>();
+            for (int index = 0; index < size; index++) {
+                StreamId streamId = streamIds[in.getInt()];
+                String eventType = eventTypes[in.getInt()];
+                long eventNumber = in.getLong();
+                Instant timestamp = Instant.ofEpochSecond(in.getLong(), in.getInt());
+                byte[] data = in.getBytes();
+                byte[] metadata = in.getBytes();
+
+                if (!streamId.equals(batchStreamId) && !batch.isEmpty()) {
+                    load.accept(batchStreamId, batch);
+                    batch = new ArrayList<>();
+                }
+                batchStreamId = streamId;
+                batch.add(new ResolvedEvent(new InMemoryEventStorePosition(index + 1L),
+                        EventRecord.eventRecord(timestamp, streamId, eventNumber, eventType, data, metadata)));
+            }
+            if (!batch.isEmpty()) {
+                load.accept(batchStreamId, batch);
+            }
+
+            if (in.remaining() > 0) {
+                throw new IllegalArgumentException(path + " has " + in.remaining() + " unexpected bytes after its events");
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to load events from " + path, e);
+        }
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static final class MappedInput {
+        private final Path path;
+        private final FileChannel channel;
+        private final long size;
+        private final int windowBytes;
+        private ByteBuffer window = ByteBuffer.allocate(0);
+        private long windowStart = 0;
+
+        MappedInput(Path path, FileChannel channel, int windowBytes) throws IOException {
+            this.path = path;
+            this.channel = channel;
+            this.size = channel.size();
+            this.windowBytes = windowBytes;
+        }
+
+        long remaining() {
+            return size - windowStart - window.position();
+        }
+
+        int getInt() throws IOException {
+            return next(Integer.BYTES).getInt();
+        }
+
+        long getLong() throws IOException {
+            return next(Long.BYTES).getLong();
+        }
+
+        byte[] getBytes() throws IOException {
+            byte[] bytes = new byte[getInt()];
+            next(bytes.length).get(bytes);
+            return bytes;
+        }
+
+        String getString() throws IOException {
+            return new String(getBytes(), UTF_8);
+        }
+
+        /**
+         * @return the window, with at least {@code bytes} remaining in it
+         */
+        private ByteBuffer next(int bytes) throws IOException {
+            if (window.remaining() >= bytes) {
+                return window;
+            }
+            long remaining = remaining();
+            if (remaining < bytes) {
+                throw new IllegalArgumentException(path + " ends part way through its events");
+            }
+            windowStart += window.position();
+            window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(remaining, Math.max(windowBytes, bytes)));
+            return window;
+        }
+    }
+
+    private EventStoreSnapshot() {
+    }
+}
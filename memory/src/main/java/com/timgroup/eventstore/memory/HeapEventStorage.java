@@ -0,0 +1,87 @@
+package com.timgroup.eventstore.memory;
+
+import com.timgroup.eventstore.api.ResolvedEvent;
+import com.timgroup.eventstore.api.StreamId;
+import com.timgroup.eventstore.memory.JavaInMemoryEventStore.InMemoryEventStorePosition;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps events as they were written, each index referring to the same events.
+ */
+final class HeapEventStorage implements EventStorage {
+    private final HeapEventLog events = new HeapEventLog();
+    private final ConcurrentMap<StreamId, HeapEventLog> streams = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, HeapEventLog> categories = new ConcurrentHashMap<>();
+
+    @Override
+    public EventLog all() {
+        return events;
+    }
+
+    @Nullable
+    @Override
+    public EventLog stream(StreamId streamId) {
+        return streams.get(streamId);
+    }
+
+    @Nullable
+    @Override
+    public EventLog category(String category) {
+        return categories.get(category);
+    }
+
+    @Override
+    public void append(StreamId streamId, List<ResolvedEvent> written) {
+        appendTo(streams, streamId, written);
+        appendTo(categories, streamId.category(), written);
+        events.addAll(written);
+    }
+
+    /**
+     * Only makes a new log visible once it holds the events, so that readers never find an empty stream.
+     */
+    private static <K> void appendTo(ConcurrentMap<K, HeapEventLog> logs, K key, List<ResolvedEvent> written) {
+        HeapEventLog log = logs.get(key);
+        if (log == null) {
+            log = new HeapEventLog();
+            log.addAll(written);
+            logs.put(key, log);
+        } else {
+            log.addAll(written);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "HeapEventStorage{" +
+                "events.size=" + events.size() +
+                '}';
+    }
+
+    private static final class HeapEventLog implements EventLog {
+        private final AppendOnlyLog<ResolvedEvent> events = new AppendOnlyLog<>();
+
+        void addAll(List<ResolvedEvent> written) {
+            events.addAll(written);
+        }
+
+        @Override
+        public int size() {
+            return events.size();
+        }
+
+        @Override
+        public ResolvedEvent get(int index) {
+            return events.get(index);
+        }
+
+        @Override
+        public long positionAt(int index) {
+            return ((InMemoryEventStorePosition) events.get(index).position()).eventNumber;
+        }
+    }
+}
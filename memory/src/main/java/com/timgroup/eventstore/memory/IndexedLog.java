@@ -0,0 +1,31 @@
+package com.timgroup.eventstore.memory;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Items that can be read by index, any index below a {@link #size() size} that has been read being safe to read
+ * without locking.
+ */
+interface IndexedLog<T> {
+    int size();
+
+    /**
+     * @param index must be below a size previously read from this log
+     */
+    T get(int index);
+
+    /**
+     * @return the items from {@code fromIndex} inclusive to {@code toIndex} exclusive, in order
+     */
+    default Stream<T> stream(int fromIndex, int toIndex) {
+        return IntStream.range(fromIndex, toIndex).mapToObj(this::get);
+    }
+
+    /**
+     * @return the items from {@code fromIndex} inclusive to {@code toIndex} exclusive, last first
+     */
+    default Stream<T> reversedStream(int fromIndex, int toIndex) {
+        return IntStream.range(fromIndex, toIndex).map(i -> toIndex - 1 - (i - fromIndex)).mapToObj(this::get);
+    }
+}
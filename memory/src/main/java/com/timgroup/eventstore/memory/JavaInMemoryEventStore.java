@@ -1,5 +1,6 @@
 package com.timgroup.eventstore.memory;
 
+import com.timgroup.eventstore.api.AsyncEventStreamWriter;
 import com.timgroup.eventstore.api.EventCategoryReader;
 import com.timgroup.eventstore.api.EventReader;
 import com.timgroup.eventstore.api.EventRecord;
@@ -11,45 +12,106 @@ import com.timgroup.eventstore.api.Position;
 import com.timgroup.eventstore.api.PositionCodec;
 import com.timgroup.eventstore.api.ResolvedEvent;
 import com.timgroup.eventstore.api.StreamId;
+import com.timgroup.eventstore.api.WriteResult;
 import com.timgroup.eventstore.api.WrongExpectedVersionException;
 
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.nio.file.Path;
 import java.time.Clock;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-public class JavaInMemoryEventStore implements EventStreamWriter, EventStreamReader, EventCategoryReader, EventReader {
+import static java.util.Collections.singletonList;
+
+public class JavaInMemoryEventStore implements EventStreamWriter, AsyncEventStreamWriter, EventStreamReader, EventCategoryReader, EventReader {
     public static final PositionCodec CODEC = PositionCodec.ofComparable(InMemoryEventStorePosition.class,
             str -> new InMemoryEventStorePosition(Long.parseLong(str)),
             pos -> Long.toString(pos.eventNumber));
-    private final Collection<ResolvedEvent> events;
-    private final Clock clock;
+    private static final int STREAM_LOCK_STRIPES = 64;
+    private static final int PAYLOAD_ARENA_CHUNK_BYTES = 64 * 1024 * 1024;
 
+    private final EventStorage storage;
+    private final EventLog events;
+    private final Optional<Collection<ResolvedEvent>> copyOfEvents;
+    private final Clock clock;
+    @Nullable
+    private final ReentrantLock[] streamLocks;
+    private final Object publication = new Object();
+
+    /**
+     * @deprecated the store keeps and indexes its own events; {@code storageSupplier}'s collection is only given a
+     *             copy of each event as it is written. Events already in the collection are loaded into the store,
+     *             and must be those written to an in-memory store, in the order they were written.
+     */
+    @Deprecated
     public JavaInMemoryEventStore(Supplier<Collection<ResolvedEvent>> storageSupplier, Clock clock) {
-        this.clock = clock;
-        this.events = storageSupplier.get();
+        this(new HeapEventStorage(), Optional.of(storageSupplier.get()), clock, null);
+        copyOfEvents.ifPresent(this::loadExisting);
     }
 
     public JavaInMemoryEventStore(Clock clock) {
-        this(CopyOnWriteArrayList::new, clock);
+        this(new HeapEventStorage(), Optional.empty(), clock, null);
+    }
+
+    private JavaInMemoryEventStore(EventStorage storage, Optional<Collection<ResolvedEvent>> copyOfEvents, Clock clock, @Nullable ReentrantLock[] streamLocks) {
+        this.storage = storage;
+        this.events = storage.all();
+        this.copyOfEvents = copyOfEvents;
+        this.clock = clock;
+        this.streamLocks = streamLocks;
+    }
+
+    /**
+     * @return a store whose writers only exclude each other while checking the expected version of, and numbering
+     *         events in, the same stream (or another stream sharing its lock stripe), so that writes to unrelated
+     *         streams proceed in parallel. Writers still take turns to assign global positions and publish their
+     *         events, which only appends to the store's logs.
+     */
+    public static JavaInMemoryEventStore withPerStreamLocking(Clock clock) {
+        return new JavaInMemoryEventStore(new HeapEventStorage(), Optional.empty(), clock, IntStream.range(0, STREAM_LOCK_STRIPES).mapToObj(i -> new ReentrantLock()).toArray(ReentrantLock[]::new));
+    }
+
+    /**
+     * @return a store that keeps event headers in primitive arrays and payloads in direct buffers, so that the heap
+     *         holds no objects per event until events are read
+     */
+    public static JavaInMemoryEventStore withOffHeapPayloads(Clock clock) {
+        return new JavaInMemoryEventStore(new OffHeapEventStorage(PayloadArena.directBuffers(PAYLOAD_ARENA_CHUNK_BYTES)), Optional.empty(), clock, null);
+    }
+
+    /**
+     * @return a store like {@link #withOffHeapPayloads}, but with payloads in files mapped from {@code directory},
+     *         so that they can outgrow physical memory
+     */
+    public static JavaInMemoryEventStore withMemoryMappedPayloads(Clock clock, Path directory) {
+        return new JavaInMemoryEventStore(new OffHeapEventStorage(PayloadArena.memoryMappedFiles(PAYLOAD_ARENA_CHUNK_BYTES, directory)), Optional.empty(), clock, null);
     }
 
     @Override
     @Nonnull
     @CheckReturnValue
     public Stream<ResolvedEvent> readStreamForwards(StreamId streamId, long eventNumberExclusive) {
-        ensureStreamExists(streamId);
         return internalReadStream(streamId, eventNumberExclusive);
     }
 
@@ -58,16 +120,15 @@ public class JavaInMemoryEventStore implements EventStreamWriter, EventStreamRea
     @CheckReturnValue
     public Stream<ResolvedEvent> readAllForwards(Position positionExclusive) {
         InMemoryEventStorePosition inMemoryPosition = (InMemoryEventStorePosition) positionExclusive;
-        return events.stream().skip(inMemoryPosition.eventNumber);
+        int size = events.size();
+        return events.stream(clamp(inMemoryPosition.eventNumber, size), size);
     }
 
     @Override
     @Nonnull
     @CheckReturnValue
     public Stream<ResolvedEvent> readAllBackwards() {
-        List<ResolvedEvent> reversed = new ArrayList<>(events);
-        Collections.reverse(reversed);
-        return reversed.stream();
+        return events.reversedStream(0, events.size());
     }
 
     @Override
@@ -75,14 +136,12 @@ public class JavaInMemoryEventStore implements EventStreamWriter, EventStreamRea
     @CheckReturnValue
     public Stream<ResolvedEvent> readAllBackwards(Position positionExclusive) {
         InMemoryEventStorePosition inMemoryPosition = (InMemoryEventStorePosition) positionExclusive;
-        List<ResolvedEvent> reversed = events.stream().limit(Math.max(0, inMemoryPosition.eventNumber - 1)).collect(Collectors.toList());
-        Collections.reverse(reversed);
-        return reversed.stream();
+        return events.reversedStream(0, clamp(inMemoryPosition.eventNumber - 1, events.size()));
     }
 
     @Override
-    public synchronized void write(StreamId streamId, Collection<NewEvent> events) {
-        write(streamId, events, currentVersionOf(streamId));
+    public void write(StreamId streamId, Collection<NewEvent> events) {
+        lockingStreams(singletonList(streamId), () -> writeReturningPositions(streamId, events, currentVersionOf(streamId)));
     }
 
     @Override
@@ -93,70 +152,192 @@ public class JavaInMemoryEventStore implements EventStreamWriter, EventStreamRea
     }
 
     @Override
-    public synchronized void write(StreamId streamId, Collection<NewEvent> events, long expectedVersion) {
+    public void write(StreamId streamId, Collection<NewEvent> events, long expectedVersion) {
+        lockingStreams(singletonList(streamId), () -> writeReturningPositions(streamId, events, expectedVersion));
+    }
+
+    @Nonnull
+    @Override
+    public CompletableFuture<WriteResult> writeAsync(StreamId streamId, Collection<NewEvent> events) {
+        return executeAsync(singletonList(new StreamWriteRequest(streamId, events, OptionalLong.empty())));
+    }
+
+    @Nonnull
+    @Override
+    public CompletableFuture<WriteResult> writeAsync(StreamId streamId, Collection<NewEvent> events, long expectedVersion) {
+        return executeAsync(singletonList(new StreamWriteRequest(streamId, events, OptionalLong.of(expectedVersion))));
+    }
+
+    /**
+     * Writes immediately, as writing to memory never blocks, and returns an already completed future.
+     */
+    @Nonnull
+    @Override
+    public CompletableFuture<WriteResult> executeAsync(Collection<StreamWriteRequest> writeRequests) {
+        CompletableFuture<WriteResult> result = new CompletableFuture<>();
+        try {
+            Map<StreamId, StreamWriteRequest> requestsByStream = writeRequests.stream().collect(Collectors.toMap(r -> r.streamId, r -> r, (r1, r2) -> {
+                throw new RuntimeException("Duplicate streamId in write request: " + r1.streamId);
+            }));
+            result.complete(lockingStreams(requestsByStream.keySet(), () -> writeAll(writeRequests)));
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private WriteResult writeAll(Collection<StreamWriteRequest> writeRequests) {
+        Map<StreamId, Long> streamVersions = new LinkedHashMap<>();
+        List<Position> positions = new ArrayList<>();
+        List<String> failures = new ArrayList<>();
+
+        for (StreamWriteRequest request : writeRequests) {
+            long expectedVersion = request.expectedVersion.orElse(currentVersionOf(request.streamId));
+            try {
+                positions.addAll(writeReturningPositions(request.streamId, request.events, expectedVersion));
+                streamVersions.put(request.streamId, expectedVersion + request.events.size());
+            } catch (WrongExpectedVersionException e) {
+                failures.add(request.streamId + ": " + e.getMessage());
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            throw new WrongExpectedVersionException(String.join(",", failures));
+        }
+        return WriteResult.writeResult(streamVersions, positions);
+    }
+
+    private List<Position> writeReturningPositions(StreamId streamId, Collection<NewEvent> events, long expectedVersion) {
         long currentVersion = currentVersionOf(streamId);
 
         if (currentVersion != expectedVersion) {
             throw new WrongExpectedVersionException(currentVersion, expectedVersion);
         }
 
-        AtomicLong globalPosition = new AtomicLong(this.events.size());
         AtomicLong eventNumber = new AtomicLong(currentVersion);
 
-        events.stream().map(newEvent -> new ResolvedEvent(new InMemoryEventStorePosition(globalPosition.incrementAndGet()), EventRecord.eventRecord(
-                clock.instant(),
-                streamId,
-                eventNumber.incrementAndGet(),
-                newEvent.type(),
-                newEvent.data(),
-                newEvent.metadata()
-        ))).forEachOrdered(this.events::add);
+        synchronized (publication) {
+            AtomicLong globalPosition = new AtomicLong(this.events.size());
+            List<ResolvedEvent> written = events.stream()
+                    .map(newEvent -> new ResolvedEvent(new InMemoryEventStorePosition(globalPosition.incrementAndGet()), EventRecord.eventRecord(
+                            clock.instant(),
+                            streamId,
+                            eventNumber.incrementAndGet(),
+                            newEvent.type(),
+                            newEvent.data(),
+                            newEvent.metadata()
+                    )))
+                    .collect(Collectors.toList());
+            storage.append(streamId, written);
+            copyOfEvents.ifPresent(copy -> copy.addAll(written));
+            return written.stream().map(ResolvedEvent::position).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Runs {@code write} holding the whole store, or, with per-stream locking, the lock stripes of {@code streamIds},
+     * taken in stripe order so that writers to overlapping sets of streams cannot deadlock.
+     */
+    private <T> T lockingStreams(Collection<StreamId> streamIds, Supplier<T> write) {
+        if (streamLocks == null) {
+            synchronized (this) {
+                return write.get();
+            }
+        }
+
+        int[] stripes = streamIds.stream().mapToInt(id -> Math.floorMod(id.hashCode(), streamLocks.length)).distinct().sorted().toArray();
+        int locked = 0;
+        try {
+            for (int stripe : stripes) {
+                streamLocks[stripe].lock();
+                locked++;
+            }
+            return write.get();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                streamLocks[stripes[i]].unlock();
+            }
+        }
     }
 
     @Override
     @Nonnull
     @CheckReturnValue
     public Stream<ResolvedEvent> readCategoryForwards(String category, Position position) {
-        return readAllForwards(position).filter(evt -> evt.eventRecord().streamId().category().equals(category));
+        EventLog categoryEvents = categoryEvents(category);
+        int size = categoryEvents.size();
+        return categoryEvents.stream(indexAfter(categoryEvents, size, position), size);
     }
 
+    /**
+     * Merges the categories' events by position as they are consumed, up to the last event published to the whole
+     * store when the read starts. Events are published to the whole store after their categories, so every category
+     * already holds each event up to that point, however far the categories have moved on since.
+     */
     @Nonnull
     @Override
     public Stream<ResolvedEvent> readCategoriesForwards(List<String> categories, Position positionExclusive) {
-        Set<String> cats = new HashSet<>(categories);
-        return readAllForwards(positionExclusive).filter(e -> cats.contains(e.eventRecord().streamId().category()));
+        InMemoryEventStorePosition head = new InMemoryEventStorePosition(events.size());
+        PriorityQueue<CategoryCursor> cursors = new PriorityQueue<>(Math.max(1, categories.size()), Comparator.comparingLong(CategoryCursor::nextPosition));
+        for (String category : new HashSet<>(categories)) {
+            EventLog categoryEvents = categoryEvents(category);
+            int size = categoryEvents.size();
+            CategoryCursor cursor = new CategoryCursor(categoryEvents, indexAfter(categoryEvents, size, positionExclusive), indexAfter(categoryEvents, size, head));
+            if (cursor.hasNext()) {
+                cursors.add(cursor);
+            }
+        }
+
+        Iterator<ResolvedEvent> merged = new Iterator<ResolvedEvent>() {
+            @Override
+            public boolean hasNext() {
+                return !cursors.isEmpty();
+            }
+
+            @Override
+            public ResolvedEvent next() {
+                CategoryCursor cursor = cursors.remove();
+                ResolvedEvent event = cursor.next();
+                if (cursor.hasNext()) {
+                    cursors.add(cursor);
+                }
+                return event;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT), false);
     }
 
     @Override
     @Nonnull
     @CheckReturnValue
     public Stream<ResolvedEvent> readCategoryBackwards(String category) {
-        return readAllBackwards().filter(evt -> evt.eventRecord().streamId().category().equals(category));
+        EventLog categoryEvents = categoryEvents(category);
+        return categoryEvents.reversedStream(0, categoryEvents.size());
     }
 
     @Override
     @Nonnull
     @CheckReturnValue
     public Stream<ResolvedEvent> readCategoryBackwards(String category, Position position) {
-        return readAllBackwards(position).filter(evt -> evt.eventRecord().streamId().category().equals(category));
+        EventLog categoryEvents = categoryEvents(category);
+        InMemoryEventStorePosition inMemoryPosition = (InMemoryEventStorePosition) position;
+        return categoryEvents.reversedStream(0, indexAfter(categoryEvents, categoryEvents.size(), new InMemoryEventStorePosition(inMemoryPosition.eventNumber - 1)));
     }
 
     @Override
     @Nonnull
     @CheckReturnValue
     public Stream<ResolvedEvent> readStreamBackwards(StreamId streamId) {
-        ensureStreamExists(streamId);
-        return readAllBackwards().filter(evt -> evt.eventRecord().streamId().equals(streamId));
+        EventLog streamEvents = existingStream(streamId);
+        return streamEvents.reversedStream(0, streamEvents.size());
     }
 
     @Override
     @Nonnull
     @CheckReturnValue
     public Stream<ResolvedEvent> readStreamBackwards(StreamId streamId, long eventNumberExclusive) {
-        ensureStreamExists(streamId);
-        return readAllBackwards()
-                .filter(evt -> evt.eventRecord().streamId().equals(streamId))
-                .filter(evt -> evt.eventRecord().eventNumber() < eventNumberExclusive);
+        EventLog streamEvents = existingStream(streamId);
+        return streamEvents.reversedStream(0, clamp(eventNumberExclusive, streamEvents.size()));
     }
 
     @Override
@@ -165,40 +346,142 @@ public class JavaInMemoryEventStore implements EventStreamWriter, EventStreamRea
         return emptyStorePosition();
     }
 
+    /**
+     * Saves the events written so far to {@code path}, in a compact binary format, for {@link #loadFrom} to load.
+     * Writers may carry on meanwhile; events they publish after saving starts are not saved.
+     */
+    public void saveTo(Path path) {
+        EventStoreSnapshot.write(events, path);
+    }
+
+    /**
+     * Loads the events saved to {@code path} by {@link #saveTo}, with their positions and timestamps, into this
+     * store, which must be empty and not being written to. This is much quicker than writing the events again, so
+     * a fixture saved once can be loaded into a fresh store for each test that needs it.
+     */
+    public void loadFrom(Path path) {
+        synchronized (publication) {
+            if (events.size() > 0) {
+                throw new IllegalStateException("Cannot load events from " + path + " into a store that already has events");
+            }
+            EventStoreSnapshot.read(path, (streamId, loaded) -> {
+                storage.append(streamId, loaded);
+                copyOfEvents.ifPresent(copy -> copy.addAll(loaded));
+            });
+        }
+    }
+
+    private void loadExisting(Collection<ResolvedEvent> existing) {
+        List<ResolvedEvent> batch = new ArrayList<>();
+        for (ResolvedEvent event : existing) {
+            StreamId streamId = event.eventRecord().streamId();
+            if (!batch.isEmpty() && !batch.get(0).eventRecord().streamId().equals(streamId)) {
+                storage.append(batch.get(0).eventRecord().streamId(), batch);
+                batch = new ArrayList<>();
+            }
+            long expectedPosition = events.size() + batch.size() + 1;
+            if (!(event.position() instanceof InMemoryEventStorePosition) || ((InMemoryEventStorePosition) event.position()).eventNumber != expectedPosition) {
+                throw new IllegalArgumentException("Expected event at position " + expectedPosition + " in supplied collection, but found " + event);
+            }
+            long expectedEventNumber = currentVersionOf(streamId) + batch.size() + 1;
+            if (event.eventRecord().eventNumber() != expectedEventNumber) {
+                throw new IllegalArgumentException("Expected event number " + expectedEventNumber + " of " + streamId + " in supplied collection, but found " + event);
+            }
+            batch.add(event);
+        }
+        if (!batch.isEmpty()) {
+            storage.append(batch.get(0).eventRecord().streamId(), batch);
+        }
+    }
+
     private long currentVersionOf(StreamId streamId) {
-        return internalReadStream(streamId, EmptyStreamEventNumber)
-                .mapToLong(r -> r.eventRecord().eventNumber())
-                .max()
-                .orElse(EmptyStreamEventNumber);
+        EventLog streamEvents = storage.stream(streamId);
+        return (streamEvents == null ? EventLog.EMPTY : streamEvents).size() - 1;
     }
 
-    private void ensureStreamExists(StreamId streamId) {
-        if (!internalReadStream(streamId, Long.MIN_VALUE)
-                .findAny()
-                .isPresent()) {
+    private EventLog categoryEvents(String category) {
+        EventLog categoryEvents = storage.category(category);
+        return categoryEvents == null ? EventLog.EMPTY : categoryEvents;
+    }
+
+    private EventLog existingStream(StreamId streamId) {
+        EventLog streamEvents = storage.stream(streamId);
+        if (streamEvents == null) {
             throw new NoSuchStreamException(streamId);
         }
+        return streamEvents;
     }
 
+    /**
+     * Event numbers in a stream run from zero without gaps, so they are also the events' indexes in the stream.
+     */
     private Stream<ResolvedEvent> internalReadStream(StreamId streamId, long eventNumberExclusive) {
-        return events.stream()
-                .filter(event -> event.eventRecord().streamId().equals(streamId))
-                .filter(event -> event.eventRecord().eventNumber() > eventNumberExclusive);
+        EventLog streamEvents = existingStream(streamId);
+        int size = streamEvents.size();
+        return streamEvents.stream(clamp(eventNumberExclusive + 1, size), size);
+    }
+
+    /**
+     * @return the index of the first of the first {@code size} {@code events}, which are in position order, that is
+     *         after {@code positionExclusive}
+     */
+    private static int indexAfter(EventLog events, int size, Position positionExclusive) {
+        long eventNumber = ((InMemoryEventStorePosition) positionExclusive).eventNumber;
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (events.positionAt(middle) <= eventNumber) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int clamp(long index, int size) {
+        return (int) Math.max(0, Math.min(index, size));
+    }
+
+    private static final class CategoryCursor {
+        private final EventLog events;
+        private final int end;
+        private int index;
+
+        private CategoryCursor(EventLog events, int start, int end) {
+            this.events = events;
+            this.index = start;
+            this.end = end;
+        }
+
+        boolean hasNext() {
+            return index < end;
+        }
+
+        long nextPosition() {
+            return events.positionAt(index);
+        }
+
+        ResolvedEvent next() {
+            return events.get(index++);
+        }
     }
 
     @Override
     public String toString() {
         return "JavaInMemoryEventStore{" +
-                "events.size=" + events.size() +
+                "storage=" + storage +
                 ", clock=" + clock +
+                ", perStreamLocking=" + (streamLocks != null) +
                 '}';
     }
 
     static final class InMemoryEventStorePosition implements Position, Comparable<InMemoryEventStorePosition> {
 
-        private final long eventNumber;
+        final long eventNumber;
 
-        private InMemoryEventStorePosition(long eventNumber) {
+        InMemoryEventStorePosition(long eventNumber) {
             this.eventNumber = eventNumber;
         }
 
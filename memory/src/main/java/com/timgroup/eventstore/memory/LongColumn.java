@@ -0,0 +1,30 @@
+package com.timgroup.eventstore.memory;
+
+import static com.timgroup.eventstore.memory.AppendOnlyLog.MAX_CHUNKS;
+import static com.timgroup.eventstore.memory.AppendOnlyLog.chunkLength;
+import static com.timgroup.eventstore.memory.AppendOnlyLog.chunkOf;
+import static com.timgroup.eventstore.memory.AppendOnlyLog.offsetOf;
+
+/**
+ * Primitive longs, in chunks that double in size like those of {@link AppendOnlyLog}, so that a column of a
+ * million values is a handful of arrays rather than a million objects.
+ *
+ * A column does not publish its own size: values are set by one writer, which then publishes how many there are
+ * through a volatile write elsewhere, and read by readers that have read that.
+ */
+final class LongColumn {
+    private final long[][] chunks = new long[MAX_CHUNKS][];
+
+    void set(int index, long value) {
+        int chunk = chunkOf(index);
+        if (chunks[chunk] == null) {
+            chunks[chunk] = new long[chunkLength(chunk)];
+        }
+        chunks[chunk][offsetOf(index, chunk)] = value;
+    }
+
+    long get(int index) {
+        int chunk = chunkOf(index);
+        return chunks[chunk][offsetOf(index, chunk)];
+    }
+}
@@ -0,0 +1,171 @@
+package com.timgroup.eventstore.memory;
+
+import com.timgroup.eventstore.api.EventRecord;
+import com.timgroup.eventstore.api.ResolvedEvent;
+import com.timgroup.eventstore.api.StreamId;
+import com.timgroup.eventstore.memory.JavaInMemoryEventStore.InMemoryEventStorePosition;
+
+import javax.annotation.Nullable;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.util.Collections.singletonList;
+
+/**
+ * Keeps events without keeping any objects per event: the header fields of the event at each index are kept in
+ * primitive columns, stream ids and event types are kept once each and referred to by number, and payloads are
+ * kept in a {@link PayloadArena}. Stream and category indexes are columns of indexes into the whole. Events are
+ * only made into {@link ResolvedEvent}s as they are read.
+ *
+ * Timestamps are kept as nanoseconds since the epoch, so must fall between the years 1677 and 2262.
+ */
+final class OffHeapEventStorage implements EventStorage {
+    private final PayloadArena payloads;
+    private final LongColumn timestamps = new LongColumn();
+    private final LongColumn eventNumbers = new LongColumn();
+    private final LongColumn streamsAndTypes = new LongColumn();
+    private final LongColumn payloadOffsets = new LongColumn();
+    private final AppendOnlyLog<StreamId> streamIds = new AppendOnlyLog<>();
+    private final AppendOnlyLog<String> eventTypes = new AppendOnlyLog<>();
+    private final Map<StreamId, Integer> streamIdNumbers = new HashMap<>();
+    private final Map<String, Integer> eventTypeNumbers = new HashMap<>();
+    private final ConcurrentMap<StreamId, EventIndex> streams = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, EventIndex> categories = new ConcurrentHashMap<>();
+    private volatile int size = 0;
+
+    private final EventLog all = new EventLog() {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public ResolvedEvent get(int index) {
+            return materialise(index);
+        }
+
+        @Override
+        public long positionAt(int index) {
+            return index + 1L;
+        }
+    };
+
+    OffHeapEventStorage(PayloadArena payloads) {
+        this.payloads = payloads;
+    }
+
+    @Override
+    public EventLog all() {
+        return all;
+    }
+
+    @Nullable
+    @Override
+    public EventLog stream(StreamId streamId) {
+        return streams.get(streamId);
+    }
+
+    @Nullable
+    @Override
+    public EventLog category(String category) {
+        return categories.get(category);
+    }
+
+    @Override
+    public void append(StreamId streamId, List<ResolvedEvent> written) {
+        int first = size;
+        int index = first;
+        long streamNumber = numberOf(streamIdNumbers, streamIds, streamId);
+        for (ResolvedEvent event : written) {
+            EventRecord record = event.eventRecord();
+            Instant timestamp = record.timestamp();
+            timestamps.set(index, Math.addExact(Math.multiplyExact(timestamp.getEpochSecond(), 1_000_000_000L), timestamp.getNano()));
+            eventNumbers.set(index, record.eventNumber());
+            streamsAndTypes.set(index, (streamNumber << 32) | numberOf(eventTypeNumbers, eventTypes, record.eventType()));
+            payloadOffsets.set(index, payloads.add(record.data(), record.metadata()));
+            index++;
+        }
+
+        appendTo(streams, streamId, first, index);
+        appendTo(categories, streamId.category(), first, index);
+        size = index;
+    }
+
+    private static <T> int numberOf(Map<T, Integer> numbers, AppendOnlyLog<T> values, T value) {
+        Integer number = numbers.get(value);
+        if (number == null) {
+            number = values.size();
+            values.addAll(singletonList(value));
+            numbers.put(value, number);
+        }
+        return number;
+    }
+
+    /**
+     * Only makes a new index visible once it holds the events, so that readers never find an empty stream.
+     */
+    private <K> void appendTo(ConcurrentMap<K, EventIndex> indexes, K key, int fromIndex, int toIndex) {
+        EventIndex index = indexes.get(key);
+        if (index == null) {
+            index = new EventIndex();
+            index.addRange(fromIndex, toIndex);
+            indexes.put(key, index);
+        } else {
+            index.addRange(fromIndex, toIndex);
+        }
+    }
+
+    private ResolvedEvent materialise(int index) {
+        long timestamp = timestamps.get(index);
+        long streamAndType = streamsAndTypes.get(index);
+        PayloadArena.Payload payload = payloads.read(payloadOffsets.get(index));
+        return new ResolvedEvent(new InMemoryEventStorePosition(index + 1L), EventRecord.eventRecord(
+                Instant.ofEpochSecond(0, timestamp),
+                streamIds.get((int) (streamAndType >>> 32)),
+                eventNumbers.get(index),
+                eventTypes.get((int) streamAndType),
+                payload.data,
+                payload.metadata
+        ));
+    }
+
+    @Override
+    public String toString() {
+        return "OffHeapEventStorage{" +
+                "size=" + size +
+                ", payloads=" + payloads +
+                '}';
+    }
+
+    private final class EventIndex implements EventLog {
+        private final LongColumn indexes = new LongColumn();
+        private volatile int size = 0;
+
+        void addRange(int fromIndex, int toIndex) {
+            int next = size;
+            for (int index = fromIndex; index < toIndex; index++) {
+                indexes.set(next++, index);
+            }
+            size = next;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public ResolvedEvent get(int index) {
+            return materialise((int) indexes.get(index));
+        }
+
+        @Override
+        public long positionAt(int index) {
+            return indexes.get(index) + 1;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.timgroup.eventstore.memory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.IntFunction;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Collections.singletonList;
+
+/**
+ * Event data and metadata, packed one after another into large buffers allocated outside the heap, so that the
+ * garbage collector sees a few buffers rather than two arrays per event.
+ *
+ * Payloads are appended by one writer, which publishes their offsets through a volatile write elsewhere; any
+ * number of readers that have read an offset can then read its payload.
+ */
+final class PayloadArena {
+    private static final int LENGTHS_BYTES = 2 * Integer.BYTES;
+
+    private final int chunkBytes;
+    private final IntFunction<ByteBuffer> allocator;
+    private final AppendOnlyLog<ByteBuffer> chunks = new AppendOnlyLog<>();
+    private ByteBuffer current = null;
+
+    /**
+     * @param allocator allocates a buffer of at least the given capacity, positioned at zero
+     */
+    PayloadArena(int chunkBytes, IntFunction<ByteBuffer> allocator) {
+        this.chunkBytes = chunkBytes;
+        this.allocator = allocator;
+    }
+
+    static PayloadArena directBuffers(int chunkBytes) {
+        return new PayloadArena(chunkBytes, ByteBuffer::allocateDirect);
+    }
+
+    /**
+     * Maps each buffer to a new file in {@code directory}. The files are deleted as soon as they are mapped where
+     * the file system allows it, as they are never read again once the arena is gone, and otherwise on exit.
+     */
+    static PayloadArena memoryMappedFiles(int chunkBytes, Path directory) {
+        return new PayloadArena(chunkBytes, capacity -> {
+            try {
+                Path file = Files.createTempFile(directory, "payloads-", ".arena");
+                MappedByteBuffer buffer;
+                try (FileChannel channel = FileChannel.open(file, READ, WRITE)) {
+                    buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+                }
+                try {
+                    Files.delete(file);
+                } catch (IOException e) {
+                    file.toFile().deleteOnExit();
+                }
+                return buffer;
+            } catch (IOException e) {
+                throw new RuntimeException("Unable to map payload arena in " + directory, e);
+            }
+        });
+    }
+
+    /**
+     * @return the offset to {@link #read} the payload back from
+     */
+    long add(byte[] data, byte[] metadata) {
+        int length = LENGTHS_BYTES + data.length + metadata.length;
+        if (current == null || current.remaining() < length) {
+            ByteBuffer chunk = allocator.apply(Math.max(chunkBytes, length));
+            current = chunk.duplicate();
+            chunks.addAll(singletonList(chunk));
+        }
+        long offset = ((long) (chunks.size() - 1) << 32) | current.position();
+        current.putInt(data.length).putInt(metadata.length).put(data).put(metadata);
+        return offset;
+    }
+
+    Payload read(long offset) {
+        ByteBuffer chunk = chunks.get((int) (offset >>> 32)).duplicate();
+        chunk.position((int) offset);
+        byte[] data = new byte[chunk.getInt()];
+        byte[] metadata = new byte[chunk.getInt()];
+        chunk.get(data).get(metadata);
+        return new Payload(data, metadata);
+    }
+
+    static final class Payload {
+        final byte[] data;
+        final byte[] metadata;
+
+        private Payload(byte[] data, byte[] metadata) {
+            this.data = data;
+            this.metadata = metadata;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PayloadArena{" +
+                "chunkBytes=" + chunkBytes +
+                ", chunks=" + chunks.size() +
+                '}';
+    }
+}
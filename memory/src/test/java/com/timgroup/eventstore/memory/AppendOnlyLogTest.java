@@ -0,0 +1,71 @@
+package com.timgroup.eventstore.memory;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class AppendOnlyLogTest {
+    @Test
+    public void reads_items_back_by_index_across_chunks() {
+        AppendOnlyLog<Integer> log = new AppendOnlyLog<>();
+        List<Integer> items = IntStream.range(0, 10_000).boxed().collect(toList());
+
+        log.addAll(items.subList(0, 5));
+        log.addAll(items.subList(5, items.size()));
+
+        assertThat(log.size(), is(10_000));
+        assertThat(IntStream.range(0, 10_000).mapToObj(log::get).collect(toList()), equalTo(items));
+    }
+
+    @Test
+    public void streams_ranges_forwards_and_backwards() {
+        AppendOnlyLog<String> log = new AppendOnlyLog<>();
+        log.addAll(asList("a", "b", "c", "d", "e"));
+
+        assertThat(log.stream(1, 4).collect(toList()), contains("b", "c", "d"));
+        assertThat(log.reversedStream(1, 4).collect(toList()), contains("d", "c", "b"));
+        assertThat(log.stream(5, 5).count(), is(0L));
+    }
+
+    @Test
+    public void readers_see_every_item_below_the_size_they_read_while_appending_continues() throws InterruptedException {
+        AppendOnlyLog<Integer> log = new AppendOnlyLog<>();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        Thread reader = new Thread(() -> {
+            try {
+                while (writing.get()) {
+                    int size = log.size();
+                    for (int i = 0; i < size; i++) {
+                        if (log.get(i) != i) {
+                            throw new AssertionError("read " + log.get(i) + " at " + i);
+                        }
+                    }
+                }
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 200_000; i++) {
+            log.addAll(singletonList(i));
+        }
+        writing.set(false);
+        reader.join();
+
+        assertThat(failure.get(), is(nullValue()));
+    }
+}
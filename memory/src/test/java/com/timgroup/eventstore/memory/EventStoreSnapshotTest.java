@@ -0,0 +1,112 @@
+package com.timgroup.eventstore.memory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.timgroup.eventstore.api.ResolvedEvent;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static com.timgroup.eventstore.api.EventRecord.eventRecord;
+import static com.timgroup.eventstore.api.NewEvent.newEvent;
+import static com.timgroup.eventstore.api.StreamId.streamId;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+public class EventStoreSnapshotTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final Clock clock = Clock.fixed(Instant.parse("2017-03-04T05:06:07.123456789Z"), ZoneOffset.UTC);
+
+    @Test
+    public void loads_saved_events_with_their_positions_and_timestamps() throws IOException {
+        JavaInMemoryEventStore saved = new JavaInMemoryEventStore(clock);
+        saved.write(streamId("alpha", "1"), asList(newEvent("Created", "a".getBytes(), "m".getBytes()), newEvent("Updated", "b".getBytes())));
+        saved.write(streamId("beta", "1"), singletonList(newEvent("Created", "c".getBytes())));
+        saved.write(streamId("alpha", "1"), singletonList(newEvent("Deleted", new byte[0])));
+        Path path = folder.newFile().toPath();
+
+        saved.saveTo(path);
+        JavaInMemoryEventStore loaded = new JavaInMemoryEventStore(Clock.systemUTC());
+        loaded.loadFrom(path);
+
+        assertThat(loaded.readAllForwards().collect(toList()), equalTo(saved.readAllForwards().collect(toList())));
+        assertThat(loaded.readStreamForwards(streamId("alpha", "1")).collect(toList()), equalTo(saved.readStreamForwards(streamId("alpha", "1")).collect(toList())));
+        assertThat(loaded.readCategoryForwards("beta").collect(toList()), equalTo(saved.readCategoryForwards("beta").collect(toList())));
+    }
+
+    @Test
+    public void carries_on_numbering_events_after_those_loaded() throws IOException {
+        JavaInMemoryEventStore saved = new JavaInMemoryEventStore(clock);
+        saved.write(streamId("alpha", "1"), asList(newEvent("Created", new byte[0]), newEvent("Updated", new byte[0])));
+        Path path = folder.newFile().toPath();
+        saved.saveTo(path);
+
+        JavaInMemoryEventStore loaded = new JavaInMemoryEventStore(clock);
+        loaded.loadFrom(path);
+        loaded.write(streamId("alpha", "1"), singletonList(newEvent("Deleted", new byte[0])), 1);
+
+        assertThat(loaded.readAllForwards().map(ResolvedEvent::position).map(Object::toString).collect(toList()), contains("1", "2", "3"));
+        assertThat(loaded.readStreamForwards(streamId("alpha", "1")).map(e -> e.eventRecord().eventNumber()).collect(toList()), contains(0L, 1L, 2L));
+    }
+
+    @Test
+    public void loads_each_copy_of_a_saved_store_independently_and_into_off_heap_storage() throws IOException {
+        JavaInMemoryEventStore saved = new JavaInMemoryEventStore(clock);
+        saved.write(streamId("alpha", "1"), singletonList(newEvent("Created", "a".getBytes())));
+        Path path = folder.newFile().toPath();
+        saved.saveTo(path);
+
+        JavaInMemoryEventStore first = new JavaInMemoryEventStore(clock);
+        first.loadFrom(path);
+        first.write(streamId("alpha", "1"), singletonList(newEvent("Updated", new byte[0])));
+        JavaInMemoryEventStore second = JavaInMemoryEventStore.withOffHeapPayloads(clock);
+        second.loadFrom(path);
+
+        assertThat(second.readAllForwards().collect(toList()), equalTo(saved.readAllForwards().collect(toList())));
+    }
+
+    @Test
+    public void loads_events_spanning_several_mapped_windows() throws IOException {
+        JavaInMemoryEventStore saved = new JavaInMemoryEventStore(clock);
+        saved.write(streamId("alpha", "1"), asList(newEvent("Created", "a".getBytes(), "m".getBytes()), newEvent("Updated", new byte[100])));
+        saved.write(streamId("beta", "1"), singletonList(newEvent("Created", "c".getBytes())));
+        Path path = folder.newFile().toPath();
+        saved.saveTo(path);
+
+        List<ResolvedEvent> loaded = new ArrayList<>();
+        EventStoreSnapshot.read(path, 16, (streamId, events) -> loaded.addAll(events));
+
+        assertThat(loaded, equalTo(saved.readAllForwards().collect(toList())));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void refuses_to_load_into_a_store_with_events() throws IOException {
+        JavaInMemoryEventStore saved = new JavaInMemoryEventStore(clock);
+        saved.write(streamId("alpha", "1"), singletonList(newEvent("Created", new byte[0])));
+        Path path = folder.newFile().toPath();
+        saved.saveTo(path);
+
+        saved.loadFrom(path);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void refuses_to_load_a_file_that_is_not_a_saved_store() throws IOException {
+        Path path = folder.newFile().toPath();
+        Files.write(path, "not events".getBytes());
+
+        new JavaInMemoryEventStore(clock).loadFrom(path);
+    }
+}
@@ -1,8 +1,10 @@
 package com.timgroup.eventstore.memory;
 
 import java.time.Clock;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 import com.timgroup.eventstore.api.EventSource;
@@ -11,8 +13,12 @@ import com.timgroup.eventstore.api.Position;
 import com.timgroup.eventstore.api.ResolvedEvent;
 import org.junit.Test;
 
+import static com.timgroup.eventstore.api.NewEvent.newEvent;
+import static com.timgroup.eventstore.api.StreamId.streamId;
+import static java.util.Collections.singletonList;
 import static java.util.stream.Collectors.toList;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
 
 public class JavaInMemoryEventStoreTest extends JavaEventStoreTest {
@@ -48,6 +54,62 @@ public class JavaInMemoryEventStoreTest extends JavaEventStoreTest {
         assertThat(resolvedEventStream.count(), equalTo(0L));
     }
 
+    @SuppressWarnings("deprecation")
+    @Test
+    public void gives_a_supplied_collection_a_copy_of_each_event_written() {
+        List<ResolvedEvent> copy = new ArrayList<>();
+        JavaInMemoryEventStore store = new JavaInMemoryEventStore(() -> copy, Clock.systemUTC());
+
+        store.write(streamId("alpha", "1"), singletonList(newEvent("Type", new byte[0])));
+        store.write(streamId("beta", "1"), singletonList(newEvent("Type", new byte[0])));
+
+        assertThat(copy, equalTo(store.readAllForwards().collect(toList())));
+    }
+
+    @SuppressWarnings("deprecation")
+    @Test
+    public void loads_events_already_in_a_supplied_collection() {
+        List<ResolvedEvent> copy = new ArrayList<>();
+        JavaInMemoryEventStore original = new JavaInMemoryEventStore(() -> copy, Clock.systemUTC());
+        original.write(streamId("alpha", "1"), singletonList(newEvent("Type", new byte[0])));
+        original.write(streamId("beta", "1"), singletonList(newEvent("Type", new byte[0])));
+
+        JavaInMemoryEventStore store = new JavaInMemoryEventStore(() -> copy, Clock.systemUTC());
+        store.write(streamId("alpha", "1"), singletonList(newEvent("Type", new byte[0])));
+
+        assertThat(store.readAllForwards().limit(2).collect(toList()), equalTo(original.readAllForwards().collect(toList())));
+        assertThat(store.readStreamForwards(streamId("alpha", "1")).map(e -> e.eventRecord().eventNumber()).collect(toList()), contains(0L, 1L));
+        assertThat(store.readAllForwards().skip(2).map(ResolvedEvent::position).collect(toList()), contains(position(3L)));
+    }
+
+    @SuppressWarnings("deprecation")
+    @Test(expected = IllegalArgumentException.class)
+    public void rejects_a_supplied_collection_of_events_out_of_order() {
+        List<ResolvedEvent> written = new ArrayList<>();
+        JavaInMemoryEventStore original = new JavaInMemoryEventStore(() -> written, Clock.systemUTC());
+        original.write(streamId("alpha", "1"), singletonList(newEvent("Type", new byte[0])));
+        original.write(streamId("beta", "1"), singletonList(newEvent("Type", new byte[0])));
+
+        new JavaInMemoryEventStore(() -> Arrays.asList(written.get(1), written.get(0)), Clock.systemUTC());
+    }
+
+    @Test
+    public void never_skips_an_event_when_reading_categories_while_they_are_written() throws Exception {
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 20_000; i++) {
+                eventStore.write(streamId(i % 2 == 0 ? "alpha" : "beta", "1"), singletonList(newEvent("Type", new byte[0])));
+            }
+        });
+        writer.start();
+        while (writer.isAlive()) {
+            List<String> positions = eventStore.readCategoriesForwards(Arrays.asList("alpha", "beta"), eventStore.emptyStorePosition())
+                    .map(e -> e.position().toString())
+                    .collect(toList());
+            assertThat(positions, equalTo(LongStream.rangeClosed(1, positions.size()).mapToObj(Long::toString).collect(toList())));
+        }
+        writer.join();
+    }
+
     private Position position(long n) {
         return eventSource().positionCodec().deserializePosition(Long.toString(n));
     }
@@ -0,0 +1,41 @@
+package com.timgroup.eventstore.memory;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import com.timgroup.eventstore.api.EventRecord;
+import com.timgroup.eventstore.api.EventSource;
+import com.timgroup.eventstore.api.JavaEventStoreTest;
+import org.junit.Test;
+
+import static com.timgroup.eventstore.api.NewEvent.newEvent;
+import static com.timgroup.eventstore.api.StreamId.streamId;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+public class OffHeapJavaInMemoryEventStoreTest extends JavaEventStoreTest {
+
+    private final JavaInMemoryEventStore eventStore = JavaInMemoryEventStore.withOffHeapPayloads(Clock.systemUTC());
+
+    @Override
+    public EventSource eventSource() {
+        return new InMemoryEventSource(eventStore);
+    }
+
+    @Test
+    public void reads_back_every_field_of_events_written() {
+        Instant timestamp = Instant.parse("2017-03-04T05:06:07.123456789Z");
+        JavaInMemoryEventStore store = JavaInMemoryEventStore.withOffHeapPayloads(Clock.fixed(timestamp, ZoneOffset.UTC));
+
+        store.write(streamId("alpha", "1"), singletonList(newEvent("Created", "data".getBytes(), "metadata".getBytes())));
+        store.write(streamId("alpha", "1"), singletonList(newEvent("Updated", new byte[0], new byte[0])));
+
+        assertThat(store.readStreamForwards(streamId("alpha", "1")).map(e -> e.eventRecord()).collect(toList()), contains(
+                EventRecord.eventRecord(timestamp, streamId("alpha", "1"), 0, "Created", "data".getBytes(), "metadata".getBytes()),
+                EventRecord.eventRecord(timestamp, streamId("alpha", "1"), 1, "Updated", new byte[0], new byte[0])
+        ));
+    }
+}
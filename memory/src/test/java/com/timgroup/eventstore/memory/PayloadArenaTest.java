@@ -0,0 +1,48 @@
+package com.timgroup.eventstore.memory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class PayloadArenaTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void reads_back_payloads_spanning_several_chunks_and_larger_than_a_chunk() {
+        PayloadArena arena = PayloadArena.directBuffers(32);
+
+        long small = arena.add("abc".getBytes(), "de".getBytes());
+        long large = arena.add(new byte[100], "large".getBytes());
+        long next = arena.add("fgh".getBytes(), new byte[0]);
+
+        assertPayload(arena.read(small), "abc".getBytes(), "de".getBytes());
+        assertPayload(arena.read(large), new byte[100], "large".getBytes());
+        assertPayload(arena.read(next), "fgh".getBytes(), new byte[0]);
+    }
+
+    @Test
+    public void reads_back_payloads_from_memory_mapped_files() throws IOException {
+        Path directory = folder.newFolder().toPath();
+        PayloadArena arena = PayloadArena.memoryMappedFiles(1024, directory);
+
+        long first = arena.add("abc".getBytes(), "de".getBytes());
+        long second = arena.add(new byte[2000], new byte[1]);
+
+        assertPayload(arena.read(first), "abc".getBytes(), "de".getBytes());
+        assertPayload(arena.read(second), new byte[2000], new byte[1]);
+        assertThat(Files.list(directory).count(), equalTo(0L));
+    }
+
+    private static void assertPayload(PayloadArena.Payload payload, byte[] data, byte[] metadata) {
+        assertThat(payload.data, equalTo(data));
+        assertThat(payload.metadata, equalTo(metadata));
+    }
+}
@@ -0,0 +1,64 @@
+package com.timgroup.eventstore.memory;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+import com.timgroup.eventstore.api.EventSource;
+import com.timgroup.eventstore.api.JavaEventStoreTest;
+import com.timgroup.eventstore.api.ResolvedEvent;
+import com.timgroup.eventstore.api.StreamId;
+import org.junit.Test;
+
+import static com.timgroup.eventstore.api.NewEvent.newEvent;
+import static com.timgroup.eventstore.api.StreamId.streamId;
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class PerStreamLockingJavaInMemoryEventStoreTest extends JavaEventStoreTest {
+
+    private final JavaInMemoryEventStore eventStore = JavaInMemoryEventStore.withPerStreamLocking(Clock.systemUTC());
+
+    @Override
+    public EventSource eventSource() {
+        return new InMemoryEventSource(eventStore);
+    }
+
+    @Test
+    public void numbers_events_without_gaps_when_writing_to_many_streams_concurrently() throws Exception {
+        int writers = 8;
+        int writesPerWriter = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int writer = 0; writer < writers; writer++) {
+                StreamId streamId = streamId("concurrent", Integer.toString(writer));
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < writesPerWriter; i++) {
+                        eventStore.write(streamId, asList(newEvent("A", new byte[0]), newEvent("B", new byte[0])), 2L * i - 1);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        List<ResolvedEvent> all = eventStore.readAllForwards().collect(toList());
+        assertThat(all.stream().map(e -> e.position().toString()).collect(toList()),
+                equalTo(LongStream.rangeClosed(1, 2L * writers * writesPerWriter).mapToObj(Long::toString).collect(toList())));
+        assertThat(eventStore.readCategoryForwards("concurrent").collect(toList()), equalTo(all));
+        for (int writer = 0; writer < writers; writer++) {
+            assertThat(eventStore.readStreamForwards(streamId("concurrent", Integer.toString(writer))).map(e -> e.eventRecord().eventNumber()).collect(toList()),
+                    equalTo(LongStream.range(0, 2L * writesPerWriter).boxed().collect(toList())));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.timgroup.eventstore.mysql;
+
+import java.time.Duration;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Lets forwards reads vary their page size between {@code minPageSize} and {@code maxPageSize}, aiming for pages
+ * that take about {@code targetPageLatency} to fetch and carry about {@code targetPageBytes} of event data and
+ * metadata, whichever gives the smaller page.
+ */
+public final class AdaptivePageSizePolicy {
+    final int minPageSize;
+    final int maxPageSize;
+    final Duration targetPageLatency;
+    final long targetPageBytes;
+
+    private AdaptivePageSizePolicy(int minPageSize, int maxPageSize, Duration targetPageLatency, long targetPageBytes) {
+        if (minPageSize <= 0) {
+            throw new IllegalArgumentException("minPageSize must be positive. Got " + minPageSize);
+        }
+        if (maxPageSize < minPageSize) {
+            throw new IllegalArgumentException("maxPageSize must be at least minPageSize. Got " + maxPageSize);
+        }
+        this.targetPageLatency = requireNonNull(targetPageLatency);
+        if (targetPageLatency.isNegative() || targetPageLatency.isZero()) {
+            throw new IllegalArgumentException("targetPageLatency must be positive. Got " + targetPageLatency);
+        }
+        if (targetPageBytes <= 0) {
+            throw new IllegalArgumentException("targetPageBytes must be positive. Got " + targetPageBytes);
+        }
+        this.minPageSize = minPageSize;
+        this.maxPageSize = maxPageSize;
+        this.targetPageBytes = targetPageBytes;
+    }
+
+    public static AdaptivePageSizePolicy adaptivePageSizePolicy(int minPageSize, int maxPageSize, Duration targetPageLatency, long targetPageBytes) {
+        return new AdaptivePageSizePolicy(minPageSize, maxPageSize, targetPageLatency, targetPageBytes);
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptivePageSizePolicy{" +
+                "minPageSize=" + minPageSize +
+                ", maxPageSize=" + maxPageSize +
+                ", targetPageLatency=" + targetPageLatency +
+                ", targetPageBytes=" + targetPageBytes +
+                '}';
+    }
+}
@@ -0,0 +1,60 @@
+package com.timgroup.eventstore.mysql;
+
+/**
+ * Moves the page size towards the size that would meet the {@link AdaptivePageSizePolicy}'s latency and byte
+ * targets, judged by the per-row cost of the pages fetched so far.
+ *
+ * Each adjustment goes half way to the ideal size, and at most doubles the current size, so that one unusual
+ * page does not swing it wildly. A page that came back short (because the reader caught up with the end
+ * of the store) says nothing about how a bigger page would behave, so it can shrink the page size but never grow it.
+ */
+final class AdaptivePageSizer implements PageSizer {
+    private final AdaptivePageSizePolicy policy;
+    private int currentPageSize;
+
+    AdaptivePageSizer(AdaptivePageSizePolicy policy, int initialPageSize) {
+        this.policy = policy;
+        this.currentPageSize = clamp(initialPageSize, policy.minPageSize, policy.maxPageSize);
+    }
+
+    @Override
+    public synchronized int nextPageSize() {
+        return currentPageSize;
+    }
+
+    @Override
+    public synchronized void pageFetched(int pageSize, int rowsFetched, long payloadBytes, long elapsedNanos) {
+        if (rowsFetched == 0) {
+            return;
+        }
+
+        double nanosPerRow = Math.max(1L, elapsedNanos) / (double) rowsFetched;
+        double bytesPerRow = Math.max(1L, payloadBytes) / (double) rowsFetched;
+        double idealPageSize = Math.min(
+                policy.targetPageLatency.toNanos() / nanosPerRow,
+                policy.targetPageBytes / bytesPerRow);
+
+        if (rowsFetched < pageSize && idealPageSize > currentPageSize) {
+            return;
+        }
+
+        long nextPageSize = Math.min(Math.round(currentPageSize + (idealPageSize - currentPageSize) / 2), currentPageSize * 2L);
+        currentPageSize = (int) clamp(nextPageSize, policy.minPageSize, policy.maxPageSize);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "AdaptivePageSizer{" +
+                "policy=" + policy +
+                ", currentPageSize=" + currentPageSize +
+                '}';
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private static long clamp(long value, long min, long max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -0,0 +1,104 @@
+package com.timgroup.eventstore.mysql;
+
+import com.timgroup.eventstore.api.EventCategoryReader;
+import com.timgroup.eventstore.api.Position;
+import com.timgroup.eventstore.api.ResolvedEvent;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static com.timgroup.eventstore.mysql.ArchiveStitchingEventReader.stitchedBackwards;
+import static com.timgroup.eventstore.mysql.ArchiveStitchingEventReader.stitchedForwards;
+import static java.lang.Long.MAX_VALUE;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads categories from the archived partitions of a table followed by the table itself, in the same way as
+ * {@link ArchiveStitchingEventReader}. The archive is not indexed, so reading an archived range of a category
+ * scans all the archived events in that range.
+ */
+final class ArchiveStitchingEventCategoryReader implements EventCategoryReader {
+    private final PartitionArchive archive;
+    private final EventCategoryReader live;
+
+    ArchiveStitchingEventCategoryReader(PartitionArchive archive, EventCategoryReader live) {
+        this.archive = requireNonNull(archive);
+        this.live = requireNonNull(live);
+    }
+
+    @CheckReturnValue
+    @Nonnull
+    @Override
+    public Stream<ResolvedEvent> readCategoryForwards(String category, Position positionExclusive) {
+        return stitchedForwards(archive, positionExclusive, inCategory(category),
+                position -> live.readCategoryForwards(category, new BasicMysqlEventStorePosition(position)));
+    }
+
+    @CheckReturnValue
+    @Nonnull
+    @Override
+    public Stream<ResolvedEvent> readCategoryForwardsOfTypes(String category, Set<String> eventTypes, Position positionExclusive) {
+        return stitchedForwards(archive, positionExclusive, inCategory(category).and(ofTypes(eventTypes)),
+                position -> live.readCategoryForwardsOfTypes(category, eventTypes, new BasicMysqlEventStorePosition(position)));
+    }
+
+    @CheckReturnValue
+    @Nonnull
+    @Override
+    public Stream<ResolvedEvent> readCategoriesForwards(List<String> categories, Position positionExclusive) {
+        return stitchedForwards(archive, positionExclusive, inCategories(categories),
+                position -> live.readCategoriesForwards(categories, new BasicMysqlEventStorePosition(position)));
+    }
+
+    @CheckReturnValue
+    @Nonnull
+    @Override
+    public Stream<ResolvedEvent> readCategoriesForwardsOfTypes(List<String> categories, Set<String> eventTypes, Position positionExclusive) {
+        return stitchedForwards(archive, positionExclusive, inCategories(categories).and(ofTypes(eventTypes)),
+                position -> live.readCategoriesForwardsOfTypes(categories, eventTypes, new BasicMysqlEventStorePosition(position)));
+    }
+
+    @CheckReturnValue
+    @Nonnull
+    @Override
+    public Stream<ResolvedEvent> readCategoryBackwards(String category) {
+        return stitchedBackwards(archive, live.readCategoryBackwards(category), new BasicMysqlEventStorePosition(MAX_VALUE), inCategory(category));
+    }
+
+    @CheckReturnValue
+    @Nonnull
+    @Override
+    public Stream<ResolvedEvent> readCategoryBackwards(String category, Position positionExclusive) {
+        return stitchedBackwards(archive, live.readCategoryBackwards(category, positionExclusive), positionExclusive, inCategory(category));
+    }
+
+    @Nonnull
+    @Override
+    public Position emptyCategoryPosition(String category) {
+        return live.emptyCategoryPosition(category);
+    }
+
+    @Override
+    public String toString() {
+        return "ArchiveStitchingEventCategoryReader{" +
+                "archive=" + archive +
+                ", live=" + live +
+                '}';
+    }
+
+    private static Predicate<ResolvedEvent> inCategory(String category) {
+        return event -> event.eventRecord().streamId().category().equals(category);
+    }
+
+    private static Predicate<ResolvedEvent> inCategories(List<String> categories) {
+        return event -> categories.contains(event.eventRecord().streamId().category());
+    }
+
+    private static Predicate<ResolvedEvent> ofTypes(Set<String> eventTypes) {
+        return event -> eventTypes.contains(event.eventRecord().eventType());
+    }
+}
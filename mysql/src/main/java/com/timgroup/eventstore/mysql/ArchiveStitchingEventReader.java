@@ -0,0 +1,195 @@
+package com.timgroup.eventstore.mysql;
+
+import com.timgroup.eventstore.api.EventReader;
+import com.timgroup.eventstore.api.Position;
+import com.timgroup.eventstore.api.ResolvedEvent;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnull;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static com.timgroup.eventstore.mysql.BasicMysqlEventStorePosition.EMPTY_STORE_POSITION;
+import static java.lang.Long.MAX_VALUE;
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.StreamSupport.stream;
+
+/**
+ * Reads the archived partitions of a table followed by the table itself. Archived events keep their positions,
+ * so positions read from here can be used to continue reading either part.
+ *
+ * Partitions may be archived and dropped while a read is in progress, so reads forwards read the table in one
+ * pass, and look for newly archived partitions only where events could have been missed: when the table skips
+ * positions, and when it runs out. A partition's archive file is in place before the partition is dropped, so if
+ * the archive has not moved past the last position returned, nothing read from the table was skipped. Otherwise
+ * the read continues from the archive, and reads the table again afterwards.
+ */
+final class ArchiveStitchingEventReader implements EventReader {
+    private final PartitionArchive archive;
+    private final EventReader live;
+
+    ArchiveStitchingEventReader(PartitionArchive archive, EventReader live) {
+        this.archive = requireNonNull(archive);
+        this.live = requireNonNull(live);
+    }
+
+    @CheckReturnValue
+    @Nonnull
+    @Override
+    public Stream<ResolvedEvent> readAllForwards(Position positionExclusive) {
+        return stitchedForwards(archive, positionExclusive, event -> true, position -> live.readAllForwards(new BasicMysqlEventStorePosition(position)));
+    }
+
+    @CheckReturnValue
+    @Nonnull
+    @Override
+    public Stream<ResolvedEvent> readAllBackwards() {
+        return stitchedBackwards(archive, live.readAllBackwards(), new BasicMysqlEventStorePosition(MAX_VALUE), event -> true);
+    }
+
+    @CheckReturnValue
+    @Nonnull
+    @Override
+    public Stream<ResolvedEvent> readAllBackwards(Position positionExclusive) {
+        return stitchedBackwards(archive, live.readAllBackwards(positionExclusive), positionExclusive, event -> true);
+    }
+
+    /**
+     * Seeks in the table, and only scans the archive if the timestamp is before the table's first event.
+     */
+    @Nonnull
+    @Override
+    public Position positionAt(Instant timestamp) {
+        Position position = live.positionAt(timestamp);
+        if (!position.equals(EMPTY_STORE_POSITION)) {
+            return position;
+        }
+        return EventReader.super.positionAt(timestamp);
+    }
+
+    @Nonnull
+    @Override
+    public Position emptyStorePosition() {
+        return EMPTY_STORE_POSITION;
+    }
+
+    @Override
+    public String toString() {
+        return "ArchiveStitchingEventReader{" +
+                "archive=" + archive +
+                ", live=" + live +
+                '}';
+    }
+
+    /**
+     * @param archived selects the archived events to return
+     * @param liveAfter reads the matching events in the table after a position
+     */
+    static Stream<ResolvedEvent> stitchedForwards(PartitionArchive archive, Position positionExclusive, Predicate<ResolvedEvent> archived, LongFunction<Stream<ResolvedEvent>> liveAfter) {
+        ForwardsSpliterator spliterator = new ForwardsSpliterator(archive, ((BasicMysqlEventStorePosition) positionExclusive).value, archived, liveAfter);
+        return stream(spliterator, false).onClose(spliterator::close);
+    }
+
+    /**
+     * Reads {@code live} and then the archive below the lowest position it returned, so that an event is not
+     * returned twice if its partition is archived during the read.
+     */
+    static Stream<ResolvedEvent> stitchedBackwards(PartitionArchive archive, Stream<ResolvedEvent> live, Position positionExclusive, Predicate<ResolvedEvent> archived) {
+        long[] lowest = { ((BasicMysqlEventStorePosition) positionExclusive).value };
+        return Stream.concat(
+                live.peek(event -> lowest[0] = positionOf(event)),
+                Stream.of(archive).flatMap(a -> a.readBackwards(lowest[0]).filter(archived)));
+    }
+
+    private static long positionOf(ResolvedEvent event) {
+        return ((BasicMysqlEventStorePosition) event.position()).value;
+    }
+
+    private static final class ForwardsSpliterator implements Spliterator<ResolvedEvent> {
+        private final PartitionArchive archive;
+        private final Predicate<ResolvedEvent> archived;
+        private final LongFunction<Stream<ResolvedEvent>> liveAfter;
+        private long position;
+        private Stream<ResolvedEvent> source = null;
+        private Iterator<ResolvedEvent> current = Collections.emptyIterator();
+        private boolean fromArchive;
+        private long archivedBelow;
+
+        private ForwardsSpliterator(PartitionArchive archive, long position, Predicate<ResolvedEvent> archived, LongFunction<Stream<ResolvedEvent>> liveAfter) {
+            this.archive = archive;
+            this.position = position;
+            this.archived = archived;
+            this.liveAfter = liveAfter;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super ResolvedEvent> action) {
+            while (true) {
+                if (source == null) {
+                    open();
+                }
+                if (current.hasNext()) {
+                    ResolvedEvent event = current.next();
+                    if (!fromArchive && positionOf(event) > position + 1 && archivedPast(position)) {
+                        close();
+                        continue;
+                    }
+                    position = Math.max(position, positionOf(event));
+                    action.accept(event);
+                    return true;
+                }
+                if (fromArchive) {
+                    position = Math.max(position, archivedBelow - 1);
+                } else if (!archivedPast(position)) {
+                    return false;
+                }
+                close();
+            }
+        }
+
+        private void open() {
+            archivedBelow = archive.upperBound();
+            fromArchive = position < archivedBelow - 1;
+            if (fromArchive) {
+                source = archive.readForwards(position);
+                current = source.filter(archived).iterator();
+            } else {
+                source = liveAfter.apply(position);
+                current = source.iterator();
+            }
+        }
+
+        private boolean archivedPast(long position) {
+            return archive.upperBound() - 1 > position;
+        }
+
+        void close() {
+            if (source != null) {
+                source.close();
+                source = null;
+                current = Collections.emptyIterator();
+            }
+        }
+
+        @Override
+        public Spliterator<ResolvedEvent> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | DISTINCT;
+        }
+    }
+}
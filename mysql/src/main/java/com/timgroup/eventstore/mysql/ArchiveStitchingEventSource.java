@@ -0,0 +1,71 @@
+package com.timgroup.eventstore.mysql;
+
+import com.timgroup.eventstore.api.EventCategoryReader;
+import com.timgroup.eventstore.api.EventReader;
+import com.timgroup.eventstore.api.EventSource;
+import com.timgroup.eventstore.api.EventStreamReader;
+import com.timgroup.eventstore.api.EventStreamWriter;
+import com.timgroup.eventstore.api.PositionCodec;
+import com.timgroup.tucker.info.Component;
+
+import javax.annotation.Nonnull;
+import java.util.Collection;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads the archived partitions of a table followed by the table itself, and writes to the table.
+ */
+final class ArchiveStitchingEventSource implements EventSource {
+    private final PartitionArchive archive;
+    private final EventSource live;
+
+    ArchiveStitchingEventSource(PartitionArchive archive, EventSource live) {
+        this.archive = requireNonNull(archive);
+        this.live = requireNonNull(live);
+    }
+
+    @Nonnull
+    @Override
+    public EventReader readAll() {
+        return new ArchiveStitchingEventReader(archive, live.readAll());
+    }
+
+    @Nonnull
+    @Override
+    public EventCategoryReader readCategory() {
+        return new ArchiveStitchingEventCategoryReader(archive, live.readCategory());
+    }
+
+    @Nonnull
+    @Override
+    public EventStreamReader readStream() {
+        return new ArchiveStitchingEventStreamReader(archive, live.readStream());
+    }
+
+    @Nonnull
+    @Override
+    public EventStreamWriter writeStream() {
+        return live.writeStream();
+    }
+
+    @Nonnull
+    @Override
+    public PositionCodec positionCodec() {
+        return live.positionCodec();
+    }
+
+    @Nonnull
+    @Override
+    public Collection<Component> monitoring() {
+        return live.monitoring();
+    }
+
+    @Override
+    public String toString() {
+        return "ArchiveStitchingEventSource{" +
+                "archive=" + archive +
+                ", live=" + live +
+                '}';
+    }
+}
@@ -0,0 +1,125 @@
+package com.timgroup.eventstore.mysql;
+
+import com.timgroup.eventstore.api.EventStreamReader;
+import com.timgroup.eventstore.api.NoSuchStreamException;
+import com.timgroup.eventstore.api.ResolvedEvent;
+import com.timgroup.eventstore.api.StreamId;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnull;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+
+import static com.timgroup.eventstore.mysql.BasicMysqlEventStorePosition.EMPTY_STORE_POSITION;
+import static java.lang.Long.MAX_VALUE;
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.StreamSupport.stream;
+
+/**
+ * Reads streams from the table, and from the archived partitions of the table where the table does not hold the
+ * start of the stream. The archive is not indexed, so those reads, and reads of streams that do not exist, scan the
+ * whole archive.
+ */
+final class ArchiveStitchingEventStreamReader implements EventStreamReader {
+    private final PartitionArchive archive;
+    private final EventStreamReader live;
+
+    ArchiveStitchingEventStreamReader(PartitionArchive archive, EventStreamReader live) {
+        this.archive = requireNonNull(archive);
+        this.live = requireNonNull(live);
+    }
+
+    @CheckReturnValue
+    @Nonnull
+    @Override
+    public Stream<ResolvedEvent> readStreamForwards(StreamId streamId, long eventNumber) {
+        Stream<ResolvedEvent> liveEvents;
+        try {
+            liveEvents = live.readStreamForwards(streamId, eventNumber);
+        } catch (NoSuchStreamException e) {
+            List<ResolvedEvent> archived = archivedForwards(streamId, EmptyStreamEventNumber, MAX_VALUE);
+            if (archived.isEmpty()) {
+                throw e;
+            }
+            return archived.stream().filter(event -> event.eventRecord().eventNumber() > eventNumber);
+        }
+
+        Iterator<ResolvedEvent> iterator = liveEvents.iterator();
+        if (!iterator.hasNext()) {
+            return liveEvents;
+        }
+        ResolvedEvent first = iterator.next();
+        Stream<ResolvedEvent> rest = stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(liveEvents::close);
+        if (first.eventRecord().eventNumber() == eventNumber + 1) {
+            return Stream.concat(Stream.of(first), rest);
+        }
+        return Stream.concat(Stream.concat(archivedForwards(streamId, eventNumber, first.eventRecord().eventNumber()).stream(), Stream.of(first)), rest);
+    }
+
+    @CheckReturnValue
+    @Nonnull
+    @Override
+    public Stream<ResolvedEvent> readStreamBackwards(StreamId streamId) {
+        return readStreamBackwards(streamId, MAX_VALUE);
+    }
+
+    @CheckReturnValue
+    @Nonnull
+    @Override
+    public Stream<ResolvedEvent> readStreamBackwards(StreamId streamId, long eventNumber) {
+        Stream<ResolvedEvent> liveEvents;
+        try {
+            liveEvents = live.readStreamBackwards(streamId, eventNumber);
+        } catch (NoSuchStreamException e) {
+            List<ResolvedEvent> archived = archivedBackwards(streamId, MAX_VALUE, MAX_VALUE);
+            if (archived.isEmpty()) {
+                throw e;
+            }
+            return archived.stream().filter(event -> event.eventRecord().eventNumber() < eventNumber);
+        }
+
+        long[] lowest = { eventNumber, MAX_VALUE };
+        return Stream.concat(
+                liveEvents.peek(event -> {
+                    lowest[0] = event.eventRecord().eventNumber();
+                    lowest[1] = ((BasicMysqlEventStorePosition) event.position()).value;
+                }),
+                Stream.of(streamId).flatMap(id -> lowest[0] > 0 ? archivedBackwards(id, lowest[0], lowest[1]).stream() : Stream.empty()));
+    }
+
+    @Nonnull
+    @Override
+    public ResolvedEvent readLastEventInStream(StreamId streamId) {
+        try (Stream<ResolvedEvent> events = readStreamBackwards(streamId)) {
+            return events.findFirst().orElseThrow(() -> new NoSuchStreamException(streamId));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ArchiveStitchingEventStreamReader{" +
+                "archive=" + archive +
+                ", live=" + live +
+                '}';
+    }
+
+    private List<ResolvedEvent> archivedForwards(StreamId streamId, long afterEventNumber, long beforeEventNumber) {
+        try (Stream<ResolvedEvent> events = archive.readForwards(EMPTY_STORE_POSITION.value)) {
+            return events
+                    .filter(event -> event.eventRecord().streamId().equals(streamId))
+                    .filter(event -> event.eventRecord().eventNumber() > afterEventNumber && event.eventRecord().eventNumber() < beforeEventNumber)
+                    .collect(toList());
+        }
+    }
+
+    private List<ResolvedEvent> archivedBackwards(StreamId streamId, long beforeEventNumber, long positionExclusive) {
+        return archive.readBackwards(positionExclusive)
+                .filter(event -> event.eventRecord().streamId().equals(streamId))
+                .filter(event -> event.eventRecord().eventNumber() < beforeEventNumber)
+                .collect(toList());
+    }
+}
@@ -1,20 +1,30 @@
 package com.timgroup.eventstore.mysql;
 
 import com.codahale.metrics.MetricRegistry;
-import com.codahale.metrics.Timer;
 import com.timgroup.eventstore.api.EventCategoryReader;
+import com.timgroup.eventstore.api.EventHeader;
 import com.timgroup.eventstore.api.Position;
 import com.timgroup.eventstore.api.ResolvedEvent;
 
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.TreeSet;
 import java.util.stream.Stream;
 
 import static com.timgroup.eventstore.mysql.BasicMysqlEventStorePosition.EMPTY_STORE_POSITION;
+import static java.lang.String.format;
+import static java.util.Collections.singletonList;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.StreamSupport.stream;
 
@@ -23,47 +33,183 @@ public class BasicMysqlEventCategoryReader implements EventCategoryReader {
     private final ConnectionProvider connectionProvider;
     private final String tableName;
     private final int batchSize;
-    private final Optional<Timer> timer;
-    private final Optional<Timer> multiCategoryTimer;
+    private final QueryTimers timers;
+    private final QueryTimers headerTimers;
+    private final QueryTimers multiCategoryTimers;
+    private final QueryTimers ofTypesTimers;
+    private final Optional<StreamingReadPolicy> streamingReadPolicy;
+    private final Optional<PrefetchPolicy> prefetchPolicy;
+    private final PageSizer pageSizer;
+    private final PageSizer multiCategoryPageSizer;
 
     public BasicMysqlEventCategoryReader(ConnectionProvider connectionProvider, String databaseName, String tableName, int batchSize, @Nullable MetricRegistry metricRegistry) {
+        this(connectionProvider, databaseName, tableName, batchSize, metricRegistry, null, null);
+    }
+
+    public BasicMysqlEventCategoryReader(ConnectionProvider connectionProvider, String databaseName, String tableName, int batchSize, @Nullable MetricRegistry metricRegistry, @Nullable StreamingReadPolicy streamingReadPolicy) {
+        this(connectionProvider, databaseName, tableName, batchSize, metricRegistry, streamingReadPolicy, null);
+    }
+
+    public BasicMysqlEventCategoryReader(ConnectionProvider connectionProvider, String databaseName, String tableName, int batchSize, @Nullable MetricRegistry metricRegistry, @Nullable StreamingReadPolicy streamingReadPolicy, @Nullable PrefetchPolicy prefetchPolicy) {
+        this(connectionProvider, databaseName, tableName, batchSize, metricRegistry, streamingReadPolicy, prefetchPolicy, PageSizer.fixedPageSize(batchSize), PageSizer.fixedPageSize(batchSize));
+    }
+
+    BasicMysqlEventCategoryReader(ConnectionProvider connectionProvider, String databaseName, String tableName, int batchSize, @Nullable MetricRegistry metricRegistry, @Nullable StreamingReadPolicy streamingReadPolicy, @Nullable PrefetchPolicy prefetchPolicy, PageSizer pageSizer, PageSizer multiCategoryPageSizer) {
+        if (streamingReadPolicy != null && prefetchPolicy != null) {
+            throw new IllegalArgumentException("Cannot both stream and prefetch reads");
+        }
         this.connectionProvider = requireNonNull(connectionProvider);
         this.tableName = requireNonNull(tableName);
         this.batchSize = batchSize;
-        this.timer = Optional.ofNullable(metricRegistry).map(r -> r.timer(String.format("database.%s.%s.read_category.page_fetch_time", databaseName, tableName)));
-        this.multiCategoryTimer = Optional.ofNullable(metricRegistry).map(r -> r.timer(String.format("database.%s.%s.read_categories.page_fetch_time", databaseName, tableName)));
+        this.timers = QueryTimers.queryTimers(metricRegistry, databaseName, tableName, "read_category");
+        this.headerTimers = QueryTimers.queryTimers(metricRegistry, databaseName, tableName, "read_category_headers");
+        this.multiCategoryTimers = QueryTimers.queryTimers(metricRegistry, databaseName, tableName, "read_categories");
+        this.ofTypesTimers = QueryTimers.queryTimers(metricRegistry, databaseName, tableName, "read_categories_of_types");
+        this.streamingReadPolicy = Optional.ofNullable(streamingReadPolicy);
+        this.prefetchPolicy = Optional.ofNullable(prefetchPolicy);
+        this.pageSizer = requireNonNull(pageSizer);
+        this.multiCategoryPageSizer = requireNonNull(multiCategoryPageSizer);
     }
 
     @CheckReturnValue
     @Nonnull
     @Override
     public Stream<ResolvedEvent> readCategoryForwards(String category, Position positionExclusive) {
-        return stream(EventSpliterator.readCategoryEventSpliterator(
+        if (streamingReadPolicy.isPresent()) {
+            StreamingEventSpliterator<BasicMysqlEventStorePosition> spliterator = StreamingEventSpliterator.readCategoryEventSpliterator(
+                    connectionProvider,
+                    streamingReadPolicy.get(),
+                    tableName,
+                    category,
+                    (BasicMysqlEventStorePosition) positionExclusive,
+                    timers
+            );
+            return stream(spliterator, false).onClose(spliterator::close);
+        }
+
+        return prefetchingIfRequired(EventSpliterator.readCategoryEventSpliterator(
                 connectionProvider,
-                batchSize,
+                pageSizer,
                 tableName,
                 category,
                 (BasicMysqlEventStorePosition) positionExclusive,
                 false,
-                timer
-        ), false);
+                timers
+        ));
     }
 
+    @CheckReturnValue
     @Nonnull
     @Override
-    public Stream<ResolvedEvent> readCategoriesForwards(List<String> categories, Position positionExclusive) {
-        return stream(new EventSpliterator<>(
+    public Stream<EventHeader> readCategoryHeadersForwards(String category, Position positionExclusive) {
+        return stream(EventSpliterator.readCategoryHeaderSpliterator(
                 connectionProvider,
+                PageSizer.fixedPageSize(batchSize),
+                tableName,
+                category,
                 (BasicMysqlEventStorePosition) positionExclusive,
-                pos -> categories.stream().map(category -> "(select position, timestamp, stream_category, stream_id, event_number, event_type, data, metadata" +
-                        " from " + tableName +
-                        " FORCE INDEX (stream_category_2)" +
-                        " where position > " + pos.value +
-                        " and stream_category = '" + category + "'" +
-                        " order by position asc" +
-                        " limit " + batchSize + ")").collect(Collectors.joining(" union all ", "", " order by position asc limit " + batchSize)),
-                resolvedEvent -> (BasicMysqlEventStorePosition) resolvedEvent.position(),
-                multiCategoryTimer), false);
+                headerTimers), false).map(ResolvedEvent::header);
+    }
+
+    /**
+     * Reads each category with its own cursor on the {@code (stream_category, position)} index, paging or streaming
+     * as other category reads do, and merges them by position as they are consumed. Every cursor stops at the head
+     * of the table as it was when the read started, so that no cursor can run ahead of an event committed later in
+     * a category whose cursor has already finished. Streaming reads only stream when the policy allows a cursor
+     * for each category to be open at once, and page otherwise.
+     */
+    @Nonnull
+    @Override
+    public Stream<ResolvedEvent> readCategoriesForwards(List<String> categories, Position positionExclusive) {
+        Set<String> distinctCategories = new LinkedHashSet<>(categories);
+        BasicMysqlEventStorePosition start = (BasicMysqlEventStorePosition) positionExclusive;
+        if (distinctCategories.isEmpty()) {
+            return Stream.empty();
+        }
+        long head = readHead();
+        if (head <= start.value) {
+            return Stream.empty();
+        }
+
+        boolean streaming = streamingReadPolicy.isPresent() && distinctCategories.size() <= streamingReadPolicy.get().maxConcurrentCursors;
+        List<Spliterator<ResolvedEvent>> cursors = new ArrayList<>();
+        List<AutoCloseable> closeables = new ArrayList<>();
+        for (String category : distinctCategories) {
+            if (streaming) {
+                StreamingEventSpliterator<BasicMysqlEventStorePosition> cursor = StreamingEventSpliterator.readCategoryRangeEventSpliterator(
+                        connectionProvider,
+                        streamingReadPolicy.get(),
+                        tableName,
+                        category,
+                        start,
+                        head,
+                        multiCategoryTimers);
+                cursors.add(cursor);
+                closeables.add(cursor);
+                continue;
+            }
+
+            EventSpliterator<BasicMysqlEventStorePosition> cursor = EventSpliterator.readCategoryRangeEventSpliterator(
+                    connectionProvider,
+                    multiCategoryPageSizer,
+                    tableName,
+                    category,
+                    start,
+                    head,
+                    multiCategoryTimers);
+            if (prefetchPolicy.isPresent()) {
+                PrefetchingEventSpliterator<BasicMysqlEventStorePosition> prefetching = cursor.prefetching(prefetchPolicy.get());
+                cursors.add(prefetching);
+                closeables.add(prefetching);
+            } else {
+                cursors.add(cursor);
+            }
+        }
+
+        return stream(new PositionMergingSpliterator(cursors), false).onClose(() -> closeAll(closeables));
+    }
+
+    @CheckReturnValue
+    @Nonnull
+    @Override
+    public Stream<ResolvedEvent> readCategoryForwardsOfTypes(String category, Set<String> eventTypes, Position positionExclusive) {
+        return readCategoriesForwardsOfTypes(singletonList(category), eventTypes, positionExclusive);
+    }
+
+    /**
+     * Reads each category and event type pair with its own paged cursor on the
+     * {@code (stream_category, event_type, position)} index, bounded by the head of the table when the read starts,
+     * and merges them by position as {@link #readCategoriesForwards} does.
+     */
+    @CheckReturnValue
+    @Nonnull
+    @Override
+    public Stream<ResolvedEvent> readCategoriesForwardsOfTypes(List<String> categories, Set<String> eventTypes, Position positionExclusive) {
+        BasicMysqlEventStorePosition start = (BasicMysqlEventStorePosition) positionExclusive;
+        if (categories.isEmpty() || eventTypes.isEmpty()) {
+            return Stream.empty();
+        }
+        long head = readHead();
+        if (head <= start.value) {
+            return Stream.empty();
+        }
+
+        List<Spliterator<ResolvedEvent>> cursors = new ArrayList<>();
+        for (String category : new LinkedHashSet<>(categories)) {
+            for (String eventType : new TreeSet<>(eventTypes)) {
+                cursors.add(EventSpliterator.readCategoryOfTypeRangeEventSpliterator(
+                        connectionProvider,
+                        PageSizer.fixedPageSize(batchSize),
+                        tableName,
+                        category,
+                        eventType,
+                        start,
+                        head,
+                        ofTypesTimers));
+            }
+        }
+
+        return stream(new PositionMergingSpliterator(cursors), false);
     }
 
     @CheckReturnValue
@@ -97,17 +243,59 @@ public class BasicMysqlEventCategoryReader implements EventCategoryReader {
         return "BasicMysqlEventCategoryReader{" +
                 "tableName='" + tableName + '\'' +
                 ", batchSize=" + batchSize +
+                ", streamingReadPolicy=" + streamingReadPolicy +
+                ", prefetchPolicy=" + prefetchPolicy +
+                ", pageSizer=" + pageSizer +
+                ", multiCategoryPageSizer=" + multiCategoryPageSizer +
                 '}';
     }
 
+    private Stream<ResolvedEvent> prefetchingIfRequired(EventSpliterator<BasicMysqlEventStorePosition> spliterator) {
+        if (prefetchPolicy.isPresent()) {
+            PrefetchingEventSpliterator<BasicMysqlEventStorePosition> prefetching = spliterator.prefetching(prefetchPolicy.get());
+            return stream(prefetching, false).onClose(prefetching::close);
+        }
+        return stream(spliterator, false);
+    }
+
+    private long readHead() {
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement statement = connection.prepareStatement(format("select max(position) from %s", tableName));
+             ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            long position = resultSet.getLong(1);
+            return resultSet.wasNull() ? EMPTY_STORE_POSITION.value : position;
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void closeAll(List<AutoCloseable> closeables) {
+        RuntimeException failure = null;
+        for (AutoCloseable closeable : closeables) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                if (failure == null) {
+                    failure = new RuntimeException("Failed to close category cursors", e);
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
     private Stream<ResolvedEvent> readBackwards(String category, BasicMysqlEventStorePosition positionExclusive, int theBatchSize) {
         return stream(EventSpliterator.readCategoryEventSpliterator(
                 connectionProvider,
-                theBatchSize,
+                PageSizer.fixedPageSize(theBatchSize),
                 tableName,
                 category,
                 positionExclusive,
                 true,
-                timer), false);
+                timers), false);
     }
 }
@@ -2,6 +2,7 @@ package com.timgroup.eventstore.mysql;
 
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
+import com.timgroup.eventstore.api.EventHeader;
 import com.timgroup.eventstore.api.EventReader;
 import com.timgroup.eventstore.api.Position;
 import com.timgroup.eventstore.api.ResolvedEvent;
@@ -9,10 +10,19 @@ import com.timgroup.eventstore.api.ResolvedEvent;
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Stream;
 
 import static com.timgroup.eventstore.mysql.BasicMysqlEventStorePosition.EMPTY_STORE_POSITION;
+import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.StreamSupport.stream;
 
@@ -20,27 +30,131 @@ public class BasicMysqlEventReader implements EventReader {
     private final ConnectionProvider connectionProvider;
     private final String tableName;
     private final int batchSize;
-    private final Optional<Timer> timer;
+    private final QueryTimers timers;
+    private final QueryTimers headerTimers;
+    private final QueryTimers ofTypesTimers;
+    private final Optional<StreamingReadPolicy> streamingReadPolicy;
+    private final Optional<PrefetchPolicy> prefetchPolicy;
+    private final PageSizer pageSizer;
+    private final Optional<Timer> positionAtTimer;
 
     public BasicMysqlEventReader(ConnectionProvider connectionProvider, String databaseName, String tableName, int batchSize, @Nullable MetricRegistry metricRegistry) {
+        this(connectionProvider, databaseName, tableName, batchSize, metricRegistry, null, null);
+    }
+
+    public BasicMysqlEventReader(ConnectionProvider connectionProvider, String databaseName, String tableName, int batchSize, @Nullable MetricRegistry metricRegistry, @Nullable StreamingReadPolicy streamingReadPolicy) {
+        this(connectionProvider, databaseName, tableName, batchSize, metricRegistry, streamingReadPolicy, null);
+    }
+
+    public BasicMysqlEventReader(ConnectionProvider connectionProvider, String databaseName, String tableName, int batchSize, @Nullable MetricRegistry metricRegistry, @Nullable StreamingReadPolicy streamingReadPolicy, @Nullable PrefetchPolicy prefetchPolicy) {
+        this(connectionProvider, databaseName, tableName, batchSize, metricRegistry, streamingReadPolicy, prefetchPolicy, PageSizer.fixedPageSize(batchSize));
+    }
+
+    BasicMysqlEventReader(ConnectionProvider connectionProvider, String databaseName, String tableName, int batchSize, @Nullable MetricRegistry metricRegistry, @Nullable StreamingReadPolicy streamingReadPolicy, @Nullable PrefetchPolicy prefetchPolicy, PageSizer pageSizer) {
+        if (streamingReadPolicy != null && prefetchPolicy != null) {
+            throw new IllegalArgumentException("Cannot both stream and prefetch reads");
+        }
         this.connectionProvider = requireNonNull(connectionProvider);
         this.tableName = requireNonNull(tableName);
         this.batchSize = batchSize;
-        this.timer = Optional.ofNullable(metricRegistry).map(r -> r.timer(String.format("database.%s.%s.read_all.page_fetch_time", databaseName, tableName)));
+        this.timers = QueryTimers.queryTimers(metricRegistry, databaseName, tableName, "read_all");
+        this.headerTimers = QueryTimers.queryTimers(metricRegistry, databaseName, tableName, "read_all_headers");
+        this.ofTypesTimers = QueryTimers.queryTimers(metricRegistry, databaseName, tableName, "read_all_of_types");
+        this.streamingReadPolicy = Optional.ofNullable(streamingReadPolicy);
+        this.prefetchPolicy = Optional.ofNullable(prefetchPolicy);
+        this.pageSizer = requireNonNull(pageSizer);
+        this.positionAtTimer = Optional.ofNullable(metricRegistry).map(r -> r.timer(format("database.%s.%s.position_at.time", databaseName, tableName)));
     }
 
     @CheckReturnValue
     @Nonnull
     @Override
     public Stream<ResolvedEvent> readAllForwards(Position positionExclusive) {
-        return stream(EventSpliterator.readAllEventSpliterator(
+        if (streamingReadPolicy.isPresent()) {
+            StreamingEventSpliterator<BasicMysqlEventStorePosition> spliterator = StreamingEventSpliterator.readAllEventSpliterator(
+                    connectionProvider,
+                    streamingReadPolicy.get(),
+                    tableName,
+                    (BasicMysqlEventStorePosition) positionExclusive,
+                    timers
+            );
+            return stream(spliterator, false).onClose(spliterator::close);
+        }
+
+        EventSpliterator<BasicMysqlEventStorePosition> spliterator = EventSpliterator.readAllEventSpliterator(
                 connectionProvider,
-                batchSize,
+                pageSizer,
                 tableName,
                 (BasicMysqlEventStorePosition) positionExclusive,
                 false,
-                timer
-        ), false);
+                timers
+        );
+
+        if (prefetchPolicy.isPresent()) {
+            PrefetchingEventSpliterator<BasicMysqlEventStorePosition> prefetching = spliterator.prefetching(prefetchPolicy.get());
+            return stream(prefetching, false).onClose(prefetching::close);
+        }
+
+        return stream(spliterator, false);
+    }
+
+    /**
+     * Reads the events up to the current head of the table as a parallel stream, splitting the positions into
+     * ranges of at least one batch that are read concurrently, each over connections of its own. Events written
+     * after the read starts are not included. The events are still ordered by position, but only consumers that
+     * can take them in any order, such as commutative or partitioned projections, gain from the parallelism.
+     */
+    @CheckReturnValue
+    @Nonnull
+    public Stream<ResolvedEvent> readAllForwardsInParallel(Position positionExclusive) {
+        long from = ((BasicMysqlEventStorePosition) positionExclusive).value;
+        long to;
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement statement = connection.prepareStatement(format("select max(position) from %s", tableName));
+             ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            to = resultSet.getLong(1);
+            if (resultSet.wasNull()) {
+                return Stream.empty();
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+
+        if (to <= from) {
+            return Stream.empty();
+        }
+        return stream(new RangeSplittingEventSpliterator(connectionProvider, tableName, batchSize, batchSize, timers, from, to, to - from), true);
+    }
+
+    @CheckReturnValue
+    @Nonnull
+    @Override
+    public Stream<ResolvedEvent> readAllForwardsOfTypes(Set<String> eventTypes, Position positionExclusive) {
+        if (eventTypes.isEmpty()) {
+            return Stream.empty();
+        }
+
+        return stream(EventSpliterator.readAllOfTypesEventSpliterator(
+                connectionProvider,
+                PageSizer.fixedPageSize(batchSize),
+                tableName,
+                new ArrayList<>(new TreeSet<>(eventTypes)),
+                (BasicMysqlEventStorePosition) positionExclusive,
+                ofTypesTimers), false);
+    }
+
+    @CheckReturnValue
+    @Nonnull
+    @Override
+    public Stream<EventHeader> readAllHeadersForwards(Position positionExclusive) {
+        return stream(EventSpliterator.readAllHeaderSpliterator(
+                connectionProvider,
+                PageSizer.fixedPageSize(batchSize),
+                tableName,
+                (BasicMysqlEventStorePosition) positionExclusive,
+                false,
+                headerTimers), false).map(ResolvedEvent::header);
     }
 
     @CheckReturnValue
@@ -63,14 +177,81 @@ public class BasicMysqlEventReader implements EventReader {
         return readBackwards(new BasicMysqlEventStorePosition(Long.MAX_VALUE), 1).findFirst();
     }
 
+    @Nonnull
+    @Override
+    public Optional<EventHeader> readFirstEventHeader() {
+        return stream(EventSpliterator.readAllHeaderSpliterator(
+                connectionProvider,
+                PageSizer.fixedPageSize(1),
+                tableName,
+                EMPTY_STORE_POSITION,
+                false,
+                headerTimers), false).map(ResolvedEvent::header).findFirst();
+    }
+
+    @Nonnull
+    @Override
+    public Optional<EventHeader> readLastEventHeader() {
+        return stream(EventSpliterator.readAllHeaderSpliterator(
+                connectionProvider,
+                PageSizer.fixedPageSize(1),
+                tableName,
+                new BasicMysqlEventStorePosition(Long.MAX_VALUE),
+                true,
+                headerTimers), false).map(ResolvedEvent::header).findFirst();
+    }
+
+    /**
+     * Binary searches the range of positions in the table for the lowest position whose next event is at or after
+     * {@code timestamp}, each probe being one lookup on the primary key. Positions may have gaps, but the position
+     * just below the one found always holds the last event before {@code timestamp}.
+     */
+    @Nonnull
+    @Override
+    public Position positionAt(Instant timestamp) {
+        try (Timer.Context ignored = positionAtTimer.map(Timer::time).orElseGet(() -> new Timer().time());
+             Connection connection = connectionProvider.getConnection()) {
+            long low;
+            long high;
+            try (PreparedStatement statement = connection.prepareStatement(format("select min(position), max(position) from %s", tableName));
+                 ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                low = resultSet.getLong(1);
+                if (resultSet.wasNull()) {
+                    return EMPTY_STORE_POSITION;
+                }
+                high = resultSet.getLong(2) + 1;
+            }
+
+            long first = low;
+            try (PreparedStatement statement = connection.prepareStatement(format("select timestamp from %s where position >= ? order by position limit 1", tableName))) {
+                while (low < high) {
+                    long middle = low + (high - low) / 2;
+                    statement.setLong(1, middle);
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        if (resultSet.next() && resultSet.getTimestamp(1).toInstant().isBefore(timestamp)) {
+                            low = middle + 1;
+                        } else {
+                            high = middle;
+                        }
+                    }
+                }
+            }
+
+            return low == first ? EMPTY_STORE_POSITION : new BasicMysqlEventStorePosition(low - 1);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     private Stream<ResolvedEvent> readBackwards(BasicMysqlEventStorePosition positionExclusive, int theBatchSize) {
         return stream(EventSpliterator.readAllEventSpliterator(
                 connectionProvider,
-                theBatchSize,
+                PageSizer.fixedPageSize(theBatchSize),
                 tableName,
                 positionExclusive,
                 true,
-                timer), false);
+                timers), false);
     }
 
     @Nonnull
@@ -84,6 +265,9 @@ public class BasicMysqlEventReader implements EventReader {
         return "BasicMysqlEventReader{" +
                 "tableName='" + tableName + '\'' +
                 ", batchSize=" + batchSize +
+                ", streamingReadPolicy=" + streamingReadPolicy +
+                ", prefetchPolicy=" + prefetchPolicy +
+                ", pageSizer=" + pageSizer +
                 '}';
     }
 }
@@ -1,9 +1,9 @@
 package com.timgroup.eventstore.mysql;
 
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
 import com.mchange.v2.c3p0.PooledDataSource;
 import com.timgroup.eventstore.api.EventCategoryReader;
-import com.timgroup.eventstore.api.EventReader;
 import com.timgroup.eventstore.api.EventSource;
 import com.timgroup.eventstore.api.EventStreamReader;
 import com.timgroup.eventstore.api.EventStreamWriter;
@@ -16,6 +16,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Properties;
 
@@ -23,6 +24,7 @@ import static java.util.Collections.singletonList;
 
 public class BasicMysqlEventSource implements EventSource {
     private static final int DefaultBatchSize = 100_000;
+    private static final Duration DefaultHeadPollInterval = Duration.ofMillis(50);
 
     private final ConnectionProvider connectionProvider;
     private final String databaseName;
@@ -30,14 +32,72 @@ public class BasicMysqlEventSource implements EventSource {
     private final int batchSize;
     private final String name;
     private final MetricRegistry metricRegistry;
+    private final StreamingReadPolicy streamingReadPolicy;
+    private final PrefetchPolicy prefetchPolicy;
+    private final AdaptivePageSizePolicy adaptivePageSizePolicy;
+    private final PositionAllocator positionAllocator;
+    private final PageSizer readAllPageSizer;
+    private final PageSizer readCategoryPageSizer;
+    private final PageSizer readCategoriesPageSizer;
+    private final StreamTailCache streamTailCache;
+    private MysqlHeadWatcher headWatcher = null;
 
-    public BasicMysqlEventSource(ConnectionProvider connectionProvider, String tableName, int batchSize, String name, @Nullable MetricRegistry metricRegistry) {
+    /**
+     * @param streamingReadPolicy if present, forwards reads emit events from an open streaming cursor instead of
+     *                            buffering pages of {@code batchSize} events
+     * @param prefetchPolicy if present, forwards reads of all events and of categories fetch the next page in the
+     *                       background while the current one is consumed; cannot be combined with streaming
+     * @param adaptivePageSizePolicy if present, forwards reads of all events and of categories start with pages of
+     *                               {@code batchSize} events and then adjust the page size to meet the policy's
+     *                               targets, reporting it as
+     *                               {@code database.<database>.<table>.<name>.<operation>.page_size}; cannot be
+     *                               combined with streaming
+     * @param positionAllocator if present, allocates the positions of written events; otherwise events are
+     *                          placed after the highest position in the table
+     * @param streamTailCachePolicy if present, stream readers share a cache of recently read streams, and reading
+     *                              one of them again only fetches the events written since
+     */
+    public BasicMysqlEventSource(ConnectionProvider connectionProvider, String tableName, int batchSize, String name, @Nullable MetricRegistry metricRegistry, @Nullable StreamingReadPolicy streamingReadPolicy, @Nullable PrefetchPolicy prefetchPolicy, @Nullable AdaptivePageSizePolicy adaptivePageSizePolicy, @Nullable PositionAllocator positionAllocator, @Nullable StreamTailCachePolicy streamTailCachePolicy) {
+        if (streamingReadPolicy != null && prefetchPolicy != null) {
+            throw new IllegalArgumentException("Cannot both stream and prefetch reads");
+        }
+        if (streamingReadPolicy != null && adaptivePageSizePolicy != null) {
+            throw new IllegalArgumentException("Cannot both stream reads and adapt their page size");
+        }
         this.connectionProvider = connectionProvider;
         this.databaseName = databaseName(connectionProvider);
         this.tableName = tableName;
         this.batchSize = batchSize;
         this.name = name;
         this.metricRegistry = metricRegistry;
+        this.streamingReadPolicy = streamingReadPolicy;
+        this.prefetchPolicy = prefetchPolicy;
+        this.adaptivePageSizePolicy = adaptivePageSizePolicy;
+        this.positionAllocator = positionAllocator == null ? PositionAllocator.selectMaxPosition() : positionAllocator;
+        this.readAllPageSizer = pageSizer("read_all");
+        this.readCategoryPageSizer = pageSizer("read_category");
+        this.readCategoriesPageSizer = pageSizer("read_categories");
+        this.streamTailCache = streamTailCachePolicy == null ? null : new StreamTailCache(streamTailCachePolicy, databaseName, tableName, metricRegistry);
+    }
+
+    public BasicMysqlEventSource(ConnectionProvider connectionProvider, String tableName, int batchSize, String name, @Nullable MetricRegistry metricRegistry, @Nullable StreamingReadPolicy streamingReadPolicy, @Nullable PrefetchPolicy prefetchPolicy, @Nullable AdaptivePageSizePolicy adaptivePageSizePolicy, @Nullable PositionAllocator positionAllocator) {
+        this(connectionProvider, tableName, batchSize, name, metricRegistry, streamingReadPolicy, prefetchPolicy, adaptivePageSizePolicy, positionAllocator, null);
+    }
+
+    public BasicMysqlEventSource(ConnectionProvider connectionProvider, String tableName, int batchSize, String name, @Nullable MetricRegistry metricRegistry, @Nullable StreamingReadPolicy streamingReadPolicy, @Nullable PrefetchPolicy prefetchPolicy, @Nullable AdaptivePageSizePolicy adaptivePageSizePolicy) {
+        this(connectionProvider, tableName, batchSize, name, metricRegistry, streamingReadPolicy, prefetchPolicy, adaptivePageSizePolicy, null);
+    }
+
+    public BasicMysqlEventSource(ConnectionProvider connectionProvider, String tableName, int batchSize, String name, @Nullable MetricRegistry metricRegistry, @Nullable StreamingReadPolicy streamingReadPolicy, @Nullable PrefetchPolicy prefetchPolicy) {
+        this(connectionProvider, tableName, batchSize, name, metricRegistry, streamingReadPolicy, prefetchPolicy, null);
+    }
+
+    public BasicMysqlEventSource(ConnectionProvider connectionProvider, String tableName, int batchSize, String name, @Nullable MetricRegistry metricRegistry, @Nullable StreamingReadPolicy streamingReadPolicy) {
+        this(connectionProvider, tableName, batchSize, name, metricRegistry, streamingReadPolicy, null);
+    }
+
+    public BasicMysqlEventSource(ConnectionProvider connectionProvider, String tableName, int batchSize, String name, @Nullable MetricRegistry metricRegistry) {
+        this(connectionProvider, tableName, batchSize, name, metricRegistry, null, null);
     }
 
     public BasicMysqlEventSource(ConnectionProvider connectionProvider, String tableName, int batchSize, MetricRegistry metricRegistry) {
@@ -50,26 +110,59 @@ public class BasicMysqlEventSource implements EventSource {
 
     @Nonnull
     @Override
-    public EventReader readAll() {
-        return new BasicMysqlEventReader(connectionProvider, databaseName, tableName, batchSize, metricRegistry);
+    public BasicMysqlEventReader readAll() {
+        return new BasicMysqlEventReader(InstrumentedConnectionProvider.forOperation(connectionProvider, "read_all"), databaseName, tableName, batchSize, metricRegistry, streamingReadPolicy, prefetchPolicy, readAllPageSizer);
     }
 
     @Nonnull
     @Override
     public EventCategoryReader readCategory() {
-        return new BasicMysqlEventCategoryReader(connectionProvider, databaseName, tableName, batchSize, metricRegistry);
+        return new BasicMysqlEventCategoryReader(InstrumentedConnectionProvider.forOperation(connectionProvider, "read_category"), databaseName, tableName, batchSize, metricRegistry, streamingReadPolicy, prefetchPolicy, readCategoryPageSizer, readCategoriesPageSizer);
     }
 
     @Nonnull
     @Override
     public EventStreamReader readStream() {
-        return new BasicMysqlEventStreamReader(connectionProvider, databaseName, tableName, batchSize, metricRegistry);
+        return new BasicMysqlEventStreamReader(InstrumentedConnectionProvider.forOperation(connectionProvider, "read_stream"), databaseName, tableName, batchSize, metricRegistry, streamingReadPolicy, streamTailCache);
     }
 
     @Nonnull
     @Override
     public EventStreamWriter writeStream() {
-        return new BasicMysqlEventStreamWriter(connectionProvider, databaseName, tableName, metricRegistry);
+        return new BasicMysqlEventStreamWriter(InstrumentedConnectionProvider.forOperation(connectionProvider, "write"), databaseName, tableName, metricRegistry, positionAllocator);
+    }
+
+    /**
+     * @return the watcher of this source's table, shared by everything that asks this source for one, polling
+     *         every 50ms unless it was first asked for with another interval
+     */
+    @Nonnull
+    public synchronized MysqlHeadWatcher headWatcher() {
+        return headWatcher == null ? headWatcher(DefaultHeadPollInterval) : headWatcher;
+    }
+
+    /**
+     * @param pollInterval how often to read the head of the table; each poll is one query however many
+     *                     subscriptions share the watcher
+     * @return the watcher of this source's table, shared by everything that asks this source for one
+     * @throws IllegalStateException if the shared watcher already polls at a different interval
+     */
+    @Nonnull
+    public synchronized MysqlHeadWatcher headWatcher(Duration pollInterval) {
+        if (headWatcher == null) {
+            headWatcher = new MysqlHeadWatcher(InstrumentedConnectionProvider.forOperation(connectionProvider, "head_watcher"), databaseName, tableName, pollInterval, metricRegistry);
+        } else if (!headWatcher.pollInterval().equals(pollInterval)) {
+            throw new IllegalStateException("Head watcher of " + tableName + " already polls every " + headWatcher.pollInterval());
+        }
+        return headWatcher;
+    }
+
+    /**
+     * @return a loader for backfilling this source's table, sending {@code chunkSize} events at a time
+     */
+    @Nonnull
+    public BasicMysqlEventBulkLoader bulkLoader(int chunkSize) {
+        return new BasicMysqlEventBulkLoader(InstrumentedConnectionProvider.forOperation(connectionProvider, "bulk_load"), databaseName, tableName, chunkSize, metricRegistry);
     }
 
     @Nonnull
@@ -92,9 +185,31 @@ public class BasicMysqlEventSource implements EventSource {
                 "tableName='" + tableName + '\'' +
                 ", batchSize=" + batchSize +
                 ", name='" + name + '\'' +
+                ", streamingReadPolicy=" + streamingReadPolicy +
+                ", prefetchPolicy=" + prefetchPolicy +
+                ", adaptivePageSizePolicy=" + adaptivePageSizePolicy +
+                ", positionAllocator=" + positionAllocator +
                 '}';
     }
 
+    synchronized void closeHeadWatcher() {
+        if (headWatcher != null) {
+            headWatcher.close();
+            headWatcher = null;
+        }
+    }
+
+    private PageSizer pageSizer(String operation) {
+        if (adaptivePageSizePolicy == null) {
+            return PageSizer.fixedPageSize(batchSize);
+        }
+        AdaptivePageSizer pageSizer = new AdaptivePageSizer(adaptivePageSizePolicy, batchSize);
+        if (metricRegistry != null) {
+            metricRegistry.gauge(String.format("database.%s.%s.%s.%s.page_size", databaseName, tableName, name, operation), () -> (Gauge<Integer>) pageSizer::nextPageSize);
+        }
+        return pageSizer;
+    }
+
     /**
      * @deprecated  replaced by {@link #pooledMasterDbEventSource(Config config, String tableName, String name, MetricRegistry metricRegistry)}
      */
@@ -258,12 +373,29 @@ public class BasicMysqlEventSource implements EventSource {
         }
 
         public PooledMysqlEventSource(PooledDataSource dataSource, String tableName, int defaultBatchSize, String name, @Nullable MetricRegistry metricRegistry) {
-            super(dataSource::getConnection, tableName, defaultBatchSize, name, metricRegistry);
+            this(dataSource, tableName, defaultBatchSize, name, metricRegistry, null, null);
+        }
+
+        public PooledMysqlEventSource(PooledDataSource dataSource, String tableName, int defaultBatchSize, String name, @Nullable MetricRegistry metricRegistry, @Nullable StreamingReadPolicy streamingReadPolicy) {
+            this(dataSource, tableName, defaultBatchSize, name, metricRegistry, streamingReadPolicy, null);
+        }
+
+        public PooledMysqlEventSource(PooledDataSource dataSource, String tableName, int defaultBatchSize, String name, @Nullable MetricRegistry metricRegistry, @Nullable StreamingReadPolicy streamingReadPolicy, @Nullable PrefetchPolicy prefetchPolicy) {
+            this(dataSource, tableName, defaultBatchSize, name, metricRegistry, streamingReadPolicy, prefetchPolicy, null);
+        }
+
+        public PooledMysqlEventSource(PooledDataSource dataSource, String tableName, int defaultBatchSize, String name, @Nullable MetricRegistry metricRegistry, @Nullable StreamingReadPolicy streamingReadPolicy, @Nullable PrefetchPolicy prefetchPolicy, @Nullable AdaptivePageSizePolicy adaptivePageSizePolicy) {
+            this(dataSource, tableName, defaultBatchSize, name, metricRegistry, streamingReadPolicy, prefetchPolicy, adaptivePageSizePolicy, null);
+        }
+
+        public PooledMysqlEventSource(PooledDataSource dataSource, String tableName, int defaultBatchSize, String name, @Nullable MetricRegistry metricRegistry, @Nullable StreamingReadPolicy streamingReadPolicy, @Nullable PrefetchPolicy prefetchPolicy, @Nullable AdaptivePageSizePolicy adaptivePageSizePolicy, @Nullable PositionAllocator positionAllocator) {
+            super(dataSource::getConnection, tableName, defaultBatchSize, name, metricRegistry, streamingReadPolicy, prefetchPolicy, adaptivePageSizePolicy, positionAllocator);
             this.dataSource = dataSource;
         }
 
         @Override
         public void close() {
+            closeHeadWatcher();
             try {
                 dataSource.close();
             } catch (SQLException e) {
@@ -11,6 +11,8 @@ import static java.util.Objects.requireNonNull;
 
 @ParametersAreNonnullByDefault
 public class BasicMysqlEventStoreSetup {
+    private static final String EVENT_TYPE_INDEX = "stream_category_event_type";
+
     private final ConnectionProvider connectionProvider;
     private final String tableName;
 
@@ -23,6 +25,7 @@ public class BasicMysqlEventStoreSetup {
         try (Connection connection = connectionProvider.getConnection();
              Statement statement = connection.createStatement()) {
             statement.executeUpdate("drop table if exists " + tableName);
+            statement.executeUpdate("drop table if exists " + positionSequenceTableName(tableName));
         } catch (SQLException e) {
             throw new RuntimeException(e);
         }
@@ -36,7 +39,80 @@ public class BasicMysqlEventStoreSetup {
         create(true);
     }
 
+    /**
+     * Creates the table partitioned by ranges of {@code partitionSize} positions, starting with
+     * {@code initialPartitions} of them and a catch-all partition above; {@link MysqlPartitionMaintenance} adds
+     * partitions ahead of the writers and archives old ones.
+     *
+     * MySQL requires every unique key of a partitioned table to include the partitioning column, so the table
+     * cannot enforce that event numbers are unique within a stream. Writers must instead use
+     * {@link PositionAllocator#serialisingSequenceRow()}, whose sequence row this also creates.
+     */
+    public void createPartitioned(long partitionSize, int initialPartitions) {
+        if (partitionSize < 1 || initialPartitions < 1) {
+            throw new IllegalArgumentException("Need at least one partition of at least one position");
+        }
+        StringBuilder partitions = new StringBuilder(" partition by range (position) (");
+        for (int i = 1; i <= initialPartitions; i++) {
+            partitions.append(MysqlPartitionMaintenance.partitionDefinition(i * partitionSize)).append(", ");
+        }
+        partitions.append(MysqlPartitionMaintenance.CATCH_ALL_PARTITION_DEFINITION).append(")");
+
+        create(true, "key stream_category(stream_category, stream_id, event_number)", partitions.toString());
+        createPositionSequence();
+    }
+
+    /**
+     * Adds the index that supports reading categories filtered by event type to a table created before the index
+     * was part of the schema. This rebuilds the index over the whole table, so should be run as a migration
+     * rather than on startup.
+     */
+    public void addEventTypeIndex() {
+        try (Connection connection = connectionProvider.getConnection()) {
+            try (ResultSet res = connection.getMetaData().getIndexInfo(null, null, tableName, false, false)) {
+                while (res.next()) {
+                    if (EVENT_TYPE_INDEX.equals(res.getString("INDEX_NAME"))) {
+                        return;
+                    }
+                }
+            }
+
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("alter table " + tableName + " add key " + EVENT_TYPE_INDEX + "(stream_category, event_type, position)");
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Creates the sequence row used by {@link PositionAllocator#sequenceRow()}, starting it from the highest
+     * position already in the table. Does nothing if the sequence row already exists.
+     */
+    public void createPositionSequence() {
+        String sequenceTableName = positionSequenceTableName(tableName);
+        try (Connection connection = connectionProvider.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists " + sequenceTableName + "(" +
+                    "id tinyint primary key, " +
+                    "position bigint not null" +
+                    ")");
+            statement.executeUpdate("insert ignore into " + sequenceTableName + "(id, position) " +
+                    "select 0, coalesce(max(position), 0) from " + tableName);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    static String positionSequenceTableName(String tableName) {
+        return tableName + "_position";
+    }
+
     private void create(boolean ifNotExists) {
+        create(ifNotExists, "unique stream_category(stream_category, stream_id, event_number)", "");
+    }
+
+    private void create(boolean ifNotExists, String streamKeyDefinition, String partitioning) {
         try (Connection connection = connectionProvider.getConnection()) {
             DatabaseMetaData meta = connection.getMetaData();
             if (ifNotExists) {
@@ -59,9 +135,11 @@ public class BasicMysqlEventStoreSetup {
                         "event_type varchar(255) not null," +
                         "data mediumblob not null, " +
                         "metadata blob not null," +
-                        "unique stream_category(stream_category, stream_id, event_number)," +
-                        "key stream_category_2(stream_category, position)" +
-                        ") row_format=DYNAMIC");
+                        streamKeyDefinition + "," +
+                        "key stream_category_2(stream_category, position)," +
+                        "key " + EVENT_TYPE_INDEX + "(stream_category, event_type, position)" +
+                        ") row_format=DYNAMIC" +
+                        partitioning);
             }
         } catch (SQLException e) {
             throw new RuntimeException(e);
@@ -12,12 +12,15 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
+import java.util.List;
 import java.util.Optional;
+import java.util.Spliterator;
 import java.util.stream.Stream;
 
+import static java.util.Collections.emptyList;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.StreamSupport.stream;
 
@@ -26,30 +29,69 @@ public class BasicMysqlEventStreamReader implements EventStreamReader {
     private final ConnectionProvider connectionProvider;
     private final String tableName;
     private final int batchSize;
-    private final Optional<Timer> timer;
+    private final QueryTimers timers;
     private final Optional<Timer> streamValidationTimer;
+    private final Optional<StreamingReadPolicy> streamingReadPolicy;
+    private final Optional<StreamTailCache> tailCache;
 
     public BasicMysqlEventStreamReader(ConnectionProvider connectionProvider, String databaseName, String tableName, int batchSize, @Nullable MetricRegistry metricRegistry) {
+        this(connectionProvider, databaseName, tableName, batchSize, metricRegistry, null);
+    }
+
+    public BasicMysqlEventStreamReader(ConnectionProvider connectionProvider, String databaseName, String tableName, int batchSize, @Nullable MetricRegistry metricRegistry, @Nullable StreamingReadPolicy streamingReadPolicy) {
+        this(connectionProvider, databaseName, tableName, batchSize, metricRegistry, streamingReadPolicy, (StreamTailCache) null);
+    }
+
+    /**
+     * @param streamTailCachePolicy if present, forwards reads keep the events of recently read streams, and reading
+     *                              one of them again only fetches the events written since; those reads page
+     *                              through the new events even when reads are otherwise streamed
+     */
+    public BasicMysqlEventStreamReader(ConnectionProvider connectionProvider, String databaseName, String tableName, int batchSize, @Nullable MetricRegistry metricRegistry, @Nullable StreamingReadPolicy streamingReadPolicy, @Nullable StreamTailCachePolicy streamTailCachePolicy) {
+        this(connectionProvider, databaseName, tableName, batchSize, metricRegistry, streamingReadPolicy,
+                streamTailCachePolicy == null ? null : new StreamTailCache(streamTailCachePolicy, databaseName, tableName, metricRegistry));
+    }
+
+    BasicMysqlEventStreamReader(ConnectionProvider connectionProvider, String databaseName, String tableName, int batchSize, @Nullable MetricRegistry metricRegistry, @Nullable StreamingReadPolicy streamingReadPolicy, @Nullable StreamTailCache tailCache) {
         this.connectionProvider = requireNonNull(connectionProvider);
         this.tableName = requireNonNull(tableName);
         this.batchSize = batchSize;
         this.streamValidationTimer = Optional.ofNullable(metricRegistry).map(r -> r.timer(String.format("database.%s.%s.ensure_stream_exists_validation.time", databaseName, tableName)));
-        this.timer = Optional.ofNullable(metricRegistry).map(r -> r.timer(String.format("database.%s.%s.read_stream.page_fetch_time", databaseName, tableName)));
+        this.timers = QueryTimers.queryTimers(metricRegistry, databaseName, tableName, "read_stream");
+        this.streamingReadPolicy = Optional.ofNullable(streamingReadPolicy);
+        this.tailCache = Optional.ofNullable(tailCache);
     }
 
     @CheckReturnValue
     @Nonnull
     @Override
     public Stream<ResolvedEvent> readStreamForwards(StreamId streamId, long eventNumber) {
+        if (tailCache.isPresent()) {
+            return readForwardsThroughCache(tailCache.get(), streamId, eventNumber);
+        }
+
         ensureStreamExists(streamId);
+
+        if (streamingReadPolicy.isPresent()) {
+            StreamingEventSpliterator<Long> spliterator = StreamingEventSpliterator.readStreamEventSpliterator(
+                    connectionProvider,
+                    streamingReadPolicy.get(),
+                    tableName,
+                    streamId,
+                    eventNumber,
+                    timers
+            );
+            return stream(spliterator, false).onClose(spliterator::close);
+        }
+
         return stream(EventSpliterator.readStreamEventSpliterator(
                 connectionProvider,
-                batchSize,
+                PageSizer.fixedPageSize(batchSize),
                 tableName,
                 streamId,
                 eventNumber,
                 false,
-                timer
+                timers
         ), false);
     }
 
@@ -79,32 +121,70 @@ public class BasicMysqlEventStreamReader implements EventStreamReader {
         return "BasicMysqlEventStreamReader{" +
                 "tableName='" + tableName + '\'' +
                 ", batchSize=" + batchSize +
+                ", streamingReadPolicy=" + streamingReadPolicy +
+                ", tailCache=" + tailCache +
                 '}';
     }
 
     //select position from event force index(stream_category) where stream_category = 'received_files' and stream_id = 'DataScopeEM' limit 1;
 
+    /**
+     * A cached stream is known to exist, and the only query needed is for the events after the cached ones, which
+     * finds any written since, by this process or any other. Streams that are not cached are only cached when read
+     * from the start.
+     */
+    private Stream<ResolvedEvent> readForwardsThroughCache(StreamTailCache cache, StreamId streamId, long eventNumber) {
+        List<ResolvedEvent> cached = cache.get(streamId);
+        if (cached == null) {
+            ensureStreamExists(streamId);
+            Spliterator<ResolvedEvent> all = forwardsSpliterator(streamId, eventNumber);
+            return stream(eventNumber == EmptyStreamEventNumber ? cache.filling(streamId, emptyList(), all) : all, false);
+        }
+
+        long cachedEventNumber = cached.get(cached.size() - 1).eventRecord().eventNumber();
+        if (eventNumber > cachedEventNumber) {
+            return stream(forwardsSpliterator(streamId, eventNumber), false);
+        }
+        return Stream.concat(
+                cached.subList((int) (eventNumber + 1), cached.size()).stream(),
+                stream(cache.filling(streamId, cached, forwardsSpliterator(streamId, cachedEventNumber)), false));
+    }
+
+    private Spliterator<ResolvedEvent> forwardsSpliterator(StreamId streamId, long eventNumber) {
+        return EventSpliterator.readStreamEventSpliterator(
+                connectionProvider,
+                PageSizer.fixedPageSize(batchSize),
+                tableName,
+                streamId,
+                eventNumber,
+                false,
+                timers);
+    }
+
     private Stream<ResolvedEvent> readBackwards(StreamId streamId, long eventNumber, int theBatchSize) {
         ensureStreamExists(streamId);
 
         return stream(EventSpliterator.readStreamEventSpliterator(
                 connectionProvider,
-                theBatchSize,
+                PageSizer.fixedPageSize(theBatchSize),
                 tableName,
                 streamId,
                 eventNumber,
                 true,
-                timer), false);
+                timers), false);
     }
 
     private void ensureStreamExists(StreamId streamId) throws NoSuchStreamException {
         try (Timer.Context c = streamValidationTimer.orElse(new Timer()).time()) {
             try (Connection connection = connectionProvider.getConnection();
-                 Statement statement = connection.createStatement();
-                 ResultSet resultSet = statement.executeQuery(String.format("select position from %s force index(stream_category) where stream_category = '%s' and stream_id = '%s' limit 1", tableName, streamId.category(), streamId.id()))
+                 PreparedStatement statement = connection.prepareStatement(String.format("select position from %s force index(stream_category) where stream_category = ? and stream_id = ? limit 1", tableName))
             ) {
-                if (!resultSet.first()) {
-                    throw new NoSuchStreamException(streamId);
+                statement.setString(1, streamId.category());
+                statement.setString(2, streamId.id());
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (!resultSet.next()) {
+                        throw new NoSuchStreamException(streamId);
+                    }
                 }
             } catch (SQLException e) {
                 throw new RuntimeException(String.format("Error checking whether stream '%s' exists", streamId), e);
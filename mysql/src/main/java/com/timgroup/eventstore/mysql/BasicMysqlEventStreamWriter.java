@@ -4,11 +4,15 @@ import com.codahale.metrics.Counter;
 import com.codahale.metrics.Histogram;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
+import com.timgroup.eventstore.api.AsyncEventStreamWriter;
 import com.timgroup.eventstore.api.EventStreamWriter;
 import com.timgroup.eventstore.api.NewEvent;
+import com.timgroup.eventstore.api.Position;
 import com.timgroup.eventstore.api.StreamId;
+import com.timgroup.eventstore.api.WriteResult;
 import com.timgroup.eventstore.api.WrongExpectedVersionException;
 
+import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import java.sql.BatchUpdateException;
@@ -21,31 +25,74 @@ import java.sql.SQLIntegrityConstraintViolationException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.stream.IntStream;
 
 import static java.lang.String.format;
+import static java.util.Collections.emptyMap;
 import static java.util.Collections.singletonList;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
 
 @ParametersAreNonnullByDefault
-public class BasicMysqlEventStreamWriter implements EventStreamWriter {
+public class BasicMysqlEventStreamWriter implements EventStreamWriter, AsyncEventStreamWriter {
+    private static final int MAX_BATCH_SIZE_BUCKET = 64;
+    /**
+     * Runs at most as many asynchronous writes at once as the default connection pool has connections, as each
+     * write holds a connection throughout. Writes submitted while all of those threads are busy run on the
+     * submitting thread instead, which holds back callers that write faster than the writes complete.
+     */
+    private static final Executor DEFAULT_ASYNC_EXECUTOR = new ThreadPoolExecutor(0, StacksConfiguredDataSource.DEFAULT_MAX_POOLSIZE, 60, SECONDS, new SynchronousQueue<>(), runnable -> {
+        Thread thread = new Thread(runnable, "BasicMysqlEventStreamWriter-async");
+        thread.setDaemon(true);
+        return thread;
+    }, new ThreadPoolExecutor.CallerRunsPolicy());
+
     private final ConnectionProvider connectionProvider;
-    private final String tableName;
+    final String tableName;
     private final Optional<Timer> timer;
     private final Optional<Histogram> histogram;
     private final Optional<Counter> retryCounter;
+    private final Optional<Timer> positionAllocationTimer;
+    private final PositionAllocator positionAllocator;
+    private final Optional<MetricRegistry> metricRegistry;
+    final String databaseName;
+    private final Executor asyncExecutor;
 
     public BasicMysqlEventStreamWriter(ConnectionProvider connectionProvider, String databaseName, String tableName, @Nullable MetricRegistry metricRegistry) {
+        this(connectionProvider, databaseName, tableName, metricRegistry, PositionAllocator.selectMaxPosition());
+    }
+
+    public BasicMysqlEventStreamWriter(ConnectionProvider connectionProvider, String databaseName, String tableName, @Nullable MetricRegistry metricRegistry, PositionAllocator positionAllocator) {
+        this(connectionProvider, databaseName, tableName, metricRegistry, positionAllocator, DEFAULT_ASYNC_EXECUTOR);
+    }
+
+    /**
+     * @param asyncExecutor runs the blocking database work of asynchronous writes; should be bounded, as each
+     *                      write holds a connection while it runs
+     */
+    public BasicMysqlEventStreamWriter(ConnectionProvider connectionProvider, String databaseName, String tableName, @Nullable MetricRegistry metricRegistry, PositionAllocator positionAllocator, Executor asyncExecutor) {
         this.connectionProvider = requireNonNull(connectionProvider);
         this.tableName = requireNonNull(tableName);
+        this.databaseName = requireNonNull(databaseName);
+        this.metricRegistry = Optional.ofNullable(metricRegistry);
         this.timer = Optional.ofNullable(metricRegistry).map(r -> r.timer(String.format("database.%s.%s.write.time", databaseName, tableName)));
         this.histogram = Optional.ofNullable(metricRegistry).map(r -> r.histogram(String.format("database.%s.%s.write.count", databaseName, tableName)));
         this.retryCounter = Optional.ofNullable(metricRegistry).map(r -> r.counter(String.format("database.%s.%s.retry.count", databaseName, tableName)));
+        this.positionAllocationTimer = Optional.ofNullable(metricRegistry).map(r -> r.timer(String.format("database.%s.%s.write.position_allocation.time", databaseName, tableName)));
+        this.positionAllocator = requireNonNull(positionAllocator);
+        this.asyncExecutor = requireNonNull(asyncExecutor);
     }
 
     @Override
@@ -60,20 +107,70 @@ public class BasicMysqlEventStreamWriter implements EventStreamWriter {
 
     @Override
     public void execute(Collection<StreamWriteRequest> writeRequests) {
+        executeReturningResult(writeRequests);
+    }
+
+    @Nonnull
+    @Override
+    public CompletableFuture<WriteResult> writeAsync(StreamId streamId, Collection<NewEvent> events) {
+        return executeAsync(singletonList(new StreamWriteRequest(streamId, events, OptionalLong.empty())));
+    }
+
+    @Nonnull
+    @Override
+    public CompletableFuture<WriteResult> writeAsync(StreamId streamId, Collection<NewEvent> events, long expectedVersion) {
+        return executeAsync(singletonList(new StreamWriteRequest(streamId, events, OptionalLong.of(expectedVersion))));
+    }
+
+    @Nonnull
+    @Override
+    public CompletableFuture<WriteResult> executeAsync(Collection<StreamWriteRequest> writeRequests) {
+        return CompletableFuture.supplyAsync(() -> executeReturningResult(writeRequests), asyncExecutor);
+    }
+
+    /**
+     * Writes the requests whose expected versions match in one transaction, and describes the mismatch of
+     * each of the others by stream.
+     */
+    Map<StreamId, String> executeReportingFailures(Collection<StreamWriteRequest> writeRequests) {
+        return executeReportingOutcome(writeRequests).failures;
+    }
+
+    WriteResult executeReturningResult(Collection<StreamWriteRequest> writeRequests) {
+        Outcome outcome = executeReportingOutcome(writeRequests);
+
+        if (!outcome.failures.isEmpty()) {
+            throw new WrongExpectedVersionException(outcome.failures.values().stream().collect(joining(",")));
+        }
+        return outcome.result;
+    }
+
+    private Outcome executeReportingOutcome(Collection<StreamWriteRequest> writeRequests) {
         if (writeRequests.stream().allMatch(r -> r.events.isEmpty())) {
-            return;
+            return new Outcome(emptyMap(), WriteResult.unknownWriteResult());
         }
 
         writeRequests.stream().collect(toMap(r -> r.streamId, r -> r, (r1, r2) -> {
             throw new RuntimeException("Duplicate streamId in write request: " + r1.streamId);
         }));
 
+        Optional<Outcome> outcome;
+        while (!(outcome = tryExecute(writeRequests)).isPresent()) {
+            retryCounter.ifPresent(Counter::inc);
+        }
+        return outcome.get();
+    }
+
+    private Optional<Outcome> tryExecute(Collection<StreamWriteRequest> writeRequests) {
         try (Connection connection = connectionProvider.getConnection()) {
             connection.setAutoCommit(false);
 
+            positionAllocator.beforeVersionLookup(connection, tableName);
             Map<StreamId, Long> currentEventNumbers = currentEventNumbers(writeRequests, connection);
 
-            List<String> failures = new ArrayList<>();
+            Map<StreamId, String> failures = new LinkedHashMap<>();
+
+            Map<StreamId, Long> streamVersions = new LinkedHashMap<>();
 
             List<WritableEvent> events = new ArrayList<>();
 
@@ -81,11 +178,12 @@ public class BasicMysqlEventStreamWriter implements EventStreamWriter {
                 long currentEventNumber = currentEventNumbers.getOrDefault(req.streamId, -1L);
 
                 if (req.expectedVersion.isPresent() && req.expectedVersion.getAsLong() != currentEventNumber) {
-                    failures.add(req.streamId + ": " + "current version: " + currentEventNumber + ", expected version: " + req.expectedVersion.getAsLong());
+                    failures.put(req.streamId, req.streamId + ": " + "current version: " + currentEventNumber + ", expected version: " + req.expectedVersion.getAsLong());
                     continue;
                 }
 
                 long eventNumber = currentEventNumber;
+                streamVersions.put(req.streamId, currentEventNumber + req.events.size());
 
                 for (NewEvent event : req.events) {
                     events.add(new WritableEvent(
@@ -98,17 +196,14 @@ public class BasicMysqlEventStreamWriter implements EventStreamWriter {
                 }
             }
 
-            write(events, connection);
+            List<Position> positions = write(events, connection);
 
             connection.commit();
 
-            if (!failures.isEmpty()) {
-                throw new WrongExpectedVersionException(failures.stream().collect(joining(",")));
-            }
+            return Optional.of(new Outcome(failures, WriteResult.writeResult(streamVersions, positions)));
         } catch (BatchUpdateException e) {
             if (e.getCause() instanceof SQLIntegrityConstraintViolationException) {
-                retryCounter.ifPresent(Counter::inc);
-                execute(writeRequests); // retry indefinitely
+                return Optional.empty();
             } else {
                 throw new RuntimeException(e);
             }
@@ -121,10 +216,11 @@ public class BasicMysqlEventStreamWriter implements EventStreamWriter {
     public String toString() {
         return "BasicMysqlEventStreamWriter{" +
                 "tableName='" + tableName + '\'' +
+                ", positionAllocator=" + positionAllocator +
                 '}';
     }
 
-    private void write(Collection<WritableEvent> events, Connection connection) throws SQLException {
+    private List<Position> write(Collection<WritableEvent> events, Connection connection) throws SQLException {
         try (
                 Timer.Context c = timer.map(t -> t.time()).orElse(new Timer().time());
                 PreparedStatement statement = connection.prepareStatement(
@@ -133,10 +229,15 @@ public class BasicMysqlEventStreamWriter implements EventStreamWriter {
                 )
         ) {
 
-            long currentPosition = currentPosition(connection);
+            long currentPosition;
+            try (Timer.Context ignored = positionAllocationTimer.map(Timer::time).orElseGet(() -> new Timer().time())) {
+                currentPosition = positionAllocator.allocate(connection, tableName, events.size());
+            }
 
+            List<Position> positions = new ArrayList<>(events.size());
             for (WritableEvent event : events) {
-                statement.setLong(1, ++currentPosition);
+                positions.add(new BasicMysqlEventStorePosition(++currentPosition));
+                statement.setLong(1, currentPosition);
                 statement.setString(2, event.streamId.category());
                 statement.setString(3, event.streamId.id());
                 statement.setLong(4, event.eventNumber);
@@ -152,6 +253,7 @@ public class BasicMysqlEventStreamWriter implements EventStreamWriter {
                 throw new RuntimeException("Expected to write " + events.size() + " events but wrote " + affectedRows.length);
             }
             histogram.ifPresent(h -> h.update(events.size()));
+            return positions;
         }
     }
 
@@ -161,34 +263,63 @@ public class BasicMysqlEventStreamWriter implements EventStreamWriter {
                 : "UTC_TIMESTAMP()";
     }
 
-    private long currentPosition(Connection connection) throws SQLException {
-        try (PreparedStatement statement = connection.prepareStatement(format("select max(position) as current_position from %s", tableName))) {
-            try (ResultSet resultSet = statement.executeQuery()) {
-                resultSet.next();
-                return resultSet.getLong("current_position");
+    /**
+     * Looks up the current event number of every stream in the batch with a single query, each stream being
+     * its own subquery so that it resolves to a lookup on the {@code stream_category} unique index.
+     */
+    private Map<StreamId, Long> currentEventNumbers(Collection<StreamWriteRequest> writeRequests, Connection connection) throws SQLException {
+        List<StreamId> streamIds = writeRequests.stream().map(r -> r.streamId).collect(toList());
+
+        String sql = IntStream.range(0, streamIds.size())
+                .mapToObj(i -> format("(select %d as stream_index, max(event_number) as event_number from %s where stream_category = ? and stream_id = ?)", i, tableName))
+                .collect(joining(" union all "));
+
+        try (Timer.Context c = versionLookupTimer(streamIds.size()).map(Timer::time).orElseGet(() -> new Timer().time());
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            int parameterIndex = 1;
+            for (StreamId streamId : streamIds) {
+                statement.setString(parameterIndex++, streamId.category());
+                statement.setString(parameterIndex++, streamId.id());
             }
-        }
-    }
 
-    private Map<StreamId, Long> currentEventNumbers(Collection<StreamWriteRequest> writeRequests, Connection connection) throws SQLException {
-        try (PreparedStatement statement = connection.prepareStatement(format("select event_number from %s where stream_category = ? and stream_id = ? order by event_number desc limit 1", tableName))) {
             Map<StreamId, Long> eventNumbers = new HashMap<>();
-
-            for (StreamWriteRequest r : writeRequests) {
-                statement.setString(1, r.streamId.category());
-                statement.setString(2, r.streamId.id());
-                try (ResultSet resultSet = statement.executeQuery()) {
-                    if (resultSet.next()) {
-                        eventNumbers.put(r.streamId, resultSet.getLong(1));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    long eventNumber = resultSet.getLong("event_number");
+                    if (!resultSet.wasNull()) {
+                        eventNumbers.put(streamIds.get(resultSet.getInt("stream_index")), eventNumber);
                     }
                 }
-                statement.clearParameters();
             }
-
             return eventNumbers;
         }
     }
 
+    private Optional<Timer> versionLookupTimer(int numberOfStreams) {
+        return metricRegistry.map(r -> r.timer(format("database.%s.%s.write.version_lookup.streams_%s.time", databaseName, tableName, batchSizeBucket(numberOfStreams))));
+    }
+
+    static String batchSizeBucket(int numberOfStreams) {
+        if (numberOfStreams > MAX_BATCH_SIZE_BUCKET) {
+            return "over_" + MAX_BATCH_SIZE_BUCKET;
+        }
+        int bucket = 1;
+        while (bucket < numberOfStreams) {
+            bucket *= 2;
+        }
+        return "upto_" + bucket;
+    }
+
+    private static final class Outcome {
+        private final Map<StreamId, String> failures;
+        private final WriteResult result;
+
+        private Outcome(Map<StreamId, String> failures, WriteResult result) {
+            this.failures = failures;
+            this.result = result;
+        }
+    }
+
     private static class WritableEvent {
         private final StreamId streamId;
         private final long eventNumber;
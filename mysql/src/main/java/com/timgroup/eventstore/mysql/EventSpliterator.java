@@ -5,14 +5,13 @@ import com.timgroup.eventstore.api.ResolvedEvent;
 import com.timgroup.eventstore.api.StreamId;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Optional;
 import java.util.Spliterator;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -22,127 +21,333 @@ import static java.lang.Integer.MIN_VALUE;
 import static java.lang.Long.MAX_VALUE;
 
 class EventSpliterator<T> implements Spliterator<ResolvedEvent> {
+    static final String EVENT_COLUMNS = "position, timestamp, stream_category, stream_id, event_number, event_type, data, metadata";
+    // Selecting empty payloads, rather than leaving the columns out, lets header reads share the event spliterators
+    static final String HEADER_COLUMNS = "position, timestamp, stream_category, stream_id, event_number, event_type, '' as data, '' as metadata";
+
     private final ConnectionProvider connectionProvider;
-    private final Function<T, String> queryStringGenerator;
+    private final String sql;
+    private final StatementParameters<T> statementParameters;
     private final Function<ResolvedEvent, T> locationPointerExtractor;
-    private final Optional<Timer> timer;
+    private final QueryTimers timers;
+    private final PageSizer pageSizer;
 
     private T locationPointer;
     private Iterator<ResolvedEvent> currentPage = Collections.emptyIterator();
     private boolean streamExhausted = false;
 
-    public static Spliterator<ResolvedEvent> readAllEventSpliterator(ConnectionProvider connectionProvider,
-                                                                     int batchSize,
-                                                                     String tableName,
-                                                                     BasicMysqlEventStorePosition startingPosition,
-                                                                     boolean backwards, Optional<Timer> timer)
+    public static EventSpliterator<BasicMysqlEventStorePosition> readAllEventSpliterator(ConnectionProvider connectionProvider,
+                                                                                         PageSizer pageSizer,
+                                                                                         String tableName,
+                                                                                         BasicMysqlEventStorePosition startingPosition,
+                                                                                         boolean backwards,
+                                                                                         QueryTimers timers)
     {
-        final String queryString = "select position, timestamp, stream_category, stream_id, event_number, event_type, data, metadata" +
-                " from " + tableName +
-                " where position " + (backwards ? "<" : ">") + " %s" +
-                " order by position " + (backwards ? "desc" : "asc") +
-                " limit " + batchSize;
+        return new EventSpliterator<>(
+                connectionProvider,
+                startingPosition,
+                readAllQueryString(EVENT_COLUMNS, tableName, backwards),
+                readAllParameters(),
+                resolvedEvent -> (BasicMysqlEventStorePosition)resolvedEvent.position(),
+                timers,
+                pageSizer);
+    }
 
+    public static EventSpliterator<BasicMysqlEventStorePosition> readAllRangeEventSpliterator(ConnectionProvider connectionProvider,
+                                                                                              PageSizer pageSizer,
+                                                                                              String tableName,
+                                                                                              BasicMysqlEventStorePosition startingPosition,
+                                                                                              long lastPositionInclusive,
+                                                                                              QueryTimers timers)
+    {
         return new EventSpliterator<>(
                 connectionProvider,
                 startingPosition,
-                position -> String.format(queryString, position.value),
+                readAllRangeQueryString(tableName),
+                readAllRangeParameters(lastPositionInclusive),
                 resolvedEvent -> (BasicMysqlEventStorePosition)resolvedEvent.position(),
-                timer);
+                timers,
+                pageSizer);
     }
 
-    public static Spliterator<ResolvedEvent> readCategoryEventSpliterator(ConnectionProvider connectionProvider,
-                                                                          int batchSize,
-                                                                          String tableName,
-                                                                          String category,
-                                                                          BasicMysqlEventStorePosition startingPosition,
-                                                                          boolean backwards,
-                                                                          Optional<Timer> timer)
+    public static EventSpliterator<BasicMysqlEventStorePosition> readAllHeaderSpliterator(ConnectionProvider connectionProvider,
+                                                                                          PageSizer pageSizer,
+                                                                                          String tableName,
+                                                                                          BasicMysqlEventStorePosition startingPosition,
+                                                                                          boolean backwards,
+                                                                                          QueryTimers timers)
     {
-        final String queryString = "select position, timestamp, stream_category, stream_id, event_number, event_type, data, metadata" +
-                " from " + tableName +
-                " FORCE INDEX (stream_category_2)" +
-                " where position " + (backwards ? "<" : ">") + " %s" +
-                " and stream_category = '" + category + "'" +
-                " order by position " + (backwards ? "desc" : "asc") +
-                " limit " + batchSize;
+        return new EventSpliterator<>(
+                connectionProvider,
+                startingPosition,
+                readAllQueryString(HEADER_COLUMNS, tableName, backwards),
+                readAllParameters(),
+                resolvedEvent -> (BasicMysqlEventStorePosition)resolvedEvent.position(),
+                timers,
+                pageSizer);
+    }
+
+    public static EventSpliterator<BasicMysqlEventStorePosition> readAllOfTypesEventSpliterator(ConnectionProvider connectionProvider,
+                                                                                                PageSizer pageSizer,
+                                                                                                String tableName,
+                                                                                                List<String> eventTypes,
+                                                                                                BasicMysqlEventStorePosition startingPosition,
+                                                                                                QueryTimers timers)
+    {
+        return new EventSpliterator<>(
+                connectionProvider,
+                startingPosition,
+                readAllOfTypesQueryString(tableName, eventTypes.size()),
+                readAllOfTypesParameters(eventTypes),
+                resolvedEvent -> (BasicMysqlEventStorePosition)resolvedEvent.position(),
+                timers,
+                pageSizer);
+    }
+
+    public static EventSpliterator<BasicMysqlEventStorePosition> readCategoryEventSpliterator(ConnectionProvider connectionProvider,
+                                                                                              PageSizer pageSizer,
+                                                                                              String tableName,
+                                                                                              String category,
+                                                                                              BasicMysqlEventStorePosition startingPosition,
+                                                                                              boolean backwards,
+                                                                                              QueryTimers timers)
+    {
+        return new EventSpliterator<>(
+                connectionProvider,
+                startingPosition,
+                readCategoryQueryString(EVENT_COLUMNS, tableName, backwards),
+                readCategoryParameters(category),
+                resolvedEvent -> (BasicMysqlEventStorePosition) resolvedEvent.position(),
+                timers,
+                pageSizer);
+    }
 
+    static EventSpliterator<BasicMysqlEventStorePosition> readCategoryRangeEventSpliterator(ConnectionProvider connectionProvider,
+                                                                                     PageSizer pageSizer,
+                                                                                     String tableName,
+                                                                                     String category,
+                                                                                     BasicMysqlEventStorePosition startingPosition,
+                                                                                     long lastPositionInclusive,
+                                                                                     QueryTimers timers)
+    {
         return new EventSpliterator<>(
                 connectionProvider,
                 startingPosition,
-                position -> String.format(queryString, position.value),
+                readCategoryRangeQueryString(tableName),
+                readCategoryRangeParameters(category, lastPositionInclusive),
                 resolvedEvent -> (BasicMysqlEventStorePosition) resolvedEvent.position(),
-                timer);
+                timers,
+                pageSizer);
     }
 
+    static EventSpliterator<BasicMysqlEventStorePosition> readCategoryOfTypeRangeEventSpliterator(ConnectionProvider connectionProvider,
+                                                                                           PageSizer pageSizer,
+                                                                                           String tableName,
+                                                                                           String category,
+                                                                                           String eventType,
+                                                                                           BasicMysqlEventStorePosition startingPosition,
+                                                                                           long lastPositionInclusive,
+                                                                                           QueryTimers timers)
+    {
+        return new EventSpliterator<>(
+                connectionProvider,
+                startingPosition,
+                readCategoryOfTypeRangeQueryString(tableName),
+                readCategoryOfTypeRangeParameters(category, eventType, lastPositionInclusive),
+                resolvedEvent -> (BasicMysqlEventStorePosition) resolvedEvent.position(),
+                timers,
+                pageSizer);
+    }
 
-    public static Spliterator<ResolvedEvent> readStreamEventSpliterator(ConnectionProvider connectionProvider,
-                                                                        int batchSize,
-                                                                        String tableName,
-                                                                        StreamId streamId,
-                                                                        long startingEventNumber,
-                                                                        boolean backwards,
-                                                                        Optional<Timer> timer)
+    public static EventSpliterator<BasicMysqlEventStorePosition> readCategoryHeaderSpliterator(ConnectionProvider connectionProvider,
+                                                                                               PageSizer pageSizer,
+                                                                                               String tableName,
+                                                                                               String category,
+                                                                                               BasicMysqlEventStorePosition startingPosition,
+                                                                                               QueryTimers timers)
     {
-        final String queryString = "select position, timestamp, stream_category, stream_id, event_number, event_type, data, metadata" +
-                " from " + tableName +
-                " where event_number " + (backwards ? "<" : ">") + " %d" +
-                " and stream_category = '" + streamId.category() + "'" +
-                " and stream_id = '" + streamId.id() + "'" +
-                " order by event_number " + (backwards ? "desc" : "asc") +
-                " limit " + batchSize;
+        return new EventSpliterator<>(
+                connectionProvider,
+                startingPosition,
+                readCategoryQueryString(HEADER_COLUMNS, tableName, false),
+                readCategoryParameters(category),
+                resolvedEvent -> (BasicMysqlEventStorePosition) resolvedEvent.position(),
+                timers,
+                pageSizer);
+    }
 
+
+    public static EventSpliterator<Long> readStreamEventSpliterator(ConnectionProvider connectionProvider,
+                                                                    PageSizer pageSizer,
+                                                                    String tableName,
+                                                                    StreamId streamId,
+                                                                    long startingEventNumber,
+                                                                    boolean backwards,
+                                                                    QueryTimers timers)
+    {
         return new EventSpliterator<>(
                 connectionProvider,
                 startingEventNumber,
-                eventNumber -> String.format(queryString, eventNumber),
+                readStreamQueryString(tableName, backwards),
+                readStreamParameters(streamId),
                 resolvedEvent -> resolvedEvent.eventRecord().eventNumber(),
-                timer
+                timers,
+                pageSizer
         );
     }
 
+    static String readAllQueryString(String columns, String tableName, boolean backwards) {
+        return "select " + columns +
+                " from " + tableName +
+                " where position " + (backwards ? "<" : ">") + " ?" +
+                " order by position " + (backwards ? "desc" : "asc") +
+                " limit ?";
+    }
+
+    static StatementParameters<BasicMysqlEventStorePosition> readAllParameters() {
+        return (statement, position, limit) -> {
+            statement.setLong(1, position.value);
+            statement.setInt(2, limit);
+        };
+    }
+
+    static String readAllRangeQueryString(String tableName) {
+        return "select " + EVENT_COLUMNS +
+                " from " + tableName +
+                " where position > ?" +
+                " and position <= ?" +
+                " order by position asc" +
+                " limit ?";
+    }
+
+    static StatementParameters<BasicMysqlEventStorePosition> readAllRangeParameters(long lastPositionInclusive) {
+        return (statement, position, limit) -> {
+            statement.setLong(1, position.value);
+            statement.setLong(2, lastPositionInclusive);
+            statement.setInt(3, limit);
+        };
+    }
+
+    static String readAllOfTypesQueryString(String tableName, int numberOfEventTypes) {
+        return "select " + EVENT_COLUMNS +
+                " from " + tableName +
+                " where position > ?" +
+                " and event_type in (" + String.join(", ", Collections.nCopies(numberOfEventTypes, "?")) + ")" +
+                " order by position asc" +
+                " limit ?";
+    }
+
+    static StatementParameters<BasicMysqlEventStorePosition> readAllOfTypesParameters(List<String> eventTypes) {
+        return (statement, position, limit) -> {
+            int parameterIndex = 1;
+            statement.setLong(parameterIndex++, position.value);
+            for (String eventType : eventTypes) {
+                statement.setString(parameterIndex++, eventType);
+            }
+            statement.setInt(parameterIndex, limit);
+        };
+    }
+
+    static String readCategoryQueryString(String columns, String tableName, boolean backwards) {
+        return "select " + columns +
+                " from " + tableName +
+                " FORCE INDEX (stream_category_2)" +
+                " where position " + (backwards ? "<" : ">") + " ?" +
+                " and stream_category = ?" +
+                " order by position " + (backwards ? "desc" : "asc") +
+                " limit ?";
+    }
+
+    static StatementParameters<BasicMysqlEventStorePosition> readCategoryParameters(String category) {
+        return (statement, position, limit) -> {
+            statement.setLong(1, position.value);
+            statement.setString(2, category);
+            statement.setInt(3, limit);
+        };
+    }
+
+    static String readCategoryRangeQueryString(String tableName) {
+        return "select " + EVENT_COLUMNS +
+                " from " + tableName +
+                " FORCE INDEX (stream_category_2)" +
+                " where position > ?" +
+                " and position <= ?" +
+                " and stream_category = ?" +
+                " order by position asc" +
+                " limit ?";
+    }
+
+    static StatementParameters<BasicMysqlEventStorePosition> readCategoryRangeParameters(String category, long lastPositionInclusive) {
+        return (statement, position, limit) -> {
+            statement.setLong(1, position.value);
+            statement.setLong(2, lastPositionInclusive);
+            statement.setString(3, category);
+            statement.setInt(4, limit);
+        };
+    }
+
+    static String readCategoryOfTypeRangeQueryString(String tableName) {
+        return "select " + EVENT_COLUMNS +
+                " from " + tableName +
+                " where position > ?" +
+                " and position <= ?" +
+                " and stream_category = ?" +
+                " and event_type = ?" +
+                " order by position asc" +
+                " limit ?";
+    }
+
+    static StatementParameters<BasicMysqlEventStorePosition> readCategoryOfTypeRangeParameters(String category, String eventType, long lastPositionInclusive) {
+        return (statement, position, limit) -> {
+            statement.setLong(1, position.value);
+            statement.setLong(2, lastPositionInclusive);
+            statement.setString(3, category);
+            statement.setString(4, eventType);
+            statement.setInt(5, limit);
+        };
+    }
+
+    static String readStreamQueryString(String tableName, boolean backwards) {
+        return "select " + EVENT_COLUMNS +
+                " from " + tableName +
+                " where event_number " + (backwards ? "<" : ">") + " ?" +
+                " and stream_category = ?" +
+                " and stream_id = ?" +
+                " order by event_number " + (backwards ? "desc" : "asc") +
+                " limit ?";
+    }
+
+    static StatementParameters<Long> readStreamParameters(StreamId streamId) {
+        return (statement, eventNumber, limit) -> {
+            statement.setLong(1, eventNumber);
+            statement.setString(2, streamId.category());
+            statement.setString(3, streamId.id());
+            statement.setInt(4, limit);
+        };
+    }
+
     EventSpliterator(
             ConnectionProvider connectionProvider,
             T startingLocation,
-            Function<T, String> queryStringGenerator,
+            String sql,
+            StatementParameters<T> statementParameters,
             Function<ResolvedEvent, T> locationPointerExtractor,
-            Optional<Timer> timer)
+            QueryTimers timers,
+            PageSizer pageSizer)
     {
         this.connectionProvider = connectionProvider;
         this.locationPointer = startingLocation;
-        this.queryStringGenerator = queryStringGenerator;
+        this.sql = sql;
+        this.statementParameters = statementParameters;
         this.locationPointerExtractor = locationPointerExtractor;
-        this.timer = timer;
+        this.timers = timers;
+        this.pageSizer = pageSizer;
     }
 
     @Override
     public boolean tryAdvance(Consumer<? super ResolvedEvent> action) {
         if (!currentPage.hasNext() && !streamExhausted) {
-            try (Timer.Context c = timer.map(t -> t.time()).orElse(new Timer().time());) {
-                try (Connection connection = connectionProvider.getConnection();
-                     Statement statement = streamingStatementFrom(connection);
-                     ResultSet resultSet = statement.executeQuery(queryStringGenerator.apply(locationPointer))
-                ) {
-
-                    List<ResolvedEvent> list = new ArrayList<>();
-
-                    while (resultSet.next()) {
-                        list.add(new ResolvedEvent(
-                                new BasicMysqlEventStorePosition(resultSet.getLong("position")),
-                                eventRecord(
-                                        resultSet.getTimestamp("timestamp").toInstant(),
-                                        StreamId.streamId(resultSet.getString("stream_category"), resultSet.getString("stream_id")),
-                                        resultSet.getLong("event_number"),
-                                        resultSet.getString("event_type"),
-                                        resultSet.getBytes("data"),
-                                        resultSet.getBytes("metadata")
-                                )));
-                    }
-                    currentPage = list.iterator();
-                } catch (SQLException e) {
-                    throw new RuntimeException(e);
-                }
-            }
+            currentPage = fetchPage(locationPointer).iterator();
         }
 
         if (currentPage.hasNext()) {
@@ -156,6 +361,34 @@ class EventSpliterator<T> implements Spliterator<ResolvedEvent> {
         }
     }
 
+    /**
+     * Reads the same events as this spliterator, but fetches subsequent pages in the background while
+     * earlier ones are being consumed.
+     */
+    PrefetchingEventSpliterator<T> prefetching(PrefetchPolicy prefetchPolicy) {
+        return new PrefetchingEventSpliterator<>(prefetchPolicy, locationPointer, this::fetchPage, locationPointerExtractor);
+    }
+
+    private List<ResolvedEvent> fetchPage(T pageLocationPointer) {
+        int pageSize = pageSizer.nextPageSize();
+        Timer.Context c = timers.timePageFetch();
+        List<ResolvedEvent> list = new ArrayList<>();
+        try (Connection connection = connectionProvider.getConnection();
+             PreparedStatement statement = prepareStreamingStatement(connection, sql, timers);
+             ResultSet resultSet = executeQuery(statement, statementParameters, pageLocationPointer, pageSize, timers)
+        ) {
+            while (resultSet.next()) {
+                list.add(resolvedEventFrom(resultSet));
+            }
+        } catch (SQLException e) {
+            c.stop();
+            throw new RuntimeException(e);
+        }
+
+        pageSizer.pageFetched(pageSize, list.size(), payloadBytesOf(list), c.stop());
+        return list;
+    }
+
     @Override
     public Spliterator<ResolvedEvent> trySplit() {
         return null;
@@ -171,9 +404,48 @@ class EventSpliterator<T> implements Spliterator<ResolvedEvent> {
         return ORDERED | NONNULL | DISTINCT;
     }
 
-    private static Statement streamingStatementFrom(Connection connection) throws SQLException {
-        Statement statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
-        statement.setFetchSize(MIN_VALUE);
-        return statement;
+    static ResolvedEvent resolvedEventFrom(ResultSet resultSet) throws SQLException {
+        return new ResolvedEvent(
+                new BasicMysqlEventStorePosition(resultSet.getLong("position")),
+                eventRecord(
+                        resultSet.getTimestamp("timestamp").toInstant(),
+                        StreamId.streamId(resultSet.getString("stream_category"), resultSet.getString("stream_id")),
+                        resultSet.getLong("event_number"),
+                        resultSet.getString("event_type"),
+                        resultSet.getBytes("data"),
+                        resultSet.getBytes("metadata")
+                ));
+    }
+
+    static long payloadBytesOf(List<ResolvedEvent> page) {
+        long bytes = 0;
+        for (ResolvedEvent event : page) {
+            bytes += event.eventRecord().data().length + event.eventRecord().metadata().length;
+        }
+        return bytes;
+    }
+
+    /**
+     * Prepares a forward-only statement whose results are streamed from the server rather than buffered.
+     * The statement is looked up in the connection's prepared statement cache when that is enabled.
+     */
+    static PreparedStatement prepareStreamingStatement(Connection connection, String sql, QueryTimers timers) throws SQLException {
+        try (Timer.Context c = timers.timePrepare()) {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(MIN_VALUE);
+            return statement;
+        }
+    }
+
+    static <T> ResultSet executeQuery(PreparedStatement statement, StatementParameters<T> statementParameters, T location, int limit, QueryTimers timers) throws SQLException {
+        try (Timer.Context c = timers.timeExecute()) {
+            statementParameters.bind(statement, location, limit);
+            return statement.executeQuery();
+        }
+    }
+
+    @FunctionalInterface
+    interface StatementParameters<T> {
+        void bind(PreparedStatement statement, T location, int limit) throws SQLException;
     }
 }
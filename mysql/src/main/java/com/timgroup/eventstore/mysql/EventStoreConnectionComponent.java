@@ -1,7 +1,7 @@
 package com.timgroup.eventstore.mysql;
 
+import com.timgroup.eventstore.api.EventHeader;
 import com.timgroup.eventstore.api.EventSource;
-import com.timgroup.eventstore.api.ResolvedEvent;
 import com.timgroup.tucker.info.Component;
 import com.timgroup.tucker.info.Report;
 import com.timgroup.tucker.info.Status;
@@ -25,7 +25,7 @@ public final class EventStoreConnectionComponent extends Component {
     public Report getReport() {
         try {
             long before = System.currentTimeMillis();
-            Optional<ResolvedEvent> maybeLastEvent = eventSource.readAll().readLastEvent();
+            Optional<EventHeader> maybeLastEvent = eventSource.readAll().readLastEventHeader();
             long after = System.currentTimeMillis();
             String durationText = (after - before) + "ms";
 
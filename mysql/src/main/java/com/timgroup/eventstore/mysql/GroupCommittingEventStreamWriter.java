@@ -0,0 +1,264 @@
+package com.timgroup.eventstore.mysql;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.timgroup.eventstore.api.EventStreamWriter;
+import com.timgroup.eventstore.api.NewEvent;
+import com.timgroup.eventstore.api.StreamId;
+import com.timgroup.eventstore.api.WrongExpectedVersionException;
+
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.singletonList;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Coalesces writes made concurrently by several threads into single transactions of the underlying writer.
+ *
+ * A batch is opened by the first queued write, and is executed once it has been open for {@code maxDelay} or
+ * holds {@code maxEventsPerBatch} events. A write to a stream that is already part of the open batch waits for
+ * the next one. Each caller blocks until its batch has been committed, and only fails with a
+ * {@link WrongExpectedVersionException} for the streams it wrote to itself.
+ */
+@ParametersAreNonnullByDefault
+public final class GroupCommittingEventStreamWriter implements EventStreamWriter, AutoCloseable {
+    private final BatchExecutor underlying;
+    private final String name;
+    private final long maxDelayNanos;
+    private final int maxEventsPerBatch;
+    private final Optional<Histogram> batchSizeHistogram;
+    private final Optional<Timer> queueWaitTimer;
+    private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+    private final ExecutorService executor;
+    private volatile boolean closed = false;
+
+    GroupCommittingEventStreamWriter(BatchExecutor underlying, String name, Duration maxDelay, int maxEventsPerBatch, Optional<Histogram> batchSizeHistogram, Optional<Timer> queueWaitTimer) {
+        if (maxDelay.isNegative()) {
+            throw new IllegalArgumentException("maxDelay must not be negative. Got " + maxDelay);
+        }
+        if (maxEventsPerBatch <= 0) {
+            throw new IllegalArgumentException("maxEventsPerBatch must be positive. Got " + maxEventsPerBatch);
+        }
+        this.underlying = requireNonNull(underlying);
+        this.name = requireNonNull(name);
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.maxEventsPerBatch = maxEventsPerBatch;
+        this.batchSizeHistogram = requireNonNull(batchSizeHistogram);
+        this.queueWaitTimer = requireNonNull(queueWaitTimer);
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "GroupCommit-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.execute(this::commitBatches);
+    }
+
+    public static GroupCommittingEventStreamWriter groupCommitting(BasicMysqlEventStreamWriter underlying, Duration maxDelay, int maxEventsPerBatch, @Nullable MetricRegistry metricRegistry) {
+        return new GroupCommittingEventStreamWriter(
+                underlying::executeReportingFailures,
+                underlying.tableName,
+                maxDelay,
+                maxEventsPerBatch,
+                Optional.ofNullable(metricRegistry).map(r -> r.histogram(String.format("database.%s.%s.group_commit.batch_size", underlying.databaseName, underlying.tableName))),
+                Optional.ofNullable(metricRegistry).map(r -> r.timer(String.format("database.%s.%s.group_commit.queue_wait", underlying.databaseName, underlying.tableName))));
+    }
+
+    @Override
+    public void write(StreamId streamId, Collection<NewEvent> events) {
+        execute(singletonList(new StreamWriteRequest(streamId, events, OptionalLong.empty())));
+    }
+
+    @Override
+    public void write(StreamId streamId, Collection<NewEvent> events, long expectedVersion) {
+        execute(singletonList(new StreamWriteRequest(streamId, events, OptionalLong.of(expectedVersion))));
+    }
+
+    @Override
+    public void execute(Collection<StreamWriteRequest> writeRequests) {
+        if (writeRequests.stream().allMatch(r -> r.events.isEmpty())) {
+            return;
+        }
+
+        writeRequests.stream().collect(toMap(r -> r.streamId, r -> r, (r1, r2) -> {
+            throw new RuntimeException("Duplicate streamId in write request: " + r1.streamId);
+        }));
+
+        if (closed) {
+            throw new IllegalStateException("Writer is closed: " + this);
+        }
+        PendingWrite pendingWrite = new PendingWrite(new ArrayList<>(writeRequests));
+        queue.add(pendingWrite);
+        if (closed && queue.remove(pendingWrite)) {
+            throw new IllegalStateException("Writer is closed: " + this);
+        }
+
+        Map<StreamId, String> failures = pendingWrite.await();
+
+        if (!failures.isEmpty()) {
+            throw new WrongExpectedVersionException(failures.values().stream().collect(joining(",")));
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        failAll(new ArrayList<>(queue));
+    }
+
+    @Override
+    public String toString() {
+        return "GroupCommittingEventStreamWriter{" +
+                "name='" + name + '\'' +
+                ", maxDelay=" + Duration.ofNanos(maxDelayNanos) +
+                ", maxEventsPerBatch=" + maxEventsPerBatch +
+                '}';
+    }
+
+    private void commitBatches() {
+        List<PendingWrite> deferred = new ArrayList<>();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Batch batch = new Batch();
+
+                Iterator<PendingWrite> deferredWrites = deferred.iterator();
+                deferred = new ArrayList<>();
+                while (deferredWrites.hasNext()) {
+                    batch.offer(deferredWrites.next(), deferred);
+                }
+
+                if (batch.writes.isEmpty()) {
+                    batch.offer(queue.take(), deferred);
+                }
+
+                long deadline = batch.writes.get(0).enqueuedAt + maxDelayNanos;
+                while (batch.eventCount < maxEventsPerBatch) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingWrite next = remaining > 0 ? queue.poll(remaining, NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.offer(next, deferred);
+                }
+
+                commit(batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        failAll(deferred);
+    }
+
+    private void commit(Batch batch) {
+        batchSizeHistogram.ifPresent(h -> h.update(batch.eventCount));
+        long startTime = System.nanoTime();
+        queueWaitTimer.ifPresent(t -> batch.writes.forEach(w -> t.update(startTime - w.enqueuedAt, NANOSECONDS)));
+
+        List<StreamWriteRequest> writeRequests = new ArrayList<>();
+        batch.writes.forEach(w -> writeRequests.addAll(w.writeRequests));
+
+        Map<StreamId, String> failures;
+        try {
+            failures = underlying.execute(writeRequests);
+        } catch (RuntimeException e) {
+            batch.writes.forEach(w -> w.result.completeExceptionally(e));
+            return;
+        }
+
+        for (PendingWrite write : batch.writes) {
+            Map<StreamId, String> ownFailures = new LinkedHashMap<>();
+            for (StreamWriteRequest request : write.writeRequests) {
+                if (failures.containsKey(request.streamId)) {
+                    ownFailures.put(request.streamId, failures.get(request.streamId));
+                }
+            }
+            write.result.complete(ownFailures);
+        }
+    }
+
+    private void failAll(Collection<PendingWrite> writes) {
+        IllegalStateException exception = new IllegalStateException("Writer was closed before write was committed: " + this);
+        writes.forEach(w -> w.result.completeExceptionally(exception));
+    }
+
+    @FunctionalInterface
+    interface BatchExecutor {
+        Map<StreamId, String> execute(Collection<StreamWriteRequest> writeRequests);
+    }
+
+    private final class Batch {
+        private final List<PendingWrite> writes = new ArrayList<>();
+        private final Set<StreamId> blockedStreams = new HashSet<>();
+        private int eventCount = 0;
+
+        /**
+         * Adds the write to this batch, or defers it to the next one if it would overfill this batch or touches
+         * a stream already in this batch or in an earlier deferred write.
+         */
+        void offer(PendingWrite write, List<PendingWrite> deferred) {
+            boolean fits = writes.isEmpty() || eventCount + write.eventCount <= maxEventsPerBatch;
+            boolean conflicts = write.writeRequests.stream().anyMatch(r -> blockedStreams.contains(r.streamId));
+            write.writeRequests.forEach(r -> blockedStreams.add(r.streamId));
+            if (fits && !conflicts) {
+                writes.add(write);
+                eventCount += write.eventCount;
+            } else {
+                deferred.add(write);
+            }
+        }
+    }
+
+    private static final class PendingWrite {
+        private final List<StreamWriteRequest> writeRequests;
+        private final int eventCount;
+        private final long enqueuedAt = System.nanoTime();
+        private final CompletableFuture<Map<StreamId, String>> result = new CompletableFuture<>();
+
+        private PendingWrite(List<StreamWriteRequest> writeRequests) {
+            this.writeRequests = writeRequests;
+            this.eventCount = writeRequests.stream().mapToInt(r -> r.events.size()).sum();
+        }
+
+        Map<StreamId, String> await() {
+            try {
+                return result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new RuntimeException(e.getCause());
+            }
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.timgroup.eventstore.mysql;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Decorates a {@link ConnectionProvider} to time, separately for each operation:
+ * <ul>
+ *     <li>waiting for a connection ({@code acquire_time}), which is mostly waiting on the pool</li>
+ *     <li>executing statements, up to the first row of a query being available ({@code execute_time})</li>
+ *     <li>iterating over result sets, from the first row being asked for to the set being closed
+ *     ({@code iterate_time})</li>
+ *     <li>holding the connection, from acquiring it to closing it ({@code held_time})</li>
+ * </ul>
+ * Connections held for longer than {@code heldTooLong}, as streaming reads that are consumed slowly can do, are
+ * marked on {@code held_too_long} and logged, once each. Open connections are checked every half of
+ * {@code heldTooLong}, so that one that is never closed is still reported; {@link #close()} stops the checks.
+ *
+ * {@link BasicMysqlEventSource} asks for connections {@link #forOperation for each operation} it performs;
+ * {@link #getConnection()} counts as operation {@code other}.
+ */
+@ParametersAreNonnullByDefault
+public final class InstrumentedConnectionProvider implements ConnectionProvider, AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(InstrumentedConnectionProvider.class);
+    private static final long MIN_CHECK_INTERVAL_NANOS = MILLISECONDS.toNanos(10);
+    private static final ScheduledExecutorService HELD_CONNECTION_CHECKER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "InstrumentedConnectionProvider-held-connection-checker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ConnectionProvider delegate;
+    private final String name;
+    private final MetricRegistry metricRegistry;
+    private final long heldTooLongNanos;
+    private final ConcurrentMap<String, OperationConnectionProvider> operations = new ConcurrentHashMap<>();
+    private final Set<OperationConnectionProvider.ConnectionHandler> openConnections = ConcurrentHashMap.newKeySet();
+    private ScheduledFuture<?> checking = null;
+
+    private InstrumentedConnectionProvider(ConnectionProvider delegate, String name, MetricRegistry metricRegistry, Duration heldTooLong) {
+        this.delegate = requireNonNull(delegate);
+        this.name = requireNonNull(name);
+        this.metricRegistry = requireNonNull(metricRegistry);
+        this.heldTooLongNanos = heldTooLong.toNanos();
+    }
+
+    public static InstrumentedConnectionProvider instrumentedConnectionProvider(ConnectionProvider delegate, String name, MetricRegistry metricRegistry, Duration heldTooLong) {
+        InstrumentedConnectionProvider provider = new InstrumentedConnectionProvider(delegate, name, metricRegistry, heldTooLong);
+        long checkInterval = Math.max(provider.heldTooLongNanos / 2, MIN_CHECK_INTERVAL_NANOS);
+        provider.checking = HELD_CONNECTION_CHECKER.scheduleWithFixedDelay(provider::checkOpenConnections, checkInterval, checkInterval, NANOSECONDS);
+        return provider;
+    }
+
+    @Nonnull
+    @Override
+    public Connection getConnection() throws SQLException {
+        return forOperation("other").getConnection();
+    }
+
+    /**
+     * @return a provider of connections whose use is timed as {@code operation}
+     */
+    public ConnectionProvider forOperation(String operation) {
+        return operations.computeIfAbsent(operation, OperationConnectionProvider::new);
+    }
+
+    /**
+     * @return connections for {@code operation} if {@code connectionProvider} is instrumented, otherwise
+     *         {@code connectionProvider} itself
+     */
+    static ConnectionProvider forOperation(ConnectionProvider connectionProvider, String operation) {
+        if (connectionProvider instanceof InstrumentedConnectionProvider) {
+            return ((InstrumentedConnectionProvider) connectionProvider).forOperation(operation);
+        }
+        return connectionProvider;
+    }
+
+    @Override
+    public void close() {
+        checking.cancel(false);
+    }
+
+    private void checkOpenConnections() {
+        long now = System.nanoTime();
+        for (OperationConnectionProvider.ConnectionHandler connection : openConnections) {
+            try {
+                connection.checkHeldAt(now);
+            } catch (RuntimeException e) {
+                LOG.warn("Failed to check how long a connection on " + name + " has been held", e);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "InstrumentedConnectionProvider{" +
+                "delegate=" + delegate +
+                ", name='" + name + '\'' +
+                ", heldTooLong=" + Duration.ofNanos(heldTooLongNanos) +
+                '}';
+    }
+
+    private final class OperationConnectionProvider implements ConnectionProvider {
+        private final String operation;
+        private final Timer acquireTimer;
+        private final Timer executeTimer;
+        private final Timer iterateTimer;
+        private final Timer heldTimer;
+        private final Meter heldTooLong;
+
+        private OperationConnectionProvider(String operation) {
+            this.operation = operation;
+            this.acquireTimer = metricRegistry.timer(metricName("acquire_time"));
+            this.executeTimer = metricRegistry.timer(metricName("execute_time"));
+            this.iterateTimer = metricRegistry.timer(metricName("iterate_time"));
+            this.heldTimer = metricRegistry.timer(metricName("held_time"));
+            this.heldTooLong = metricRegistry.meter(metricName("held_too_long"));
+        }
+
+        private String metricName(String metric) {
+            return format("database.%s.connections.%s.%s", name, operation, metric);
+        }
+
+        @Nonnull
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection;
+            try (Timer.Context ignored = acquireTimer.time()) {
+                connection = delegate.getConnection();
+            }
+            ConnectionHandler handler = new ConnectionHandler(connection);
+            openConnections.add(handler);
+            return proxy(Connection.class, handler);
+        }
+
+        @Override
+        public String toString() {
+            return InstrumentedConnectionProvider.this + "[" + operation + "]";
+        }
+
+        private final class ConnectionHandler implements InvocationHandler {
+            private final Connection connection;
+            private final long acquiredAt = System.nanoTime();
+            private final String acquiredBy = Thread.currentThread().getName();
+            private final AtomicBoolean reported = new AtomicBoolean(false);
+            private boolean closed = false;
+
+            private ConnectionHandler(Connection connection) {
+                this.connection = connection;
+            }
+
+            void checkHeldAt(long now) {
+                long heldNanos = now - acquiredAt;
+                if (heldNanos > heldTooLongNanos && reported.compareAndSet(false, true)) {
+                    heldTooLong.mark();
+                    LOG.warn(format("Connection for %s on %s still held after %s by %s", operation, name, Duration.ofNanos(heldNanos), acquiredBy));
+                }
+            }
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (method.getName().equals("close") && !closed) {
+                    closed = true;
+                    openConnections.remove(this);
+                    long heldNanos = System.nanoTime() - acquiredAt;
+                    heldTimer.update(heldNanos, NANOSECONDS);
+                    if (heldNanos > heldTooLongNanos && reported.compareAndSet(false, true)) {
+                        heldTooLong.mark();
+                        LOG.warn(format("Connection for %s on %s held for %s by %s", operation, name, Duration.ofNanos(heldNanos), Thread.currentThread().getName()));
+                    }
+                }
+                Object result = invokeOn(connection, method, args);
+                if (result instanceof Statement) {
+                    return proxy(method.getReturnType(), new StatementHandler((Statement) result));
+                }
+                return result;
+            }
+        }
+
+        private final class StatementHandler implements InvocationHandler {
+            private final Statement statement;
+
+            private StatementHandler(Statement statement) {
+                this.statement = statement;
+            }
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                Object result;
+                if (method.getName().startsWith("execute")) {
+                    try (Timer.Context ignored = executeTimer.time()) {
+                        result = invokeOn(statement, method, args);
+                    }
+                } else {
+                    result = invokeOn(statement, method, args);
+                }
+                if (result instanceof ResultSet) {
+                    return proxy(ResultSet.class, new ResultSetHandler((ResultSet) result));
+                }
+                return result;
+            }
+        }
+
+        private final class ResultSetHandler implements InvocationHandler {
+            private final ResultSet resultSet;
+            private long firstNextAt = -1;
+
+            private ResultSetHandler(ResultSet resultSet) {
+                this.resultSet = resultSet;
+            }
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (method.getName().equals("next") && firstNextAt < 0) {
+                    firstNextAt = System.nanoTime();
+                } else if (method.getName().equals("close") && firstNextAt >= 0) {
+                    iterateTimer.update(System.nanoTime() - firstNextAt, NANOSECONDS);
+                    firstNextAt = -1;
+                }
+                return invokeOn(resultSet, method, args);
+            }
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(InstrumentedConnectionProvider.class.getClassLoader(), new Class<?>[] { type }, handler));
+    }
+
+    private static Object invokeOn(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
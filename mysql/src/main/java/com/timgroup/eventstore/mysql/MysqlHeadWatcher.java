@@ -0,0 +1,132 @@
+package com.timgroup.eventstore.mysql;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.timgroup.eventstore.api.HeadWatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Polls the highest position in an event table, and wakes registered listeners when it advances.
+ *
+ * One watcher per table lets any number of subscriptions share a single cheap query, instead of each of them
+ * reading a page of events to find out that there is nothing new. The watcher only polls while it has listeners.
+ */
+@ParametersAreNonnullByDefault
+public final class MysqlHeadWatcher implements HeadWatcher, AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(MysqlHeadWatcher.class);
+
+    private final ConnectionProvider connectionProvider;
+    private final String tableName;
+    private final Duration pollInterval;
+    private final Set<Runnable> listeners = new CopyOnWriteArraySet<>();
+    private final ScheduledExecutorService executor;
+    private final Optional<Timer> pollTimer;
+    private final Optional<Meter> advances;
+
+    private ScheduledFuture<?> polling = null;
+    private volatile long head = Long.MIN_VALUE;
+
+    public MysqlHeadWatcher(ConnectionProvider connectionProvider, String databaseName, String tableName, Duration pollInterval, @Nullable MetricRegistry metricRegistry) {
+        this.connectionProvider = requireNonNull(connectionProvider);
+        this.tableName = requireNonNull(tableName);
+        this.pollInterval = requireNonNull(pollInterval);
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "MysqlHeadWatcher-" + tableName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pollTimer = Optional.ofNullable(metricRegistry).map(r -> r.timer(format("database.%s.%s.head_watcher.poll.time", databaseName, tableName)));
+        this.advances = Optional.ofNullable(metricRegistry).map(r -> r.meter(format("database.%s.%s.head_watcher.advances", databaseName, tableName)));
+    }
+
+    @Nonnull
+    @Override
+    public synchronized Registration register(Runnable listener) {
+        requireNonNull(listener);
+        listeners.add(listener);
+        if (polling == null) {
+            polling = executor.scheduleWithFixedDelay(this::poll, 0, pollInterval.toMillis(), MILLISECONDS);
+        }
+        return () -> unregister(listener);
+    }
+
+    private synchronized void unregister(Runnable listener) {
+        listeners.remove(listener);
+        if (listeners.isEmpty() && polling != null) {
+            polling.cancel(false);
+            polling = null;
+        }
+    }
+
+    Duration pollInterval() {
+        return pollInterval;
+    }
+
+    @Override
+    public synchronized void close() {
+        listeners.clear();
+        executor.shutdownNow();
+    }
+
+    private void poll() {
+        long latest;
+        try {
+            latest = readHead();
+        } catch (SQLException | RuntimeException e) {
+            LOG.warn("Failed to read head of " + tableName, e);
+            return;
+        }
+        if (latest == head) {
+            return;
+        }
+        head = latest;
+        advances.ifPresent(Meter::mark);
+        for (Runnable listener : listeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                LOG.warn("Head watcher listener failed", e);
+            }
+        }
+    }
+
+    private long readHead() throws SQLException {
+        try (Timer.Context ignored = pollTimer.map(Timer::time).orElseGet(() -> new Timer().time());
+             Connection connection = connectionProvider.getConnection();
+             PreparedStatement statement = connection.prepareStatement(format("select max(position) from %s", tableName));
+             ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            long position = resultSet.getLong(1);
+            return resultSet.wasNull() ? BasicMysqlEventStorePosition.EMPTY_STORE_POSITION.value : position;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "MysqlHeadWatcher{" +
+                "tableName='" + tableName + '\'' +
+                ", pollInterval=" + pollInterval +
+                '}';
+    }
+}
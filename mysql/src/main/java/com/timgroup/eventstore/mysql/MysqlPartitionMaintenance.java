@@ -0,0 +1,253 @@
+package com.timgroup.eventstore.mysql;
+
+import com.timgroup.eventstore.api.EventReader;
+import com.timgroup.eventstore.api.EventSource;
+import com.timgroup.eventstore.api.ResolvedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static com.timgroup.eventstore.mysql.EventSpliterator.EVENT_COLUMNS;
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Maintains a table created by {@link BasicMysqlEventStoreSetup#createPartitioned(long, int)}: adds empty
+ * partitions ahead of the writers, and moves the oldest partitions out to files in an archive directory, which
+ * {@link #readingArchive(EventSource)} reads in front of the table.
+ *
+ * Writers only look at the table for the current version of a stream, so only partitions holding streams that
+ * will not be written to again should be archived.
+ */
+@ParametersAreNonnullByDefault
+public final class MysqlPartitionMaintenance {
+    static final String CATCH_ALL_PARTITION = "pmax";
+    static final String CATCH_ALL_PARTITION_DEFINITION = "partition " + CATCH_ALL_PARTITION + " values less than maxvalue";
+
+    private static final Logger LOG = LoggerFactory.getLogger(MysqlPartitionMaintenance.class);
+
+    private final ConnectionProvider connectionProvider;
+    private final String tableName;
+    private final long partitionSize;
+    private final PartitionArchive archive;
+
+    public MysqlPartitionMaintenance(ConnectionProvider connectionProvider, String tableName, long partitionSize, Path archiveDirectory) {
+        if (partitionSize < 1) {
+            throw new IllegalArgumentException("Partition size must be positive: " + partitionSize);
+        }
+        this.connectionProvider = requireNonNull(connectionProvider);
+        this.tableName = requireNonNull(tableName);
+        this.partitionSize = partitionSize;
+        this.archive = new PartitionArchive(requireNonNull(archiveDirectory), tableName);
+    }
+
+    /**
+     * @return the upper bounds of the table's partitions in order, not counting the catch-all partition
+     */
+    public List<Long> partitionUpperBounds() {
+        try (Connection connection = connectionProvider.getConnection()) {
+            return partitionUpperBounds(connection);
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Splits partitions off the bottom of the catch-all partition until there are at least {@code count} of them
+     * above the highest position in the table. The catch-all partition should be empty by then, which makes this
+     * quick.
+     */
+    public void ensurePartitionsAhead(int count) {
+        try (Connection connection = connectionProvider.getConnection()) {
+            List<Long> upperBounds = partitionUpperBounds(connection);
+            long head = head(connection);
+            long ahead = upperBounds.stream().filter(upperBound -> upperBound > head).count();
+            if (ahead >= count) {
+                return;
+            }
+
+            long upperBound = upperBounds.isEmpty() ? 0 : upperBounds.get(upperBounds.size() - 1);
+            StringBuilder partitions = new StringBuilder();
+            for (long i = ahead; i < count; i++) {
+                upperBound += partitionSize;
+                partitions.append(partitionDefinition(upperBound)).append(", ");
+            }
+            partitions.append(CATCH_ALL_PARTITION_DEFINITION);
+
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate(format("alter table %s reorganize partition %s into (%s)", tableName, CATCH_ALL_PARTITION, partitions));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Archives and then drops, oldest first, each partition whose positions are all below {@code position}.
+     * Partitions are only archived once every position in them has been allocated by the table's sequence row, and
+     * the writers given those positions have finished, so that they cannot be written to again.
+     *
+     * @return the number of partitions archived
+     */
+    public int archivePartitionsBelow(long position) {
+        int archived = 0;
+        try (Connection connection = connectionProvider.getConnection()) {
+            long allocated = allocatedHead(connection);
+            for (long upperBound : partitionUpperBounds(connection)) {
+                if (upperBound > position || upperBound - 1 > allocated) {
+                    break;
+                }
+                archivePartition(connection, upperBound);
+                archived++;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+        return archived;
+    }
+
+    /**
+     * @return a reader of the archived events followed by the events still in the table, read by {@code live}
+     */
+    public EventReader readingArchive(EventReader live) {
+        return new ArchiveStitchingEventReader(archive, live);
+    }
+
+    /**
+     * @return an event source whose reads of all events, categories and streams take in the archived events as
+     *         well as those still in the table, read and written by {@code live}
+     */
+    public EventSource readingArchive(EventSource live) {
+        return new ArchiveStitchingEventSource(archive, live);
+    }
+
+    static String partitionDefinition(long upperBound) {
+        return format("partition %s values less than (%d)", partitionName(upperBound), upperBound);
+    }
+
+    private void archivePartition(Connection connection, long upperBound) throws SQLException {
+        String partitionName = partitionName(upperBound);
+        long archived;
+        try (PreparedStatement statement = EventSpliterator.prepareStreamingStatement(connection, format("select %s from %s partition (%s) order by position", EVENT_COLUMNS, tableName, partitionName), QueryTimers.queryTimers(null, "", tableName, "archive"));
+             ResultSet resultSet = statement.executeQuery()) {
+            archived = archive.write(partitionName, upperBound, new ResultSetIterator(resultSet));
+        }
+
+        long expected;
+        try (PreparedStatement statement = connection.prepareStatement(format("select count(*) from %s partition (%s)", tableName, partitionName));
+             ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            expected = resultSet.getLong(1);
+        }
+        if (archived != expected) {
+            throw new IllegalStateException(format("Archived %d events from %s partition %s, which holds %d", archived, tableName, partitionName, expected));
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate(format("alter table %s drop partition %s", tableName, partitionName));
+        }
+        LOG.info(format("Archived %d events from %s partition %s", archived, tableName, partitionName));
+    }
+
+    private List<Long> partitionUpperBounds(Connection connection) throws SQLException {
+        List<Long> upperBounds = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "select partition_description from information_schema.partitions " +
+                "where table_schema = database() and table_name = ? and partition_name is not null and partition_description <> 'MAXVALUE' " +
+                "order by partition_ordinal_position")) {
+            statement.setString(1, tableName);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    upperBounds.add(Long.parseLong(resultSet.getString(1)));
+                }
+            }
+        }
+        return upperBounds;
+    }
+
+    /**
+     * Locks the sequence row, which waits for any writer holding it to finish, and reads the highest position it
+     * has allocated. Writers that take it afterwards are given higher positions.
+     */
+    private long allocatedHead(Connection connection) throws SQLException {
+        String sequenceTableName = BasicMysqlEventStoreSetup.positionSequenceTableName(tableName);
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (PreparedStatement statement = connection.prepareStatement(format("select position from %s where id = 0 for update", sequenceTableName));
+             ResultSet resultSet = statement.executeQuery()) {
+            if (!resultSet.next()) {
+                throw new IllegalStateException("No position sequence row in " + sequenceTableName);
+            }
+            return resultSet.getLong(1);
+        } finally {
+            connection.rollback();
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private long head(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(format("select coalesce(max(position), 0) from %s", tableName));
+             ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private static String partitionName(long upperBound) {
+        return "p" + upperBound;
+    }
+
+    @Override
+    public String toString() {
+        return "MysqlPartitionMaintenance{" +
+                "tableName='" + tableName + '\'' +
+                ", partitionSize=" + partitionSize +
+                ", archive=" + archive +
+                '}';
+    }
+
+    private static final class ResultSetIterator implements Iterator<ResolvedEvent> {
+        private final ResultSet resultSet;
+        private Boolean hasNext = null;
+
+        private ResultSetIterator(ResultSet resultSet) {
+            this.resultSet = resultSet;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (hasNext == null) {
+                try {
+                    hasNext = resultSet.next();
+                } catch (SQLException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+            return hasNext;
+        }
+
+        @Override
+        public ResolvedEvent next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            hasNext = null;
+            try {
+                return EventSpliterator.resolvedEventFrom(resultSet);
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
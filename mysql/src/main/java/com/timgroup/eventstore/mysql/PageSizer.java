@@ -0,0 +1,30 @@
+package com.timgroup.eventstore.mysql;
+
+/**
+ * Chooses the row limit for each page of a paged read, optionally learning from how previous pages went.
+ */
+interface PageSizer {
+    int nextPageSize();
+
+    void pageFetched(int pageSize, int rowsFetched, long payloadBytes, long elapsedNanos);
+
+    static PageSizer fixedPageSize(int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be positive. Got " + pageSize);
+        }
+        return new PageSizer() {
+            @Override
+            public int nextPageSize() {
+                return pageSize;
+            }
+
+            @Override
+            public void pageFetched(int requestedPageSize, int rowsFetched, long payloadBytes, long elapsedNanos) { }
+
+            @Override
+            public String toString() {
+                return "fixedPageSize(" + pageSize + ")";
+            }
+        };
+    }
+}
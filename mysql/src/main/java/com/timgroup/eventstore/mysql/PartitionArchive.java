@@ -0,0 +1,318 @@
+package com.timgroup.eventstore.mysql;
+
+import com.timgroup.eventstore.api.ResolvedEvent;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static com.timgroup.eventstore.api.EventRecord.eventRecord;
+import static com.timgroup.eventstore.api.StreamId.streamId;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Comparator.comparingLong;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.StreamSupport.stream;
+
+/**
+ * The archived partitions of a table: one gzipped file per partition, named after the table and the partition's
+ * upper bound, holding the partition's events in position order.
+ */
+final class PartitionArchive {
+    private static final int MAGIC = 0x45565441;
+    private static final int FORMAT_VERSION = 1;
+    private static final String SUFFIX = ".events.gz";
+    private static final long MODIFICATION_TIME_RESOLUTION_MILLIS = 2000;
+
+    private final Path directory;
+    private final String tableName;
+    private final Pattern filenamePattern;
+    private volatile CachedUpperBound cachedUpperBound = null;
+
+    PartitionArchive(Path directory, String tableName) {
+        this.directory = directory;
+        this.tableName = tableName;
+        this.filenamePattern = Pattern.compile(Pattern.quote(tableName + ".p") + "(\\d+)" + Pattern.quote(SUFFIX));
+    }
+
+    /**
+     * Archive files are moved into place, which changes the directory's modification time, so the directory is
+     * only listed again once that changes. A listing taken soon after the modification time is not reused, in case
+     * the file system records modification times coarsely.
+     *
+     * @return the upper bound of the highest archived partition, below which all positions are archived, or zero
+     *         if nothing has been archived
+     */
+    long upperBound() {
+        FileTime modified;
+        try {
+            modified = Files.getLastModifiedTime(directory);
+        } catch (NoSuchFileException e) {
+            return 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read modification time of " + directory, e);
+        }
+        CachedUpperBound cached = cachedUpperBound;
+        if (cached != null && cached.modified.equals(modified)) {
+            return cached.upperBound;
+        }
+        long listedAt = System.currentTimeMillis();
+        List<ArchiveFile> files = files();
+        long upperBound = files.isEmpty() ? 0 : files.get(files.size() - 1).upperBound;
+        if (listedAt - modified.toMillis() > MODIFICATION_TIME_RESOLUTION_MILLIS) {
+            cachedUpperBound = new CachedUpperBound(modified, upperBound);
+        }
+        return upperBound;
+    }
+
+    Stream<ResolvedEvent> readForwards(long positionExclusive) {
+        List<ArchiveFile> files = files().stream().filter(file -> file.upperBound > positionExclusive + 1).collect(toList());
+        ForwardsIterator iterator = new ForwardsIterator(files.iterator(), positionExclusive);
+        return stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.DISTINCT), false)
+                .onClose(iterator::close);
+    }
+
+    /**
+     * Reads each archive file whole before returning its events in reverse.
+     */
+    Stream<ResolvedEvent> readBackwards(long positionExclusive) {
+        List<ArchiveFile> files = files();
+        Collections.reverse(files);
+        return files.stream()
+                .filter(file -> file.firstPossiblePosition < positionExclusive)
+                .flatMap(file -> {
+                    List<ResolvedEvent> events = file.readAll();
+                    Collections.reverse(events);
+                    return events.stream();
+                })
+                .filter(event -> ((BasicMysqlEventStorePosition) event.position()).value < positionExclusive);
+    }
+
+    /**
+     * Writes the partition's events to a temporary file, and moves it into place once complete.
+     *
+     * @return the number of events written
+     */
+    long write(String partitionName, long upperBound, Iterator<ResolvedEvent> events) {
+        Path target = directory.resolve(filename(upperBound));
+        Path temporary = directory.resolve(filename(upperBound) + ".tmp");
+        long count = 0;
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temporary))))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            while (events.hasNext()) {
+                writeEvent(out, events.next());
+                count++;
+            }
+            out.writeBoolean(false);
+            out.writeLong(count);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to archive " + tableName + " partition " + partitionName, e);
+        }
+        try {
+            Files.move(temporary, target, ATOMIC_MOVE, REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to move archive of " + tableName + " partition " + partitionName + " into place", e);
+        }
+        return count;
+    }
+
+    private static void writeEvent(DataOutputStream out, ResolvedEvent event) throws IOException {
+        out.writeBoolean(true);
+        out.writeLong(((BasicMysqlEventStorePosition) event.position()).value);
+        out.writeLong(event.eventRecord().timestamp().getEpochSecond());
+        out.writeInt(event.eventRecord().timestamp().getNano());
+        out.writeUTF(event.eventRecord().streamId().category());
+        out.writeUTF(event.eventRecord().streamId().id());
+        out.writeLong(event.eventRecord().eventNumber());
+        out.writeUTF(event.eventRecord().eventType());
+        out.writeInt(event.eventRecord().data().length);
+        out.write(event.eventRecord().data());
+        out.writeInt(event.eventRecord().metadata().length);
+        out.write(event.eventRecord().metadata());
+    }
+
+    private String filename(long upperBound) {
+        return tableName + ".p" + upperBound + SUFFIX;
+    }
+
+    private List<ArchiveFile> files() {
+        if (!Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        try (Stream<Path> paths = Files.list(directory)) {
+            List<ArchiveFile> files = new ArrayList<>();
+            paths.forEach(path -> {
+                Matcher matcher = filenamePattern.matcher(path.getFileName().toString());
+                if (matcher.matches()) {
+                    files.add(new ArchiveFile(path, Long.parseLong(matcher.group(1))));
+                }
+            });
+            files.sort(comparingLong(file -> file.upperBound));
+            for (int i = 1; i < files.size(); i++) {
+                files.get(i).firstPossiblePosition = files.get(i - 1).upperBound;
+            }
+            return files;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to list archive files in " + directory, e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PartitionArchive{" +
+                "directory=" + directory +
+                ", tableName='" + tableName + '\'' +
+                '}';
+    }
+
+    private static final class CachedUpperBound {
+        private final FileTime modified;
+        private final long upperBound;
+
+        private CachedUpperBound(FileTime modified, long upperBound) {
+            this.modified = modified;
+            this.upperBound = upperBound;
+        }
+    }
+
+    private static final class ArchiveFile {
+        private final Path path;
+        private final long upperBound;
+        private long firstPossiblePosition = Long.MIN_VALUE;
+
+        private ArchiveFile(Path path, long upperBound) {
+            this.path = path;
+            this.upperBound = upperBound;
+        }
+
+        DataInputStream open() {
+            try {
+                DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(path))));
+                if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                    in.close();
+                    throw new IllegalStateException("Not an event archive: " + path);
+                }
+                return in;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to open " + path, e);
+            }
+        }
+
+        List<ResolvedEvent> readAll() {
+            List<ResolvedEvent> events = new ArrayList<>();
+            try (DataInputStream in = open()) {
+                ResolvedEvent event;
+                while ((event = readEvent(in, path)) != null) {
+                    events.add(event);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to read " + path, e);
+            }
+            return events;
+        }
+    }
+
+    /**
+     * @return the next event, or null at the end of the file
+     */
+    private static ResolvedEvent readEvent(DataInputStream in, Path path) {
+        try {
+            if (!in.readBoolean()) {
+                in.readLong();
+                return null;
+            }
+            long position = in.readLong();
+            Instant timestamp = Instant.ofEpochSecond(in.readLong(), in.readInt());
+            String category = in.readUTF();
+            String id = in.readUTF();
+            long eventNumber = in.readLong();
+            String eventType = in.readUTF();
+            byte[] data = new byte[in.readInt()];
+            in.readFully(data);
+            byte[] metadata = new byte[in.readInt()];
+            in.readFully(metadata);
+            return eventRecord(timestamp, streamId(category, id), eventNumber, eventType, data, metadata).toResolvedEvent(new BasicMysqlEventStorePosition(position));
+        } catch (EOFException e) {
+            throw new IllegalStateException("Truncated event archive: " + path, e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read " + path, e);
+        }
+    }
+
+    private static final class ForwardsIterator implements Iterator<ResolvedEvent> {
+        private final Iterator<ArchiveFile> files;
+        private final long positionExclusive;
+        private ArchiveFile currentFile = null;
+        private DataInputStream current = null;
+        private ResolvedEvent next = null;
+
+        private ForwardsIterator(Iterator<ArchiveFile> files, long positionExclusive) {
+            this.files = files;
+            this.positionExclusive = positionExclusive;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                if (current == null) {
+                    if (!files.hasNext()) {
+                        return false;
+                    }
+                    currentFile = files.next();
+                    current = currentFile.open();
+                }
+                ResolvedEvent event = readEvent(current, currentFile.path);
+                if (event == null) {
+                    close();
+                } else if (((BasicMysqlEventStorePosition) event.position()).value > positionExclusive) {
+                    next = event;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public ResolvedEvent next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ResolvedEvent event = next;
+            next = null;
+            return event;
+        }
+
+        void close() {
+            if (current != null) {
+                try {
+                    current.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } finally {
+                    current = null;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.timgroup.eventstore.mysql;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static java.lang.String.format;
+
+/**
+ * Allocates the global positions of the events written by a {@link BasicMysqlEventStreamWriter}.
+ *
+ * An allocator is called inside the write transaction, and returns the position after which the {@code count}
+ * events being written are to be placed.
+ */
+@ParametersAreNonnullByDefault
+public interface PositionAllocator {
+    long allocate(Connection connection, String tableName, int count) throws SQLException;
+
+    /**
+     * Called inside the write transaction before the current versions of the streams being written are looked up.
+     */
+    default void beforeVersionLookup(Connection connection, String tableName) throws SQLException {
+    }
+
+    /**
+     * Places events after the highest position in the table. Concurrent writers may be given the same positions,
+     * in which case all but one of them fail on the primary key and have to retry.
+     */
+    static PositionAllocator selectMaxPosition() {
+        return new PositionAllocator() {
+            @Override
+            public long allocate(Connection connection, String tableName, int count) throws SQLException {
+                try (PreparedStatement statement = connection.prepareStatement(format("select max(position) as current_position from %s", tableName));
+                     ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getLong("current_position");
+                }
+            }
+
+            @Override
+            public String toString() {
+                return "selectMaxPosition";
+            }
+        };
+    }
+
+    /**
+     * Places events after the position held in the table's sequence row (see
+     * {@link BasicMysqlEventStoreSetup#createPositionSequence()}), advancing it by {@code count}.
+     *
+     * The sequence row stays locked until the write transaction ends, so concurrent writers queue for it instead
+     * of colliding, and positions become visible to readers in order. All writers to a table must use this
+     * allocator once any of them does.
+     */
+    static PositionAllocator sequenceRow() {
+        return new SequenceRowPositionAllocator(false);
+    }
+
+    /**
+     * Allocates like {@link #sequenceRow()}, but locks the sequence row before stream versions are looked up, so
+     * that writes to a table run one at a time from then on. This keeps event numbers unique in tables that have
+     * no unique key on them, such as partitioned tables.
+     */
+    static PositionAllocator serialisingSequenceRow() {
+        return new SequenceRowPositionAllocator(true);
+    }
+}
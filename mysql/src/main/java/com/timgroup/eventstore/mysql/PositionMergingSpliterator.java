@@ -0,0 +1,90 @@
+package com.timgroup.eventstore.mysql;
+
+import com.timgroup.eventstore.api.ResolvedEvent;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import static java.lang.Long.MAX_VALUE;
+
+/**
+ * Merges events read forwards by separate cursors over the same table, which must not overlap, into one sequence
+ * ordered by position, by keeping the next event of each cursor in a heap. Each cursor is only read from when
+ * its last event has been taken, so the work per event does not grow with the number of cursors.
+ *
+ * A cursor that has run out is not read again, so the cursors must all stop at the same position, one that was
+ * already written when they started; otherwise an event committed to an exhausted cursor's range after it ran out
+ * could sort before events the others go on to return, and be skipped.
+ */
+final class PositionMergingSpliterator implements Spliterator<ResolvedEvent> {
+    private static final Comparator<Head> BY_POSITION = Comparator.comparingLong(h -> h.position);
+
+    private final List<Spliterator<ResolvedEvent>> cursors;
+    private final PriorityQueue<Head> heads;
+    private boolean started = false;
+
+    PositionMergingSpliterator(List<Spliterator<ResolvedEvent>> cursors) {
+        this.cursors = cursors;
+        this.heads = new PriorityQueue<>(Math.max(1, cursors.size()), BY_POSITION);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super ResolvedEvent> consumer) {
+        if (!started) {
+            started = true;
+            for (Spliterator<ResolvedEvent> cursor : cursors) {
+                Head head = new Head(cursor);
+                if (head.advance()) {
+                    heads.add(head);
+                }
+            }
+        }
+
+        Head head = heads.poll();
+        if (head == null) {
+            return false;
+        }
+
+        ResolvedEvent event = head.event;
+        if (head.advance()) {
+            heads.add(head);
+        }
+        consumer.accept(event);
+        return true;
+    }
+
+    @Override
+    public Spliterator<ResolvedEvent> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | DISTINCT;
+    }
+
+    private static final class Head {
+        private final Spliterator<ResolvedEvent> cursor;
+        private ResolvedEvent event;
+        private long position;
+
+        private Head(Spliterator<ResolvedEvent> cursor) {
+            this.cursor = cursor;
+        }
+
+        boolean advance() {
+            return cursor.tryAdvance(next -> {
+                event = next;
+                position = ((BasicMysqlEventStorePosition) next.position()).value;
+            });
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.timgroup.eventstore.mysql;
+
+import java.util.concurrent.Executor;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Configures reading pages ahead of the consumer on a background executor.
+ *
+ * At most {@code maxPagesInFlight} fetched-but-unconsumed pages are held, and no further page is requested while
+ * the payloads of the held pages (including the one being consumed) add up to {@code maxBytesInFlight} or more.
+ */
+public final class PrefetchPolicy {
+    final Executor executor;
+    final int maxPagesInFlight;
+    final long maxBytesInFlight;
+
+    private PrefetchPolicy(Executor executor, int maxPagesInFlight, long maxBytesInFlight) {
+        this.executor = requireNonNull(executor);
+        if (maxPagesInFlight <= 0) {
+            throw new IllegalArgumentException("maxPagesInFlight must be positive. Got " + maxPagesInFlight);
+        }
+        if (maxBytesInFlight <= 0) {
+            throw new IllegalArgumentException("maxBytesInFlight must be positive. Got " + maxBytesInFlight);
+        }
+        this.maxPagesInFlight = maxPagesInFlight;
+        this.maxBytesInFlight = maxBytesInFlight;
+    }
+
+    public static PrefetchPolicy prefetchPolicy(Executor executor, int maxPagesInFlight, long maxBytesInFlight) {
+        return new PrefetchPolicy(executor, maxPagesInFlight, maxBytesInFlight);
+    }
+
+    @Override
+    public String toString() {
+        return "PrefetchPolicy{" +
+                "maxPagesInFlight=" + maxPagesInFlight +
+                ", maxBytesInFlight=" + maxBytesInFlight +
+                '}';
+    }
+}
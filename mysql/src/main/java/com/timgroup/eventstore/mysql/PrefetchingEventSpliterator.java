@@ -0,0 +1,176 @@
+package com.timgroup.eventstore.mysql;
+
+import com.timgroup.eventstore.api.ResolvedEvent;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static com.timgroup.eventstore.mysql.EventSpliterator.payloadBytesOf;
+import static java.lang.Long.MAX_VALUE;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads pages of events ahead of the consumer, so that the database round trip for the next page overlaps
+ * with processing of the current one.
+ *
+ * Pages are fetched one at a time on the {@link PrefetchPolicy}'s executor, each starting after the last event
+ * of the previous page. The first page is only requested when the first event is asked for.
+ */
+public final class PrefetchingEventSpliterator<T> implements Spliterator<ResolvedEvent>, AutoCloseable {
+    private final PrefetchPolicy policy;
+    private final Function<T, List<ResolvedEvent>> pageFetcher;
+    private final Function<ResolvedEvent, T> locationPointerExtractor;
+
+    private final Deque<List<ResolvedEvent>> fetchedPages = new ArrayDeque<>();
+    private T nextPageLocationPointer;
+    private long bytesInFlight = 0;
+    private boolean fetching = false;
+    private boolean lastPageFetched = false;
+    private boolean closed = false;
+    private RuntimeException failure;
+
+    private Iterator<ResolvedEvent> currentPage = Collections.emptyIterator();
+    private long currentPageBytes = 0;
+    private boolean streamExhausted = false;
+
+    public PrefetchingEventSpliterator(PrefetchPolicy policy,
+                                       T startingLocation,
+                                       Function<T, List<ResolvedEvent>> pageFetcher,
+                                       Function<ResolvedEvent, T> locationPointerExtractor)
+    {
+        this.policy = requireNonNull(policy);
+        this.nextPageLocationPointer = startingLocation;
+        this.pageFetcher = requireNonNull(pageFetcher);
+        this.locationPointerExtractor = requireNonNull(locationPointerExtractor);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super ResolvedEvent> action) {
+        if (!currentPage.hasNext() && !streamExhausted) {
+            List<ResolvedEvent> nextPage = takeNextPage();
+            if (nextPage == null) {
+                streamExhausted = true;
+            } else {
+                currentPage = nextPage.iterator();
+            }
+        }
+
+        if (currentPage.hasNext()) {
+            action.accept(currentPage.next());
+            return true;
+        } else {
+            streamExhausted = true;
+            return false;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        fetchedPages.clear();
+        bytesInFlight = 0;
+    }
+
+    @Override
+    public Spliterator<ResolvedEvent> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | DISTINCT;
+    }
+
+    private synchronized List<ResolvedEvent> takeNextPage() {
+        bytesInFlight -= currentPageBytes;
+        currentPageBytes = 0;
+
+        while (true) {
+            if (closed) {
+                throw new IllegalStateException("stream has been closed");
+            }
+            if (!fetchedPages.isEmpty()) {
+                List<ResolvedEvent> page = fetchedPages.removeFirst();
+                currentPageBytes = payloadBytesOf(page);
+                scheduleFetchIfRoom();
+                return page;
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            if (lastPageFetched) {
+                return null;
+            }
+
+            scheduleFetchIfRoom();
+
+            if (fetchedPages.isEmpty() && failure == null && !lastPageFetched) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("interrupted while waiting for page of events", e);
+                }
+            }
+        }
+    }
+
+    private synchronized void scheduleFetchIfRoom() {
+        if (closed || fetching || lastPageFetched || failure != null) {
+            return;
+        }
+        if (fetchedPages.size() >= policy.maxPagesInFlight || bytesInFlight >= policy.maxBytesInFlight) {
+            return;
+        }
+
+        fetching = true;
+        T pageLocationPointer = nextPageLocationPointer;
+        try {
+            policy.executor.execute(() -> fetch(pageLocationPointer));
+        } catch (RuntimeException e) {
+            fetching = false;
+            failure = e;
+            notifyAll();
+        }
+    }
+
+    private void fetch(T pageLocationPointer) {
+        List<ResolvedEvent> page;
+        try {
+            page = pageFetcher.apply(pageLocationPointer);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                fetching = false;
+                failure = e;
+                notifyAll();
+            }
+            return;
+        }
+
+        synchronized (this) {
+            fetching = false;
+            if (!closed) {
+                if (page.isEmpty()) {
+                    lastPageFetched = true;
+                } else {
+                    fetchedPages.addLast(page);
+                    bytesInFlight += payloadBytesOf(page);
+                    nextPageLocationPointer = locationPointerExtractor.apply(page.get(page.size() - 1));
+                }
+                scheduleFetchIfRoom();
+            }
+            notifyAll();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.timgroup.eventstore.mysql;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+import javax.annotation.Nullable;
+import java.util.Optional;
+
+/**
+ * Times a paged read query as a whole ({@code page_fetch_time}), and separately the preparing of its statement
+ * ({@code prepare_time}) and the execution of it up to the first row being available ({@code execute_time}).
+ *
+ * With statement caching enabled on the connection, {@code prepare_time} should be close to zero once the
+ * statement has been seen before.
+ */
+@SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+public final class QueryTimers {
+    private static final QueryTimers NONE = new QueryTimers(Optional.empty(), Optional.empty(), Optional.empty());
+
+    private final Optional<Timer> pageFetch;
+    private final Optional<Timer> prepare;
+    private final Optional<Timer> execute;
+
+    private QueryTimers(Optional<Timer> pageFetch, Optional<Timer> prepare, Optional<Timer> execute) {
+        this.pageFetch = pageFetch;
+        this.prepare = prepare;
+        this.execute = execute;
+    }
+
+    public static QueryTimers queryTimers(@Nullable MetricRegistry metricRegistry, String databaseName, String tableName, String operation) {
+        if (metricRegistry == null) {
+            return NONE;
+        }
+        return new QueryTimers(
+                Optional.of(metricRegistry.timer(String.format("database.%s.%s.%s.page_fetch_time", databaseName, tableName, operation))),
+                Optional.of(metricRegistry.timer(String.format("database.%s.%s.%s.prepare_time", databaseName, tableName, operation))),
+                Optional.of(metricRegistry.timer(String.format("database.%s.%s.%s.execute_time", databaseName, tableName, operation))));
+    }
+
+    public Timer.Context timePageFetch() {
+        return time(pageFetch);
+    }
+
+    public Timer.Context timePrepare() {
+        return time(prepare);
+    }
+
+    public Timer.Context timeExecute() {
+        return time(execute);
+    }
+
+    private static Timer.Context time(Optional<Timer> timer) {
+        return timer.map(Timer::time).orElseGet(() -> new Timer().time());
+    }
+}
@@ -0,0 +1,100 @@
+package com.timgroup.eventstore.mysql;
+
+import com.timgroup.eventstore.api.ResolvedEvent;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Reads the events in a range of positions in pages, and splits the range in half for as long as it has not
+ * started reading and both halves would still be at least {@code minimumRangeSize} positions wide. Each range
+ * fetches its pages over connections of its own, so a parallel stream reads from as many connections as it has
+ * threads.
+ *
+ * The size estimate starts from the width of the whole range, which saves counting it but overstates it by any
+ * gaps between positions, and is shared out in proportion to the positions each half covers.
+ */
+final class RangeSplittingEventSpliterator implements Spliterator<ResolvedEvent> {
+    private final ConnectionProvider connectionProvider;
+    private final String tableName;
+    private final int batchSize;
+    private final long minimumRangeSize;
+    private final QueryTimers timers;
+    private final long lastPositionInclusive;
+
+    private long positionExclusive;
+    private long estimatedSize;
+    private EventSpliterator<BasicMysqlEventStorePosition> current = null;
+
+    RangeSplittingEventSpliterator(ConnectionProvider connectionProvider, String tableName, int batchSize, long minimumRangeSize, QueryTimers timers, long positionExclusive, long lastPositionInclusive, long estimatedSize) {
+        if (minimumRangeSize < 1) {
+            throw new IllegalArgumentException("minimumRangeSize must be positive. Got " + minimumRangeSize);
+        }
+        this.connectionProvider = connectionProvider;
+        this.tableName = tableName;
+        this.batchSize = batchSize;
+        this.minimumRangeSize = minimumRangeSize;
+        this.timers = timers;
+        this.positionExclusive = positionExclusive;
+        this.lastPositionInclusive = lastPositionInclusive;
+        this.estimatedSize = estimatedSize;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super ResolvedEvent> action) {
+        if (current == null) {
+            current = EventSpliterator.readAllRangeEventSpliterator(
+                    connectionProvider,
+                    PageSizer.fixedPageSize(batchSize),
+                    tableName,
+                    new BasicMysqlEventStorePosition(positionExclusive),
+                    lastPositionInclusive,
+                    timers);
+        }
+        if (current.tryAdvance(action)) {
+            if (estimatedSize > 0) {
+                estimatedSize--;
+            }
+            return true;
+        }
+        estimatedSize = 0;
+        return false;
+    }
+
+    /**
+     * @return the lower half of the remaining range, as the events are ordered by position
+     */
+    @Override
+    public Spliterator<ResolvedEvent> trySplit() {
+        long width = lastPositionInclusive - positionExclusive;
+        if (current != null || width < 2 * minimumRangeSize) {
+            return null;
+        }
+        long middle = positionExclusive + width / 2;
+        long lowerEstimatedSize = (long) (estimatedSize * ((double) (middle - positionExclusive) / width));
+        RangeSplittingEventSpliterator lower = new RangeSplittingEventSpliterator(connectionProvider, tableName, batchSize, minimumRangeSize, timers, positionExclusive, middle, lowerEstimatedSize);
+        positionExclusive = middle;
+        estimatedSize -= lowerEstimatedSize;
+        return lower;
+    }
+
+    @Override
+    public long estimateSize() {
+        return estimatedSize;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | DISTINCT;
+    }
+
+    @Override
+    public String toString() {
+        return "RangeSplittingEventSpliterator{" +
+                "tableName='" + tableName + '\'' +
+                ", positionExclusive=" + positionExclusive +
+                ", lastPositionInclusive=" + lastPositionInclusive +
+                ", estimatedSize=" + estimatedSize +
+                '}';
+    }
+}
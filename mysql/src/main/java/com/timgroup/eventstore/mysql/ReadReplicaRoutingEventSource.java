@@ -0,0 +1,276 @@
+package com.timgroup.eventstore.mysql;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.timgroup.eventstore.api.EventCategoryReader;
+import com.timgroup.eventstore.api.EventHeader;
+import com.timgroup.eventstore.api.EventReader;
+import com.timgroup.eventstore.api.EventSource;
+import com.timgroup.eventstore.api.EventStreamReader;
+import com.timgroup.eventstore.api.EventStreamWriter;
+import com.timgroup.eventstore.api.EventStreamWriter.StreamWriteRequest;
+import com.timgroup.eventstore.api.NewEvent;
+import com.timgroup.eventstore.api.Position;
+import com.timgroup.eventstore.api.PositionCodec;
+import com.timgroup.eventstore.api.StreamId;
+import com.timgroup.tucker.info.Component;
+import com.typesafe.config.Config;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Collections.singletonList;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Reads from a replica unless that would miss events written through this event source by the same thread.
+ *
+ * Each thread's highest written position is remembered. When a thread asks for a reader, it is given one on the
+ * master if the replica has not yet caught up with that position, and one on the replica otherwise. The choice
+ * is made when the reader is requested, so readers should be requested for each read rather than kept.
+ *
+ * The replica's lag behind the master, as the difference between the timestamps of their last events, is polled
+ * in the background and reported as {@code database.<name>.replica.lag_ms}. A replica with no events is taken to
+ * lag by as long as the master has been written to.
+ */
+@ParametersAreNonnullByDefault
+public final class ReadReplicaRoutingEventSource implements EventSource, AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(ReadReplicaRoutingEventSource.class);
+    private static final Duration DEFAULT_LAG_POLL_INTERVAL = Duration.ofSeconds(5);
+
+    private final EventSource master;
+    private final EventSource replica;
+    private final String name;
+    private final ThreadLocal<Position> highestWrittenPosition = new ThreadLocal<>();
+    private final AtomicReference<Position> replicaPosition;
+    @Nullable
+    private final ScheduledExecutorService lagPoller;
+    private volatile long replicaLagMillis = 0;
+
+    public ReadReplicaRoutingEventSource(EventSource master, EventSource replica, String name, @Nullable MetricRegistry metricRegistry) {
+        this(master, replica, name, metricRegistry, DEFAULT_LAG_POLL_INTERVAL);
+    }
+
+    /**
+     * @param lagPollInterval how often to read the last events of the master and the replica, if there is a
+     *                        {@code metricRegistry} to report the lag to
+     */
+    public ReadReplicaRoutingEventSource(EventSource master, EventSource replica, String name, @Nullable MetricRegistry metricRegistry, Duration lagPollInterval) {
+        this.master = requireNonNull(master);
+        this.replica = requireNonNull(replica);
+        this.name = requireNonNull(name);
+        this.replicaPosition = new AtomicReference<>(replica.readAll().emptyStorePosition());
+        if (metricRegistry != null) {
+            metricRegistry.gauge(String.format("database.%s.replica.lag_ms", name), () -> (Gauge<Long>) () -> replicaLagMillis);
+            this.lagPoller = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "ReadReplicaLagPoller-" + name);
+                thread.setDaemon(true);
+                return thread;
+            });
+            lagPoller.scheduleWithFixedDelay(this::pollReplicaLag, 0, lagPollInterval.toMillis(), MILLISECONDS);
+        } else {
+            this.lagPoller = null;
+        }
+    }
+
+    public static ReadReplicaRoutingEventSource pooledReadReplicaRoutingEventSource(Config config, String tableName, String name, @Nullable MetricRegistry metricRegistry) {
+        return new ReadReplicaRoutingEventSource(
+                BasicMysqlEventSource.pooledMasterDbEventSource(config, tableName, name, metricRegistry),
+                BasicMysqlEventSource.pooledReadOnlyDbEventSource(config, tableName, name + "-replica", metricRegistry),
+                name,
+                metricRegistry);
+    }
+
+    @Nonnull
+    @Override
+    public EventReader readAll() {
+        return sourceForRead().readAll();
+    }
+
+    @Nonnull
+    @Override
+    public EventCategoryReader readCategory() {
+        return sourceForRead().readCategory();
+    }
+
+    @Nonnull
+    @Override
+    public EventStreamReader readStream() {
+        return sourceForRead().readStream();
+    }
+
+    @Nonnull
+    @Override
+    public EventStreamWriter writeStream() {
+        return new PositionTrackingWriter(master.writeStream());
+    }
+
+    @Nonnull
+    @Override
+    public PositionCodec positionCodec() {
+        return master.positionCodec();
+    }
+
+    @Nonnull
+    @Override
+    public Collection<Component> monitoring() {
+        List<Component> components = new ArrayList<>(master.monitoring());
+        components.addAll(replica.monitoring());
+        return components;
+    }
+
+    @Override
+    public void close() {
+        if (lagPoller != null) {
+            lagPoller.shutdownNow();
+        }
+        RuntimeException failure = null;
+        for (EventSource source : new EventSource[] { master, replica }) {
+            if (source instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) source).close();
+                } catch (Exception e) {
+                    if (failure == null) {
+                        failure = new RuntimeException("Failed to close " + source, e);
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ReadReplicaRoutingEventSource{" +
+                "master=" + master +
+                ", replica=" + replica +
+                ", name='" + name + '\'' +
+                '}';
+    }
+
+    private EventSource sourceForRead() {
+        Position required = highestWrittenPosition.get();
+        if (required == null || hasReached(replicaPosition.get(), required)) {
+            return replica;
+        }
+
+        Position latest = replica.readAll().readLastEventHeader().map(EventHeader::position).orElse(replicaPosition.get());
+        replicaPosition.accumulateAndGet(latest, (a, b) -> positionCodec().comparePositions(a, b) >= 0 ? a : b);
+        if (hasReached(latest, required)) {
+            return replica;
+        }
+        return master;
+    }
+
+    private boolean hasReached(Position position, Position required) {
+        return positionCodec().comparePositions(position, required) >= 0;
+    }
+
+    private void written(Position position) {
+        Position previous = highestWrittenPosition.get();
+        if (previous == null || positionCodec().comparePositions(position, previous) > 0) {
+            highestWrittenPosition.set(position);
+        }
+    }
+
+    private void pollReplicaLag() {
+        try {
+            replicaLagMillis = readReplicaLagMillis();
+        } catch (RuntimeException e) {
+            LOG.warn("Failed to read lag of replica of " + name, e);
+        }
+    }
+
+    private long readReplicaLagMillis() {
+        Optional<EventHeader> masterLast = master.readAll().readLastEventHeader();
+        if (!masterLast.isPresent()) {
+            return 0L;
+        }
+        Optional<EventHeader> replicaLast = replica.readAll().readLastEventHeader();
+        Instant replicaTimestamp;
+        if (replicaLast.isPresent()) {
+            replicaTimestamp = replicaLast.get().timestamp();
+        } else {
+            replicaTimestamp = master.readAll().readFirstEventHeader().map(EventHeader::timestamp).orElse(masterLast.get().timestamp());
+        }
+        return Math.max(0L, Duration.between(replicaTimestamp, masterLast.get().timestamp()).toMillis());
+    }
+
+    private final class PositionTrackingWriter implements EventStreamWriter {
+        private final EventStreamWriter underlying;
+
+        private PositionTrackingWriter(EventStreamWriter underlying) {
+            this.underlying = underlying;
+        }
+
+        @Override
+        public void write(StreamId streamId, Collection<NewEvent> events) {
+            track(singletonList(new StreamWriteRequest(streamId, events, OptionalLong.empty())), () -> underlying.write(streamId, events));
+        }
+
+        @Override
+        public void write(StreamId streamId, Collection<NewEvent> events, long expectedVersion) {
+            track(singletonList(new StreamWriteRequest(streamId, events, OptionalLong.of(expectedVersion))), () -> underlying.write(streamId, events, expectedVersion));
+        }
+
+        @Override
+        public void execute(Collection<StreamWriteRequest> writeRequests) {
+            track(writeRequests, () -> underlying.execute(writeRequests));
+        }
+
+        /**
+         * Only {@link BasicMysqlEventStreamWriter} reports the positions it wrote. After writes through any other
+         * writer, and after failed writes, which may have written some requests, the master's last position is
+         * remembered instead.
+         */
+        private void track(Collection<StreamWriteRequest> writeRequests, Runnable write) {
+            List<Position> positions;
+            try {
+                if (underlying instanceof BasicMysqlEventStreamWriter) {
+                    positions = ((BasicMysqlEventStreamWriter) underlying).executeReturningResult(writeRequests).positions();
+                } else {
+                    write.run();
+                    positions = null;
+                }
+            } catch (RuntimeException e) {
+                writtenUpToMasterHead();
+                throw e;
+            }
+
+            if (positions == null) {
+                writtenUpToMasterHead();
+            } else {
+                positions.stream().max(positionCodec()::comparePositions).ifPresent(ReadReplicaRoutingEventSource.this::written);
+            }
+        }
+
+        private void writtenUpToMasterHead() {
+            master.readAll().readLastEventHeader().map(EventHeader::position).ifPresent(ReadReplicaRoutingEventSource.this::written);
+        }
+
+        @Override
+        public String toString() {
+            return "PositionTrackingWriter{" +
+                    "underlying=" + underlying +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.timgroup.eventstore.mysql;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static java.lang.String.format;
+
+@ParametersAreNonnullByDefault
+final class SequenceRowPositionAllocator implements PositionAllocator {
+    private final boolean serialising;
+
+    SequenceRowPositionAllocator(boolean serialising) {
+        this.serialising = serialising;
+    }
+
+    @Override
+    public void beforeVersionLookup(Connection connection, String tableName) throws SQLException {
+        if (!serialising) {
+            return;
+        }
+        String sequenceTableName = BasicMysqlEventStoreSetup.positionSequenceTableName(tableName);
+        try (PreparedStatement statement = connection.prepareStatement(format("select position from %s where id = 0 for update", sequenceTableName));
+             ResultSet resultSet = statement.executeQuery()) {
+            if (!resultSet.next()) {
+                throw new IllegalStateException("No position sequence row in " + sequenceTableName);
+            }
+        }
+    }
+
+    @Override
+    public long allocate(Connection connection, String tableName, int count) throws SQLException {
+        String sequenceTableName = BasicMysqlEventStoreSetup.positionSequenceTableName(tableName);
+        try (PreparedStatement statement = connection.prepareStatement(format("update %s set position = last_insert_id(position + ?) where id = 0", sequenceTableName))) {
+            statement.setInt(1, count);
+            if (statement.executeUpdate() != 1) {
+                throw new IllegalStateException("No position sequence row in " + sequenceTableName);
+            }
+        }
+        try (PreparedStatement statement = connection.prepareStatement("select last_insert_id()");
+             ResultSet resultSet = statement.executeQuery()) {
+            resultSet.next();
+            return resultSet.getLong(1) - count;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return serialising ? "serialisingSequenceRow" : "sequenceRow";
+    }
+}
@@ -0,0 +1,124 @@
+package com.timgroup.eventstore.mysql;
+
+import com.timgroup.eventstore.api.Position;
+import com.timgroup.eventstore.api.ResolvedEvent;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import static java.lang.Long.MAX_VALUE;
+
+/**
+ * Merges the events read from each shard into one sequence ordered by timestamp, taking events with the same
+ * timestamp in shard order, by keeping the next event of each shard in a heap.
+ *
+ * Reading forwards, each event is given the position made of the positions of the last events taken from each
+ * shard, including itself. Reading backwards, each event is given the position it would have had reading
+ * forwards, which is made of the positions of the events next in line from each shard.
+ */
+final class ShardMergingSpliterator implements Spliterator<ResolvedEvent> {
+    private static final Comparator<Head> FORWARDS = Comparator.<Head, Instant>comparing(h -> h.event.eventRecord().timestamp()).thenComparingInt(h -> h.shard);
+
+    private final List<Iterator<ResolvedEvent>> shardEvents;
+    private final Position[] emptyShardPositions;
+    private final boolean backwards;
+    private final PriorityQueue<Head> heads;
+    private ShardedPosition currentPosition;
+    private boolean started = false;
+
+    private ShardMergingSpliterator(ShardedPosition startingPosition, List<Iterator<ResolvedEvent>> shardEvents, Position[] emptyShardPositions, boolean backwards) {
+        this.currentPosition = startingPosition;
+        this.shardEvents = shardEvents;
+        this.emptyShardPositions = emptyShardPositions;
+        this.backwards = backwards;
+        this.heads = new PriorityQueue<>(Math.max(1, shardEvents.size()), backwards ? FORWARDS.reversed() : FORWARDS);
+    }
+
+    static ShardMergingSpliterator forwards(ShardedPosition positionExclusive, List<Iterator<ResolvedEvent>> shardEvents) {
+        return new ShardMergingSpliterator(positionExclusive, shardEvents, positionExclusive.shardPositions, false);
+    }
+
+    static ShardMergingSpliterator backwards(List<Iterator<ResolvedEvent>> shardEvents, Position[] emptyShardPositions) {
+        return new ShardMergingSpliterator(null, shardEvents, emptyShardPositions, true);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super ResolvedEvent> consumer) {
+        if (!started) {
+            start();
+        }
+
+        Head head = heads.poll();
+        if (head == null) {
+            return false;
+        }
+
+        ResolvedEvent event = head.event;
+        Position eventPosition;
+        if (backwards) {
+            eventPosition = new ShardedPosition(currentPosition.shardPositions, head.shard);
+            currentPosition = currentPosition.withShardPosition(head.shard, advance(head) ? head.event.position() : emptyShardPositions[head.shard]);
+        } else {
+            currentPosition = currentPosition.withShardPosition(head.shard, event.position());
+            eventPosition = currentPosition;
+            advance(head);
+        }
+
+        consumer.accept(event.eventRecord().toResolvedEvent(eventPosition));
+        return true;
+    }
+
+    private void start() {
+        started = true;
+        Position[] positions = emptyShardPositions.clone();
+        for (int shard = 0; shard < shardEvents.size(); shard++) {
+            Head head = new Head(shard, shardEvents.get(shard));
+            if (advance(head)) {
+                positions[shard] = head.event.position();
+            }
+        }
+        if (backwards) {
+            currentPosition = new ShardedPosition(positions, ShardedPosition.NO_SHARD);
+        }
+    }
+
+    private boolean advance(Head head) {
+        if (head.events.hasNext()) {
+            head.event = head.events.next();
+            heads.add(head);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Spliterator<ResolvedEvent> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | DISTINCT;
+    }
+
+    private static final class Head {
+        private final int shard;
+        private final Iterator<ResolvedEvent> events;
+        private ResolvedEvent event;
+
+        private Head(int shard, Iterator<ResolvedEvent> events) {
+            this.shard = shard;
+            this.events = events;
+        }
+    }
+}
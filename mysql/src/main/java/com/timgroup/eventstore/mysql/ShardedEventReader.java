@@ -0,0 +1,221 @@
+package com.timgroup.eventstore.mysql;
+
+import com.timgroup.eventstore.api.EventCategoryReader;
+import com.timgroup.eventstore.api.EventReader;
+import com.timgroup.eventstore.api.Position;
+import com.timgroup.eventstore.api.ResolvedEvent;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnull;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.StreamSupport.stream;
+
+/**
+ * Reads all events, or the events in categories, from every shard, merged by {@link ShardMergingSpliterator}.
+ */
+final class ShardedEventReader implements EventReader, EventCategoryReader {
+    private final List<EventReader> allReaders;
+    private final List<EventCategoryReader> categoryReaders;
+
+    ShardedEventReader(List<EventReader> allReaders, List<EventCategoryReader> categoryReaders) {
+        this.allReaders = requireNonNull(allReaders);
+        this.categoryReaders = requireNonNull(categoryReaders);
+    }
+
+    @CheckReturnValue
+    @Nonnull
+    @Override
+    public Stream<ResolvedEvent> readAllForwards(Position positionExclusive) {
+        return forwards(allReaders, EventReader::readAllForwards, positionExclusive);
+    }
+
+    @CheckReturnValue
+    @Nonnull
+    @Override
+    public Stream<ResolvedEvent> readAllForwardsOfTypes(Set<String> eventTypes, Position positionExclusive) {
+        return forwards(allReaders, (reader, position) -> reader.readAllForwardsOfTypes(eventTypes, position), positionExclusive);
+    }
+
+    @CheckReturnValue
+    @Nonnull
+    @Override
+    public Stream<ResolvedEvent> readAllBackwards() {
+        return backwards(allReaders, EventReader::readAllBackwards, EventReader::emptyStorePosition);
+    }
+
+    @CheckReturnValue
+    @Nonnull
+    @Override
+    public Stream<ResolvedEvent> readAllBackwards(Position positionExclusive) {
+        return backwards(allReaders, EventReader::readAllForwards, EventReader::readAllBackwards, EventReader::emptyStorePosition, (ShardedPosition) positionExclusive);
+    }
+
+    /**
+     * Events are merged in timestamp order, so every shard can seek to the timestamp on its own.
+     */
+    @Nonnull
+    @Override
+    public Position positionAt(Instant timestamp) {
+        return new ShardedPosition(allReaders.stream().map(reader -> reader.positionAt(timestamp)).toArray(Position[]::new), ShardedPosition.NO_SHARD);
+    }
+
+    @Nonnull
+    @Override
+    public Position emptyStorePosition() {
+        return emptyPosition(allReaders, EventReader::emptyStorePosition);
+    }
+
+    @CheckReturnValue
+    @Nonnull
+    @Override
+    public Stream<ResolvedEvent> readCategoryForwards(String category, Position positionExclusive) {
+        return forwards(categoryReaders, (reader, position) -> reader.readCategoryForwards(category, position), positionExclusive);
+    }
+
+    @CheckReturnValue
+    @Nonnull
+    @Override
+    public Stream<ResolvedEvent> readCategoryForwardsOfTypes(String category, Set<String> eventTypes, Position positionExclusive) {
+        return forwards(categoryReaders, (reader, position) -> reader.readCategoryForwardsOfTypes(category, eventTypes, position), positionExclusive);
+    }
+
+    @CheckReturnValue
+    @Nonnull
+    @Override
+    public Stream<ResolvedEvent> readCategoriesForwards(List<String> categories, Position positionExclusive) {
+        return forwards(categoryReaders, (reader, position) -> reader.readCategoriesForwards(categories, position), positionExclusive);
+    }
+
+    @CheckReturnValue
+    @Nonnull
+    @Override
+    public Stream<ResolvedEvent> readCategoriesForwardsOfTypes(List<String> categories, Set<String> eventTypes, Position positionExclusive) {
+        return forwards(categoryReaders, (reader, position) -> reader.readCategoriesForwardsOfTypes(categories, eventTypes, position), positionExclusive);
+    }
+
+    @CheckReturnValue
+    @Nonnull
+    @Override
+    public Stream<ResolvedEvent> readCategoryBackwards(String category) {
+        return backwards(categoryReaders, reader -> reader.readCategoryBackwards(category), reader -> reader.emptyCategoryPosition(category));
+    }
+
+    @CheckReturnValue
+    @Nonnull
+    @Override
+    public Stream<ResolvedEvent> readCategoryBackwards(String category, Position positionExclusive) {
+        return backwards(
+                categoryReaders,
+                (reader, position) -> reader.readCategoryForwards(category, position),
+                (reader, position) -> reader.readCategoryBackwards(category, position),
+                reader -> reader.emptyCategoryPosition(category),
+                (ShardedPosition) positionExclusive);
+    }
+
+    @Nonnull
+    @Override
+    public Optional<ResolvedEvent> readLastEventInCategory(String category) {
+        try (Stream<ResolvedEvent> events = readCategoryBackwards(category)) {
+            return events.findFirst();
+        }
+    }
+
+    @Nonnull
+    @Override
+    public Position emptyCategoryPosition(String category) {
+        return emptyPosition(categoryReaders, reader -> reader.emptyCategoryPosition(category));
+    }
+
+    @Override
+    public String toString() {
+        return "ShardedEventReader{" +
+                "allReaders=" + allReaders +
+                '}';
+    }
+
+    private static <R> Position emptyPosition(List<R> readers, Function<R, Position> emptyPosition) {
+        return new ShardedPosition(emptyPositions(readers, emptyPosition), ShardedPosition.NO_SHARD);
+    }
+
+    private static <R> Position[] emptyPositions(List<R> readers, Function<R, Position> emptyPosition) {
+        return readers.stream().map(emptyPosition).toArray(Position[]::new);
+    }
+
+    private static <R> Stream<ResolvedEvent> forwards(List<R> readers, BiFunction<R, Position, Stream<ResolvedEvent>> read, Position positionExclusive) {
+        ShardedPosition shardedPosition = (ShardedPosition) positionExclusive;
+        List<Stream<ResolvedEvent>> shardStreams = new ArrayList<>();
+        for (int shard = 0; shard < readers.size(); shard++) {
+            shardStreams.add(read.apply(readers.get(shard), shardedPosition.shardPositions[shard]));
+        }
+        return merged(ShardMergingSpliterator.forwards(shardedPosition, iterators(shardStreams)), shardStreams);
+    }
+
+    private static <R> Stream<ResolvedEvent> backwards(List<R> readers, Function<R, Stream<ResolvedEvent>> read, Function<R, Position> emptyPosition) {
+        List<Stream<ResolvedEvent>> shardStreams = new ArrayList<>();
+        readers.forEach(reader -> shardStreams.add(read.apply(reader)));
+        return merged(ShardMergingSpliterator.backwards(iterators(shardStreams), emptyPositions(readers, emptyPosition)), shardStreams);
+    }
+
+    /**
+     * Reads back from the events that came before the event at the given position: every shard's events up to and
+     * including its position, except in the shard that the event itself came from.
+     */
+    private static <R> Stream<ResolvedEvent> backwards(
+            List<R> readers,
+            BiFunction<R, Position, Stream<ResolvedEvent>> readForwards,
+            BiFunction<R, Position, Stream<ResolvedEvent>> readBackwards,
+            Function<R, Position> emptyPosition,
+            ShardedPosition positionExclusive) {
+        Position[] emptyPositions = emptyPositions(readers, emptyPosition);
+        List<Stream<ResolvedEvent>> shardStreams = new ArrayList<>();
+        for (int shard = 0; shard < readers.size(); shard++) {
+            R reader = readers.get(shard);
+            Position shardPosition = positionExclusive.shardPositions[shard];
+            if (shardPosition.equals(emptyPositions[shard])) {
+                shardStreams.add(Stream.empty());
+            } else if (shard == positionExclusive.lastShard) {
+                shardStreams.add(readBackwards.apply(reader, shardPosition));
+            } else {
+                shardStreams.add(Stream.concat(
+                        eventAt(reader, readForwards, readBackwards, shardPosition, emptyPositions[shard]),
+                        readBackwards.apply(reader, shardPosition)));
+            }
+        }
+        return merged(ShardMergingSpliterator.backwards(iterators(shardStreams), emptyPositions), shardStreams);
+    }
+
+    private static <R> Stream<ResolvedEvent> eventAt(
+            R reader,
+            BiFunction<R, Position, Stream<ResolvedEvent>> readForwards,
+            BiFunction<R, Position, Stream<ResolvedEvent>> readBackwards,
+            Position position,
+            Position emptyPosition) {
+        Position previous;
+        try (Stream<ResolvedEvent> events = readBackwards.apply(reader, position)) {
+            previous = events.findFirst().map(ResolvedEvent::position).orElse(emptyPosition);
+        }
+        try (Stream<ResolvedEvent> events = readForwards.apply(reader, previous)) {
+            return events.findFirst().filter(event -> event.position().equals(position)).map(Stream::of).orElseGet(Stream::empty);
+        }
+    }
+
+    private static List<Iterator<ResolvedEvent>> iterators(List<Stream<ResolvedEvent>> shardStreams) {
+        List<Iterator<ResolvedEvent>> iterators = new ArrayList<>();
+        shardStreams.forEach(shardStream -> iterators.add(shardStream.iterator()));
+        return iterators;
+    }
+
+    private static Stream<ResolvedEvent> merged(ShardMergingSpliterator spliterator, List<Stream<ResolvedEvent>> shardStreams) {
+        return stream(spliterator, false).onClose(() -> shardStreams.forEach(Stream::close));
+    }
+}
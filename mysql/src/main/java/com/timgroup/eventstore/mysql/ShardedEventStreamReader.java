@@ -0,0 +1,62 @@
+package com.timgroup.eventstore.mysql;
+
+import com.timgroup.eventstore.api.EventStreamReader;
+import com.timgroup.eventstore.api.ResolvedEvent;
+import com.timgroup.eventstore.api.StreamId;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads each stream from the shard that owns it.
+ */
+final class ShardedEventStreamReader implements EventStreamReader {
+    private final List<EventStreamReader> shardReaders;
+
+    ShardedEventStreamReader(List<EventStreamReader> shardReaders) {
+        this.shardReaders = requireNonNull(shardReaders);
+    }
+
+    @CheckReturnValue
+    @Nonnull
+    @Override
+    public Stream<ResolvedEvent> readStreamForwards(StreamId streamId, long eventNumber) {
+        return shardReaderFor(streamId).readStreamForwards(streamId, eventNumber);
+    }
+
+    @CheckReturnValue
+    @Nonnull
+    @Override
+    public Stream<ResolvedEvent> readStreamBackwards(StreamId streamId) {
+        return shardReaderFor(streamId).readStreamBackwards(streamId);
+    }
+
+    @CheckReturnValue
+    @Nonnull
+    @Override
+    public Stream<ResolvedEvent> readStreamBackwards(StreamId streamId, long eventNumber) {
+        return shardReaderFor(streamId).readStreamBackwards(streamId, eventNumber);
+    }
+
+    @CheckReturnValue
+    @Nonnull
+    @Override
+    public ResolvedEvent readLastEventInStream(StreamId streamId) {
+        return shardReaderFor(streamId).readLastEventInStream(streamId);
+    }
+
+    @Override
+    public String toString() {
+        return "ShardedEventStreamReader{" +
+                "shardReaders=" + shardReaders +
+                '}';
+    }
+
+    private EventStreamReader shardReaderFor(StreamId streamId) {
+        return shardReaders.get(ShardedMysqlEventSource.shardOf(streamId, shardReaders.size()));
+    }
+}
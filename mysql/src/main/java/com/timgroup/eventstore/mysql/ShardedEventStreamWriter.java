@@ -0,0 +1,82 @@
+package com.timgroup.eventstore.mysql;
+
+import com.timgroup.eventstore.api.EventStreamWriter;
+import com.timgroup.eventstore.api.NewEvent;
+import com.timgroup.eventstore.api.StreamId;
+import com.timgroup.eventstore.api.WrongExpectedVersionException;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toMap;
+
+/**
+ * Writes each stream to the shard that owns it.
+ *
+ * Requests to several streams are executed as one operation per shard involved, in the order the shards first
+ * appear in the requests, so they are only atomic within each shard.
+ */
+@ParametersAreNonnullByDefault
+final class ShardedEventStreamWriter implements EventStreamWriter {
+    private final List<EventStreamWriter> shardWriters;
+
+    ShardedEventStreamWriter(List<EventStreamWriter> shardWriters) {
+        this.shardWriters = requireNonNull(shardWriters);
+    }
+
+    @Override
+    public void write(StreamId streamId, Collection<NewEvent> events) {
+        shardWriterFor(streamId).write(streamId, events);
+    }
+
+    @Override
+    public void write(StreamId streamId, Collection<NewEvent> events, long expectedVersion) {
+        shardWriterFor(streamId).write(streamId, events, expectedVersion);
+    }
+
+    @Override
+    public void execute(Collection<StreamWriteRequest> writeRequests) {
+        writeRequests.stream().collect(toMap(r -> r.streamId, r -> r, (r1, r2) -> {
+            throw new RuntimeException("Duplicate streamId in write request: " + r1.streamId);
+        }));
+
+        Map<Integer, List<StreamWriteRequest>> requestsByShard = new LinkedHashMap<>();
+        for (StreamWriteRequest request : writeRequests) {
+            requestsByShard.computeIfAbsent(shardOf(request.streamId), shard -> new ArrayList<>()).add(request);
+        }
+
+        List<String> failures = new ArrayList<>();
+        requestsByShard.forEach((shard, requests) -> {
+            try {
+                shardWriters.get(shard).execute(requests);
+            } catch (WrongExpectedVersionException e) {
+                failures.add(e.getMessage());
+            }
+        });
+
+        if (!failures.isEmpty()) {
+            throw new WrongExpectedVersionException(failures.stream().collect(joining(",")));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ShardedEventStreamWriter{" +
+                "shardWriters=" + shardWriters +
+                '}';
+    }
+
+    private EventStreamWriter shardWriterFor(StreamId streamId) {
+        return shardWriters.get(shardOf(streamId));
+    }
+
+    private int shardOf(StreamId streamId) {
+        return ShardedMysqlEventSource.shardOf(streamId, shardWriters.size());
+    }
+}
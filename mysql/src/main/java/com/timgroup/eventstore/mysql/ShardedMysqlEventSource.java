@@ -0,0 +1,109 @@
+package com.timgroup.eventstore.mysql;
+
+import com.timgroup.eventstore.api.EventCategoryReader;
+import com.timgroup.eventstore.api.EventReader;
+import com.timgroup.eventstore.api.EventSource;
+import com.timgroup.eventstore.api.EventStreamReader;
+import com.timgroup.eventstore.api.EventStreamWriter;
+import com.timgroup.eventstore.api.PositionCodec;
+import com.timgroup.eventstore.api.StreamId;
+import com.timgroup.tucker.info.Component;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.unmodifiableList;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Spreads streams over several event store tables or databases by a hash of their id.
+ *
+ * Each stream is read and written only on the shard that owns it. Reading all events, or the events in a
+ * category, merges the events of every shard by timestamp, and positions record how far each shard has been
+ * read. Events in different shards are only ordered as well as the shards' clocks agree, and their order may
+ * differ between reads where shards have events with equal timestamps.
+ *
+ * The shards must always be given in the same order, as adding, removing or reordering shards moves streams
+ * between them.
+ */
+public final class ShardedMysqlEventSource implements EventSource {
+    private final List<EventSource> shards;
+    private final PositionCodec positionCodec;
+
+    public ShardedMysqlEventSource(List<BasicMysqlEventSource> shards) {
+        this(new ArrayList<EventSource>(shards));
+    }
+
+    private ShardedMysqlEventSource(ArrayList<EventSource> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = unmodifiableList(shards);
+        this.positionCodec = ShardedPosition.codecFor(shards.stream().map(EventSource::positionCodec).collect(toList()));
+    }
+
+    static ShardedMysqlEventSource ofShards(List<? extends EventSource> shards) {
+        return new ShardedMysqlEventSource(new ArrayList<EventSource>(shards));
+    }
+
+    @Nonnull
+    @Override
+    public EventReader readAll() {
+        return reader();
+    }
+
+    @Nonnull
+    @Override
+    public EventCategoryReader readCategory() {
+        return reader();
+    }
+
+    @Nonnull
+    @Override
+    public EventStreamReader readStream() {
+        return new ShardedEventStreamReader(shards.stream().map(EventSource::readStream).collect(toList()));
+    }
+
+    @Nonnull
+    @Override
+    public EventStreamWriter writeStream() {
+        return new ShardedEventStreamWriter(shards.stream().map(EventSource::writeStream).collect(toList()));
+    }
+
+    @Nonnull
+    @Override
+    public PositionCodec positionCodec() {
+        return positionCodec;
+    }
+
+    @Nonnull
+    @Override
+    public Collection<Component> monitoring() {
+        List<Component> components = new ArrayList<>();
+        shards.forEach(shard -> components.addAll(shard.monitoring()));
+        return components;
+    }
+
+    @Override
+    public String toString() {
+        return "ShardedMysqlEventSource{" +
+                "shards=" + shards +
+                '}';
+    }
+
+    private ShardedEventReader reader() {
+        return new ShardedEventReader(
+                shards.stream().map(EventSource::readAll).collect(toList()),
+                shards.stream().map(EventSource::readCategory).collect(toList()));
+    }
+
+    static int shardOf(StreamId streamId, int numberOfShards) {
+        CRC32 crc = new CRC32();
+        crc.update((streamId.category() + '\u0000' + streamId.id()).getBytes(UTF_8));
+        return (int) (crc.getValue() % numberOfShards);
+    }
+}
@@ -0,0 +1,101 @@
+package com.timgroup.eventstore.mysql;
+
+import com.timgroup.eventstore.api.Position;
+import com.timgroup.eventstore.api.PositionCodec;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import static java.util.stream.Collectors.joining;
+
+/**
+ * A position in the merged reading of several shards: the position of the last event read from each shard,
+ * and which shard the last event overall came from.
+ */
+final class ShardedPosition implements Position {
+    static final int NO_SHARD = -1;
+
+    final Position[] shardPositions;
+    final int lastShard;
+
+    ShardedPosition(Position[] shardPositions, int lastShard) {
+        this.shardPositions = shardPositions;
+        this.lastShard = lastShard;
+    }
+
+    ShardedPosition withShardPosition(int shard, Position position) {
+        Position[] newPositions = shardPositions.clone();
+        newPositions[shard] = position;
+        return new ShardedPosition(newPositions, shard);
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ShardedPosition that = (ShardedPosition) o;
+        return lastShard == that.lastShard &&
+                Arrays.equals(shardPositions, that.shardPositions);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(Arrays.hashCode(shardPositions), lastShard);
+    }
+
+    @Override
+    public String toString() {
+        return lastShard + "|" + Arrays.stream(shardPositions).map(String::valueOf).collect(joining(","));
+    }
+
+    /**
+     * Serialises as the last shard followed by each shard's serialised position, so the shard codecs must not
+     * produce commas. Positions are compared shard by shard, and are only comparable if no shard is ahead in one
+     * and behind in the other.
+     */
+    static PositionCodec codecFor(List<PositionCodec> shardCodecs) {
+        return PositionCodec.fromComparator(
+                ShardedPosition.class,
+                serialisedPosition -> {
+                    int separator = serialisedPosition.indexOf('|');
+                    if (separator < 0) {
+                        throw new IllegalArgumentException("Bad position, expected last shard: " + serialisedPosition);
+                    }
+                    String[] components = serialisedPosition.substring(separator + 1).split(",", -1);
+                    if (components.length != shardCodecs.size()) {
+                        throw new IllegalArgumentException("Bad position, expected " + shardCodecs.size() + " shard positions: " + serialisedPosition);
+                    }
+                    Position[] shardPositions = new Position[components.length];
+                    for (int shard = 0; shard < components.length; shard++) {
+                        shardPositions[shard] = shardCodecs.get(shard).deserializePosition(components[shard]);
+                    }
+                    return new ShardedPosition(shardPositions, Integer.parseInt(serialisedPosition.substring(0, separator)));
+                },
+                position -> {
+                    StringBuilder builder = new StringBuilder().append(position.lastShard).append('|');
+                    for (int shard = 0; shard < shardCodecs.size(); shard++) {
+                        String component = shardCodecs.get(shard).serializePosition(position.shardPositions[shard]);
+                        if (component.indexOf(',') >= 0) {
+                            throw new IllegalArgumentException("Shard position contains a comma: " + component);
+                        }
+                        builder.append(shard == 0 ? "" : ",").append(component);
+                    }
+                    return builder.toString();
+                },
+                (left, right) -> {
+                    int seen = 0;
+                    for (int shard = 0; shard < shardCodecs.size(); shard++) {
+                        int n = shardCodecs.get(shard).comparePositions(left.shardPositions[shard], right.shardPositions[shard]);
+                        if ((n < 0 && seen > 0) || (n > 0 && seen < 0)) {
+                            throw new IllegalArgumentException("Not comparable: " + left + " <=> " + right);
+                        }
+                        if (n != 0) {
+                            seen = n;
+                        }
+                    }
+                    return seen;
+                });
+    }
+}
@@ -14,6 +14,12 @@ import java.util.Properties;
 
 import static java.lang.String.format;
 
+/**
+ * Pools connections to a database configured by {@code hostname} (or {@code read_only_cluster}), {@code port},
+ * {@code username}, {@code password}, {@code database} and {@code driver}. Setting the optional
+ * {@code server_prepared_statements} to {@code true} has statements prepared on the server and cached per
+ * connection, which saves parsing repeated reads, at the cost of server memory per cached statement.
+ */
 public final class StacksConfiguredDataSource {
 
     private static final Logger logger = LoggerFactory.getLogger(StacksConfiguredDataSource.class);
@@ -92,6 +98,7 @@ public final class StacksConfiguredDataSource {
                 properties.getProperty(prefix + "password"),
                 properties.getProperty(prefix + "database"),
                 properties.getProperty(prefix + "driver"),
+                Boolean.parseBoolean(properties.getProperty(prefix + "server_prepared_statements")),
                 maxPoolSize,
                 socketTimeoutMs,
                 metricRegistry
@@ -126,6 +133,7 @@ public final class StacksConfiguredDataSource {
                 config.getString("password"),
                 config.getString("database"),
                 config.getString("driver"),
+                serverPreparedStatements(config),
                 maxPoolSize,
                 DEFAULT_SOCKET_TIMEOUT_MS,
                 metricRegistry
@@ -160,12 +168,17 @@ public final class StacksConfiguredDataSource {
                 config.getString("password"),
                 config.getString("database"),
                 config.getString("driver"),
+                serverPreparedStatements(config),
                 maxPoolSize,
                 DEFAULT_SOCKET_TIMEOUT_MS,
                 metricRegistry
         );
     }
 
+    private static boolean serverPreparedStatements(Config config) {
+        return config.hasPath("server_prepared_statements") && config.getBoolean("server_prepared_statements");
+    }
+
     private static PooledDataSource pooled(
             String hostname,
             int port,
@@ -173,12 +186,14 @@ public final class StacksConfiguredDataSource {
             String password,
             String database,
             String driver,
+            boolean serverPreparedStatements,
             int maxPoolsize,
             int socketTimeoutMs,
             @Nullable MetricRegistry metricRegistry)
     {
         ComboPooledDataSource dataSource = new ComboPooledDataSource();
-        dataSource.setJdbcUrl(format("jdbc:mysql://%s:%d/%s?rewriteBatchedStatements=true&secondsBeforeRetryMaster=1&queriesBeforeRetryMaster=1&connectTimeout=5000&socketTimeout=" + socketTimeoutMs,
+        dataSource.setJdbcUrl(format("jdbc:mysql://%s:%d/%s?rewriteBatchedStatements=true&secondsBeforeRetryMaster=1&queriesBeforeRetryMaster=1&connectTimeout=5000&socketTimeout=" + socketTimeoutMs
+                        + (serverPreparedStatements ? "&useServerPrepStmts=true&cachePrepStmts=true&prepStmtCacheSize=250&prepStmtCacheSqlLimit=2048" : ""),
                 hostname,
                 port,
                 database));
@@ -0,0 +1,166 @@
+package com.timgroup.eventstore.mysql;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.timgroup.eventstore.api.ResolvedEvent;
+import com.timgroup.eventstore.api.StreamId;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The events of recently read streams, least recently read evicted first. Streams are only ever appended to, so a
+ * cached stream never goes stale, it only falls behind; readers fetch the events after the cached ones and
+ * {@link #filling fill} them in as they go.
+ */
+final class StreamTailCache {
+    private final StreamTailCachePolicy policy;
+    private final Optional<Meter> hits;
+    private final Optional<Meter> misses;
+    private final Map<StreamId, CachedStream> streams = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes = 0;
+
+    StreamTailCache(StreamTailCachePolicy policy, String databaseName, String tableName, @Nullable MetricRegistry metricRegistry) {
+        this.policy = requireNonNull(policy);
+        this.hits = Optional.ofNullable(metricRegistry).map(r -> r.meter(format("database.%s.%s.stream_tail_cache.hits", databaseName, tableName)));
+        this.misses = Optional.ofNullable(metricRegistry).map(r -> r.meter(format("database.%s.%s.stream_tail_cache.misses", databaseName, tableName)));
+    }
+
+    /**
+     * @return the cached events of the stream from its first onwards, or null if it is not cached
+     */
+    @Nullable
+    synchronized List<ResolvedEvent> get(StreamId streamId) {
+        CachedStream cached = streams.get(streamId);
+        if (cached == null) {
+            misses.ifPresent(Meter::mark);
+            return null;
+        }
+        hits.ifPresent(Meter::mark);
+        return cached.events;
+    }
+
+    /**
+     * Passes on the events of {@code tail}, and caches them after {@code cached} once it is exhausted, unless they
+     * would not fit.
+     */
+    Spliterator<ResolvedEvent> filling(StreamId streamId, List<ResolvedEvent> cached, Spliterator<ResolvedEvent> tail) {
+        return new FillingSpliterator(streamId, cached, tail);
+    }
+
+    synchronized int streamCount() {
+        return streams.size();
+    }
+
+    synchronized long bytes() {
+        return bytes;
+    }
+
+    private synchronized void store(StreamId streamId, List<ResolvedEvent> events, long eventBytes) {
+        CachedStream existing = streams.get(streamId);
+        if (existing != null && lastEventNumber(existing.events) >= lastEventNumber(events)) {
+            return;
+        }
+        if (existing != null) {
+            streams.remove(streamId);
+            bytes -= existing.bytes;
+        }
+        if (eventBytes > policy.maxBytes) {
+            return;
+        }
+
+        streams.put(streamId, new CachedStream(events, eventBytes));
+        bytes += eventBytes;
+
+        Iterator<CachedStream> eldest = streams.values().iterator();
+        while (streams.size() > policy.maxStreams || bytes > policy.maxBytes) {
+            bytes -= eldest.next().bytes;
+            eldest.remove();
+        }
+    }
+
+    private static long lastEventNumber(List<ResolvedEvent> events) {
+        return events.get(events.size() - 1).eventRecord().eventNumber();
+    }
+
+    @Override
+    public String toString() {
+        return "StreamTailCache{" +
+                "policy=" + policy +
+                '}';
+    }
+
+    private static final class CachedStream {
+        private final List<ResolvedEvent> events;
+        private final long bytes;
+
+        private CachedStream(List<ResolvedEvent> events, long bytes) {
+            this.events = events;
+            this.bytes = bytes;
+        }
+    }
+
+    private final class FillingSpliterator implements Spliterator<ResolvedEvent> {
+        private final StreamId streamId;
+        private final List<ResolvedEvent> cached;
+        private final Spliterator<ResolvedEvent> tail;
+        private List<ResolvedEvent> events;
+        private long eventBytes;
+
+        private FillingSpliterator(StreamId streamId, List<ResolvedEvent> cached, Spliterator<ResolvedEvent> tail) {
+            this.streamId = streamId;
+            this.cached = cached;
+            this.tail = tail;
+            this.events = new ArrayList<>(cached);
+            this.eventBytes = EventSpliterator.payloadBytesOf(cached);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super ResolvedEvent> action) {
+            if (tail.tryAdvance(event -> {
+                if (events != null) {
+                    events.add(event);
+                    eventBytes += event.eventRecord().data().length + event.eventRecord().metadata().length;
+                    if (eventBytes > policy.maxBytes) {
+                        events = null;
+                    }
+                }
+                action.accept(event);
+            })) {
+                return true;
+            }
+
+            if (events != null && events.size() > cached.size()) {
+                store(streamId, Collections.unmodifiableList(events), eventBytes);
+            }
+            events = null;
+            return false;
+        }
+
+        @Override
+        public Spliterator<ResolvedEvent> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return tail.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | DISTINCT;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.timgroup.eventstore.mysql;
+
+/**
+ * Lets stream readers keep the events of up to {@code maxStreams} recently read streams, holding no more than
+ * {@code maxBytes} of event data and metadata between them, so that reading a cached stream again only fetches the
+ * events written since.
+ */
+public final class StreamTailCachePolicy {
+    final int maxStreams;
+    final long maxBytes;
+
+    private StreamTailCachePolicy(int maxStreams, long maxBytes) {
+        if (maxStreams <= 0) {
+            throw new IllegalArgumentException("maxStreams must be positive. Got " + maxStreams);
+        }
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive. Got " + maxBytes);
+        }
+        this.maxStreams = maxStreams;
+        this.maxBytes = maxBytes;
+    }
+
+    public static StreamTailCachePolicy streamTailCachePolicy(int maxStreams, long maxBytes) {
+        return new StreamTailCachePolicy(maxStreams, maxBytes);
+    }
+
+    @Override
+    public String toString() {
+        return "StreamTailCachePolicy{" +
+                "maxStreams=" + maxStreams +
+                ", maxBytes=" + maxBytes +
+                '}';
+    }
+}
@@ -0,0 +1,223 @@
+package com.timgroup.eventstore.mysql;
+
+import com.codahale.metrics.Timer;
+import com.timgroup.eventstore.api.ResolvedEvent;
+import com.timgroup.eventstore.api.StreamId;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static com.timgroup.eventstore.mysql.EventSpliterator.EVENT_COLUMNS;
+import static com.timgroup.eventstore.mysql.EventSpliterator.executeQuery;
+import static com.timgroup.eventstore.mysql.EventSpliterator.prepareStreamingStatement;
+import static com.timgroup.eventstore.mysql.EventSpliterator.readAllParameters;
+import static com.timgroup.eventstore.mysql.EventSpliterator.readAllQueryString;
+import static com.timgroup.eventstore.mysql.EventSpliterator.readCategoryParameters;
+import static com.timgroup.eventstore.mysql.EventSpliterator.readCategoryQueryString;
+import static com.timgroup.eventstore.mysql.EventSpliterator.readCategoryRangeParameters;
+import static com.timgroup.eventstore.mysql.EventSpliterator.readCategoryRangeQueryString;
+import static com.timgroup.eventstore.mysql.EventSpliterator.readStreamParameters;
+import static com.timgroup.eventstore.mysql.EventSpliterator.readStreamQueryString;
+import static com.timgroup.eventstore.mysql.EventSpliterator.resolvedEventFrom;
+import static java.lang.Long.MAX_VALUE;
+
+/**
+ * Emits events as rows arrive from an open streaming cursor, rather than buffering a whole page first.
+ *
+ * The cursor is re-opened from the last emitted event whenever the {@link StreamingReadPolicy} says it has
+ * been held for long enough, so a slow consumer cannot pin a connection indefinitely. Streams backed by this
+ * spliterator must be closed if they are not read to the end.
+ */
+class StreamingEventSpliterator<T> implements Spliterator<ResolvedEvent>, AutoCloseable {
+    private final ConnectionProvider connectionProvider;
+    private final String sql;
+    private final EventSpliterator.StatementParameters<T> statementParameters;
+    private final Function<ResolvedEvent, T> locationPointerExtractor;
+    private final StreamingReadPolicy policy;
+    private final QueryTimers timers;
+
+    private T locationPointer;
+    private Connection connection;
+    private PreparedStatement statement;
+    private ResultSet resultSet;
+    private long cursorOpenedAtNanos;
+    private int rowsReadFromCursor;
+    private boolean streamExhausted = false;
+
+    static StreamingEventSpliterator<BasicMysqlEventStorePosition> readAllEventSpliterator(ConnectionProvider connectionProvider,
+                                                                                           StreamingReadPolicy policy,
+                                                                                           String tableName,
+                                                                                           BasicMysqlEventStorePosition startingPosition,
+                                                                                           QueryTimers timers)
+    {
+        return new StreamingEventSpliterator<>(
+                connectionProvider,
+                policy,
+                startingPosition,
+                readAllQueryString(EVENT_COLUMNS, tableName, false),
+                readAllParameters(),
+                resolvedEvent -> (BasicMysqlEventStorePosition) resolvedEvent.position(),
+                timers);
+    }
+
+    static StreamingEventSpliterator<BasicMysqlEventStorePosition> readCategoryEventSpliterator(ConnectionProvider connectionProvider,
+                                                                                                StreamingReadPolicy policy,
+                                                                                                String tableName,
+                                                                                                String category,
+                                                                                                BasicMysqlEventStorePosition startingPosition,
+                                                                                                QueryTimers timers)
+    {
+        return new StreamingEventSpliterator<>(
+                connectionProvider,
+                policy,
+                startingPosition,
+                readCategoryQueryString(EVENT_COLUMNS, tableName, false),
+                readCategoryParameters(category),
+                resolvedEvent -> (BasicMysqlEventStorePosition) resolvedEvent.position(),
+                timers);
+    }
+
+    static StreamingEventSpliterator<BasicMysqlEventStorePosition> readCategoryRangeEventSpliterator(ConnectionProvider connectionProvider,
+                                                                                                     StreamingReadPolicy policy,
+                                                                                                     String tableName,
+                                                                                                     String category,
+                                                                                                     BasicMysqlEventStorePosition startingPosition,
+                                                                                                     long lastPositionInclusive,
+                                                                                                     QueryTimers timers)
+    {
+        return new StreamingEventSpliterator<>(
+                connectionProvider,
+                policy,
+                startingPosition,
+                readCategoryRangeQueryString(tableName),
+                readCategoryRangeParameters(category, lastPositionInclusive),
+                resolvedEvent -> (BasicMysqlEventStorePosition) resolvedEvent.position(),
+                timers);
+    }
+
+    static StreamingEventSpliterator<Long> readStreamEventSpliterator(ConnectionProvider connectionProvider,
+                                                                      StreamingReadPolicy policy,
+                                                                      String tableName,
+                                                                      StreamId streamId,
+                                                                      long startingEventNumber,
+                                                                      QueryTimers timers)
+    {
+        return new StreamingEventSpliterator<>(
+                connectionProvider,
+                policy,
+                startingEventNumber,
+                readStreamQueryString(tableName, false),
+                readStreamParameters(streamId),
+                resolvedEvent -> resolvedEvent.eventRecord().eventNumber(),
+                timers);
+    }
+
+    StreamingEventSpliterator(
+            ConnectionProvider connectionProvider,
+            StreamingReadPolicy policy,
+            T startingLocation,
+            String sql,
+            EventSpliterator.StatementParameters<T> statementParameters,
+            Function<ResolvedEvent, T> locationPointerExtractor,
+            QueryTimers timers)
+    {
+        this.connectionProvider = connectionProvider;
+        this.policy = policy;
+        this.locationPointer = startingLocation;
+        this.sql = sql;
+        this.statementParameters = statementParameters;
+        this.locationPointerExtractor = locationPointerExtractor;
+        this.timers = timers;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super ResolvedEvent> action) {
+        if (streamExhausted) {
+            return false;
+        }
+
+        try {
+            if (resultSet != null && heldForTooLong()) {
+                closeCursor();
+            }
+
+            while (true) {
+                if (resultSet == null) {
+                    openCursor();
+                }
+
+                if (resultSet.next()) {
+                    rowsReadFromCursor++;
+                    ResolvedEvent next = resolvedEventFrom(resultSet);
+                    locationPointer = locationPointerExtractor.apply(next);
+                    action.accept(next);
+                    return true;
+                }
+
+                boolean cursorWasEmpty = rowsReadFromCursor == 0;
+                closeCursor();
+                if (cursorWasEmpty) {
+                    streamExhausted = true;
+                    return false;
+                }
+            }
+        } catch (SQLException e) {
+            close();
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            closeCursor();
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public Spliterator<ResolvedEvent> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return MAX_VALUE;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL | DISTINCT;
+    }
+
+    private boolean heldForTooLong() {
+        return System.nanoTime() - cursorOpenedAtNanos >= policy.maxCursorHoldTime.toNanos();
+    }
+
+    private void openCursor() throws SQLException {
+        try (Timer.Context c = timers.timePageFetch()) {
+            connection = connectionProvider.getConnection();
+            statement = prepareStreamingStatement(connection, sql, timers);
+            resultSet = executeQuery(statement, statementParameters, locationPointer, policy.maxRowsPerCursor, timers);
+            cursorOpenedAtNanos = System.nanoTime();
+            rowsReadFromCursor = 0;
+        } catch (SQLException e) {
+            closeCursor();
+            throw e;
+        }
+    }
+
+    private void closeCursor() throws SQLException {
+        try (Connection c = connection; PreparedStatement s = statement; ResultSet r = resultSet) {
+            resultSet = null;
+            statement = null;
+            connection = null;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.timgroup.eventstore.mysql;
+
+import java.time.Duration;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Bounds how long a streaming read may keep a database cursor (and so a connection) open.
+ *
+ * A cursor is closed and re-opened from the last emitted position once it has been open for longer than
+ * {@code maxCursorHoldTime}, or once it has returned {@code maxRowsPerCursor} rows.
+ *
+ * A read of several categories needs a cursor per category, all open at once. It only streams when it needs no
+ * more than {@code maxConcurrentCursors} of them, and otherwise pages, so that it cannot wait forever on a pool
+ * whose connections are held by its own cursors or by those of other such reads. Keep it no more than the pool
+ * size divided by the number of multi-category reads that may run at once.
+ */
+public final class StreamingReadPolicy {
+    final Duration maxCursorHoldTime;
+    final int maxRowsPerCursor;
+    final int maxConcurrentCursors;
+
+    private StreamingReadPolicy(Duration maxCursorHoldTime, int maxRowsPerCursor, int maxConcurrentCursors) {
+        this.maxCursorHoldTime = requireNonNull(maxCursorHoldTime);
+        if (maxCursorHoldTime.isNegative() || maxCursorHoldTime.isZero()) {
+            throw new IllegalArgumentException("maxCursorHoldTime must be positive. Got " + maxCursorHoldTime);
+        }
+        if (maxRowsPerCursor <= 0) {
+            throw new IllegalArgumentException("maxRowsPerCursor must be positive. Got " + maxRowsPerCursor);
+        }
+        if (maxConcurrentCursors <= 0) {
+            throw new IllegalArgumentException("maxConcurrentCursors must be positive. Got " + maxConcurrentCursors);
+        }
+        this.maxRowsPerCursor = maxRowsPerCursor;
+        this.maxConcurrentCursors = maxConcurrentCursors;
+    }
+
+    /**
+     * @return a policy under which reads of more than one category page rather than stream
+     */
+    public static StreamingReadPolicy streamingReadPolicy(Duration maxCursorHoldTime, int maxRowsPerCursor) {
+        return new StreamingReadPolicy(maxCursorHoldTime, maxRowsPerCursor, 1);
+    }
+
+    public static StreamingReadPolicy streamingReadPolicy(Duration maxCursorHoldTime, int maxRowsPerCursor, int maxConcurrentCursors) {
+        return new StreamingReadPolicy(maxCursorHoldTime, maxRowsPerCursor, maxConcurrentCursors);
+    }
+
+    @Override
+    public String toString() {
+        return "StreamingReadPolicy{" +
+                "maxCursorHoldTime=" + maxCursorHoldTime +
+                ", maxRowsPerCursor=" + maxRowsPerCursor +
+                ", maxConcurrentCursors=" + maxConcurrentCursors +
+                '}';
+    }
+}
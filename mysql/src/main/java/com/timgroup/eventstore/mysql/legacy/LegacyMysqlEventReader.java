@@ -1,7 +1,6 @@
 package com.timgroup.eventstore.mysql.legacy;
 
 import com.codahale.metrics.MetricRegistry;
-import com.codahale.metrics.Timer;
 import com.timgroup.eventstore.api.EventCategoryReader;
 import com.timgroup.eventstore.api.EventReader;
 import com.timgroup.eventstore.api.EventStreamReader;
@@ -10,6 +9,9 @@ import com.timgroup.eventstore.api.Position;
 import com.timgroup.eventstore.api.ResolvedEvent;
 import com.timgroup.eventstore.api.StreamId;
 import com.timgroup.eventstore.mysql.ConnectionProvider;
+import com.timgroup.eventstore.mysql.PrefetchPolicy;
+import com.timgroup.eventstore.mysql.PrefetchingEventSpliterator;
+import com.timgroup.eventstore.mysql.QueryTimers;
 
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
@@ -29,14 +31,20 @@ public final class LegacyMysqlEventReader implements EventReader, EventStreamRea
     private final String tableName;
     private final StreamId pretendStreamId;
     private final int batchSize;
-    private final Optional<Timer> timer;
+    private final QueryTimers timers;
+    private final Optional<PrefetchPolicy> prefetchPolicy;
 
     public LegacyMysqlEventReader(ConnectionProvider connectionProvider, String database, String tableName, StreamId pretendStreamId, int batchSize, @Nullable MetricRegistry metricRegistry) {
+        this(connectionProvider, database, tableName, pretendStreamId, batchSize, metricRegistry, null);
+    }
+
+    public LegacyMysqlEventReader(ConnectionProvider connectionProvider, String database, String tableName, StreamId pretendStreamId, int batchSize, @Nullable MetricRegistry metricRegistry, @Nullable PrefetchPolicy prefetchPolicy) {
         this.connectionProvider = connectionProvider;
         this.tableName = tableName;
         this.pretendStreamId = pretendStreamId;
         this.batchSize = batchSize;
-        this.timer = Optional.ofNullable(metricRegistry).map(r -> r.timer(String.format("database.%s.%s.read.page_fetch_time", database, tableName)));
+        this.timers = QueryTimers.queryTimers(metricRegistry, database, tableName, "read");
+        this.prefetchPolicy = Optional.ofNullable(prefetchPolicy);
     }
 
     @Nonnull
@@ -62,17 +70,21 @@ public final class LegacyMysqlEventReader implements EventReader, EventStreamRea
     @CheckReturnValue
     @Override
     public Stream<ResolvedEvent> readAllForwards(Position positionExclusive) {
-        return stream(
-                new LegacyMysqlEventSpliterator(
-                    connectionProvider,
-                    batchSize,
-                    tableName,
-                    pretendStreamId,
-                    (LegacyMysqlEventPosition)positionExclusive,
-                    false,
-                        timer),
-                false
-        );
+        LegacyMysqlEventSpliterator spliterator = new LegacyMysqlEventSpliterator(
+                connectionProvider,
+                batchSize,
+                tableName,
+                pretendStreamId,
+                (LegacyMysqlEventPosition) positionExclusive,
+                false,
+                timers);
+
+        if (prefetchPolicy.isPresent()) {
+            PrefetchingEventSpliterator<LegacyMysqlEventPosition> prefetching = spliterator.prefetching(prefetchPolicy.get());
+            return stream(prefetching, false).onClose(prefetching::close);
+        }
+
+        return stream(spliterator, false);
     }
 
     @Nonnull
@@ -173,6 +185,7 @@ public final class LegacyMysqlEventReader implements EventReader, EventStreamRea
                 "tableName='" + tableName + '\'' +
                 ", pretendStreamId=" + pretendStreamId +
                 ", batchSize=" + batchSize +
+                ", prefetchPolicy=" + prefetchPolicy +
                 '}';
     }
 
@@ -185,7 +198,7 @@ public final class LegacyMysqlEventReader implements EventReader, EventStreamRea
                         pretendStreamId,
                         positionExclusive,
                         true,
-                        timer
+                        timers
 
                 ),
                 false
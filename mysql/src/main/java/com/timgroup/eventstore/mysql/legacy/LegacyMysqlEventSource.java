@@ -10,6 +10,7 @@ import com.timgroup.eventstore.api.EventStreamWriter;
 import com.timgroup.eventstore.api.PositionCodec;
 import com.timgroup.eventstore.api.StreamId;
 import com.timgroup.eventstore.mysql.ConnectionProvider;
+import com.timgroup.eventstore.mysql.PrefetchPolicy;
 import com.timgroup.eventstore.mysql.StacksConfiguredDataSource;
 import com.timgroup.tucker.info.Component;
 import com.timgroup.tucker.info.component.DatabaseConnectionComponent;
@@ -37,11 +38,15 @@ public class LegacyMysqlEventSource implements EventSource {
     private final LegacyMysqlEventStreamWriter eventStreamWriter;
 
     public LegacyMysqlEventSource(ConnectionProvider connectionProvider, String tableName, StreamId pretendStreamId, int batchSize, String name, @Nullable MetricRegistry metricRegistry) {
+        this(connectionProvider, tableName, pretendStreamId, batchSize, name, metricRegistry, null);
+    }
+
+    public LegacyMysqlEventSource(ConnectionProvider connectionProvider, String tableName, StreamId pretendStreamId, int batchSize, String name, @Nullable MetricRegistry metricRegistry, @Nullable PrefetchPolicy prefetchPolicy) {
         this.connectionProvider = connectionProvider;
         this.tableName = tableName;
         this.name = name;
         String database = databaseName(connectionProvider);
-        this.eventReader = new LegacyMysqlEventReader(connectionProvider, database, tableName, pretendStreamId, batchSize, metricRegistry);
+        this.eventReader = new LegacyMysqlEventReader(connectionProvider, database, tableName, pretendStreamId, batchSize, metricRegistry, prefetchPolicy);
         this.eventStreamWriter = new LegacyMysqlEventStreamWriter(connectionProvider, database, tableName, pretendStreamId, metricRegistry);
     }
 
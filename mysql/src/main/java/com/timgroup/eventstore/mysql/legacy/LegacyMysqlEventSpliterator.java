@@ -4,17 +4,19 @@ import com.codahale.metrics.Timer;
 import com.timgroup.eventstore.api.ResolvedEvent;
 import com.timgroup.eventstore.api.StreamId;
 import com.timgroup.eventstore.mysql.ConnectionProvider;
+import com.timgroup.eventstore.mysql.PrefetchPolicy;
+import com.timgroup.eventstore.mysql.PrefetchingEventSpliterator;
+import com.timgroup.eventstore.mysql.QueryTimers;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Optional;
 import java.util.Spliterator;
 import java.util.function.Consumer;
 
@@ -25,21 +27,21 @@ import static java.lang.Long.MAX_VALUE;
 final class LegacyMysqlEventSpliterator implements Spliterator<ResolvedEvent> {
     private final ConnectionProvider connectionProvider;
     private final StreamId pretendStreamId;
-    private final String queryString;
+    private final String sql;
 
     private LegacyMysqlEventPosition lastPosition;
-    private final Optional<Timer> timer;
+    private final QueryTimers timers;
     private Iterator<ResolvedEvent> currentPage = Collections.emptyIterator();
     private boolean streamExhausted = false;
 
-    LegacyMysqlEventSpliterator(ConnectionProvider connectionProvider, int batchSize, String tableName, StreamId pretendStreamId, LegacyMysqlEventPosition startingPosition, boolean backwards, Optional<Timer> timer) {
+    LegacyMysqlEventSpliterator(ConnectionProvider connectionProvider, int batchSize, String tableName, StreamId pretendStreamId, LegacyMysqlEventPosition startingPosition, boolean backwards, QueryTimers timers) {
         this.connectionProvider = connectionProvider;
         this.pretendStreamId = pretendStreamId;
         this.lastPosition = startingPosition;
-        this.timer = timer;
-        this.queryString = "select version, effective_timestamp, eventType, body" +
+        this.timers = timers;
+        this.sql = "select version, effective_timestamp, eventType, body" +
                 " from " + tableName +
-                " where version " + (backwards ? "<" : ">") + " %s" +
+                " where version " + (backwards ? "<" : ">") + " ?" +
                 " order by version " + (backwards ? "desc" : "asc") +
                 " limit " + batchSize;
     }
@@ -47,32 +49,7 @@ final class LegacyMysqlEventSpliterator implements Spliterator<ResolvedEvent> {
     @Override
     public boolean tryAdvance(Consumer<? super ResolvedEvent> action) {
         if (!currentPage.hasNext() && !streamExhausted) {
-            try (Timer.Context c = timer.map(Timer::time).orElse(new Timer().time())) {
-                try (Connection connection = connectionProvider.getConnection();
-                     Statement statement = streamingStatementFrom(connection);
-                     ResultSet resultSet = statement.executeQuery(String.format(queryString, lastPosition.legacyVersion))
-                ) {
-                    List<ResolvedEvent> list = new ArrayList<>();
-
-                    while (resultSet.next()) {
-                        LegacyMysqlEventPosition position = LegacyMysqlEventPosition.fromLegacyVersion(resultSet.getLong("version"));
-                        Timestamp effectiveTimestamp = resultSet.getTimestamp("effective_timestamp");
-                        list.add(new ResolvedEvent(
-                                position,
-                                eventRecord(
-                                        effectiveTimestamp.toInstant(),
-                                        pretendStreamId,
-                                        position.toEventNumber(),
-                                        resultSet.getString("eventType"),
-                                        resultSet.getBytes("body"),
-                                        LegacyMysqlMetadataCodec.metadataFrom(effectiveTimestamp)
-                                )));
-                    }
-                    currentPage = list.iterator();
-                } catch (SQLException e) {
-                    throw new RuntimeException(e);
-                }
-            }
+            currentPage = fetchPage(lastPosition).iterator();
         }
 
         if (currentPage.hasNext()) {
@@ -86,6 +63,39 @@ final class LegacyMysqlEventSpliterator implements Spliterator<ResolvedEvent> {
         }
     }
 
+    PrefetchingEventSpliterator<LegacyMysqlEventPosition> prefetching(PrefetchPolicy prefetchPolicy) {
+        return new PrefetchingEventSpliterator<>(prefetchPolicy, lastPosition, this::fetchPage, event -> (LegacyMysqlEventPosition) event.position());
+    }
+
+    private List<ResolvedEvent> fetchPage(LegacyMysqlEventPosition pagePosition) {
+        try (Timer.Context c = timers.timePageFetch()) {
+            try (Connection connection = connectionProvider.getConnection();
+                 PreparedStatement statement = prepareStreamingStatement(connection);
+                 ResultSet resultSet = executeQuery(statement, pagePosition)
+            ) {
+                List<ResolvedEvent> list = new ArrayList<>();
+
+                while (resultSet.next()) {
+                    LegacyMysqlEventPosition position = LegacyMysqlEventPosition.fromLegacyVersion(resultSet.getLong("version"));
+                    Timestamp effectiveTimestamp = resultSet.getTimestamp("effective_timestamp");
+                    list.add(new ResolvedEvent(
+                            position,
+                            eventRecord(
+                                    effectiveTimestamp.toInstant(),
+                                    pretendStreamId,
+                                    position.toEventNumber(),
+                                    resultSet.getString("eventType"),
+                                    resultSet.getBytes("body"),
+                                    LegacyMysqlMetadataCodec.metadataFrom(effectiveTimestamp)
+                            )));
+                }
+                return list;
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
     @Override
     public Spliterator<ResolvedEvent> trySplit() {
         return null;
@@ -101,9 +111,18 @@ final class LegacyMysqlEventSpliterator implements Spliterator<ResolvedEvent> {
         return ORDERED | NONNULL | DISTINCT;
     }
 
-    private static Statement streamingStatementFrom(Connection connection) throws SQLException {
-        Statement statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
-        statement.setFetchSize(MIN_VALUE);
-        return statement;
+    private PreparedStatement prepareStreamingStatement(Connection connection) throws SQLException {
+        try (Timer.Context c = timers.timePrepare()) {
+            PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(MIN_VALUE);
+            return statement;
+        }
+    }
+
+    private ResultSet executeQuery(PreparedStatement statement, LegacyMysqlEventPosition pagePosition) throws SQLException {
+        try (Timer.Context c = timers.timeExecute()) {
+            statement.setLong(1, pagePosition.legacyVersion);
+            return statement.executeQuery();
+        }
     }
 }
@@ -0,0 +1,77 @@
+package com.timgroup.eventstore.mysql;
+
+import org.junit.Test;
+
+import static com.timgroup.eventstore.mysql.AdaptivePageSizePolicy.adaptivePageSizePolicy;
+import static java.time.Duration.ofMillis;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class AdaptivePageSizerTest {
+    private final AdaptivePageSizer pageSizer = new AdaptivePageSizer(adaptivePageSizePolicy(10, 10_000, ofMillis(100), 1_000_000), 1_000);
+
+    @Test public void
+    starts_with_the_initial_page_size_clamped_to_the_policy_bounds() {
+        assertThat(pageSizer.nextPageSize(), is(1_000));
+        assertThat(new AdaptivePageSizer(adaptivePageSizePolicy(10, 100, ofMillis(100), 1_000_000), 1_000).nextPageSize(), is(100));
+        assertThat(new AdaptivePageSizer(adaptivePageSizePolicy(10, 100, ofMillis(100), 1_000_000), 1).nextPageSize(), is(10));
+    }
+
+    @Test public void
+    grows_full_pages_that_are_fetched_faster_than_the_target_latency() {
+        pageSizer.pageFetched(1_000, 1_000, 1_000, MILLISECONDS.toNanos(50));
+
+        assertThat(pageSizer.nextPageSize(), is(1_500));
+    }
+
+    @Test public void
+    shrinks_pages_that_are_slower_than_the_target_latency() {
+        pageSizer.pageFetched(1_000, 1_000, 1_000, MILLISECONDS.toNanos(200));
+
+        assertThat(pageSizer.nextPageSize(), is(750));
+    }
+
+    @Test public void
+    shrinks_pages_that_carry_more_than_the_target_bytes() {
+        pageSizer.pageFetched(1_000, 1_000, 4_000_000, MILLISECONDS.toNanos(10));
+
+        assertThat(pageSizer.nextPageSize(), is(625));
+    }
+
+    @Test public void
+    at_most_doubles_the_page_size_at_once() {
+        pageSizer.pageFetched(1_000, 1_000, 1, 1);
+
+        assertThat(pageSizer.nextPageSize(), is(2_000));
+    }
+
+    @Test public void
+    does_not_grow_on_short_pages() {
+        pageSizer.pageFetched(1_000, 10, 10, MILLISECONDS.toNanos(1));
+
+        assertThat(pageSizer.nextPageSize(), is(1_000));
+    }
+
+    @Test public void
+    ignores_empty_pages() {
+        pageSizer.pageFetched(1_000, 0, 0, MILLISECONDS.toNanos(500));
+
+        assertThat(pageSizer.nextPageSize(), is(1_000));
+    }
+
+    @Test public void
+    stays_within_the_policy_bounds() {
+        for (int i = 0; i < 20; i++) {
+            pageSizer.pageFetched(pageSizer.nextPageSize(), pageSizer.nextPageSize(), 1, 1);
+        }
+
+        assertThat(pageSizer.nextPageSize(), is(10_000));
+
+        for (int i = 0; i < 20; i++) {
+            pageSizer.pageFetched(pageSizer.nextPageSize(), pageSizer.nextPageSize(), 1_000_000_000, MILLISECONDS.toNanos(10_000));
+        }
+
+        assertThat(pageSizer.nextPageSize(), is(10));
+    }
+}
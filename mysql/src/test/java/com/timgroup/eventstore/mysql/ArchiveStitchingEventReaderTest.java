@@ -0,0 +1,196 @@
+package com.timgroup.eventstore.mysql;
+
+import com.timgroup.eventstore.api.EventReader;
+import com.timgroup.eventstore.api.Position;
+import com.timgroup.eventstore.api.ResolvedEvent;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.annotation.Nonnull;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static com.timgroup.eventstore.api.EventRecord.eventRecord;
+import static com.timgroup.eventstore.api.StreamId.streamId;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+public class ArchiveStitchingEventReaderTest {
+    @Rule
+    public final TemporaryFolder archiveDirectory = new TemporaryFolder();
+
+    private final Instant start = Instant.parse("2017-05-01T10:15:30.123456Z");
+    private final List<ResolvedEvent> events = LongStream.rangeClosed(1, 25).mapToObj(this::eventAt).collect(toList());
+
+    @Test public void
+    reads_archived_events_followed_by_live_events() {
+        EventReader reader = readerArchivingBelow(10, 20);
+
+        assertThat(reader.readAllForwards().collect(toList()), equalTo(events));
+        assertThat(positionsOf(reader.readAllForwards(new BasicMysqlEventStorePosition(8))), contains(9L, 10L, 11L, 12L, 13L, 14L, 15L, 16L, 17L, 18L, 19L, 20L, 21L, 22L, 23L, 24L, 25L));
+        assertThat(positionsOf(reader.readAllForwards(new BasicMysqlEventStorePosition(22))), contains(23L, 24L, 25L));
+    }
+
+    @Test public void
+    reads_partitions_archived_while_reading_the_archive() {
+        PartitionArchive archive = new PartitionArchive(archiveDirectory.getRoot().toPath(), "events");
+        List<ResolvedEvent> live = new ArrayList<>(events);
+        archiveBelow(archive, live, 10);
+        EventReader reader = new ArchiveStitchingEventReader(archive, new ListEventReader(live));
+
+        Iterator<ResolvedEvent> iterator = reader.readAllForwards().iterator();
+        List<ResolvedEvent> read = new ArrayList<>();
+        read.add(iterator.next());
+        read.add(iterator.next());
+        archiveBelow(archive, live, 15);
+        iterator.forEachRemaining(read::add);
+
+        assertThat(read, equalTo(events));
+    }
+
+    @Test public void
+    reads_the_table_once() {
+        PartitionArchive archive = new PartitionArchive(archiveDirectory.getRoot().toPath(), "events");
+        List<ResolvedEvent> live = new ArrayList<>(events);
+        archiveBelow(archive, live, 10);
+        ListEventReader liveReader = new ListEventReader(live);
+        EventReader reader = new ArchiveStitchingEventReader(archive, liveReader);
+
+        assertThat(reader.readAllForwards().collect(toList()), equalTo(events));
+        assertThat(liveReader.forwardsReads, equalTo(1));
+    }
+
+    @Test public void
+    reads_partitions_archived_while_reading_the_table() {
+        PartitionArchive archive = new PartitionArchive(archiveDirectory.getRoot().toPath(), "events");
+        List<ResolvedEvent> live = new ArrayList<>(events);
+        archiveBelow(archive, live, 10);
+        EventReader reader = new ArchiveStitchingEventReader(archive, new ListEventReader(live));
+
+        Iterator<ResolvedEvent> iterator = reader.readAllForwards(new BasicMysqlEventStorePosition(9)).iterator();
+        List<ResolvedEvent> read = new ArrayList<>();
+        read.add(iterator.next());
+        archiveBelow(archive, live, 15);
+        iterator.forEachRemaining(read::add);
+
+        assertThat(read, equalTo(events.subList(9, events.size())));
+    }
+
+    @Test public void
+    reads_live_events_followed_by_archived_events_backwards() {
+        EventReader reader = readerArchivingBelow(10, 20);
+
+        List<ResolvedEvent> backwards = new ArrayList<>(events);
+        Collections.reverse(backwards);
+        assertThat(reader.readAllBackwards().collect(toList()), equalTo(backwards));
+        assertThat(positionsOf(reader.readAllBackwards(new BasicMysqlEventStorePosition(12))), contains(11L, 10L, 9L, 8L, 7L, 6L, 5L, 4L, 3L, 2L, 1L));
+        assertThat(positionsOf(reader.readAllBackwards(new BasicMysqlEventStorePosition(23))), contains(22L, 21L, 20L, 19L, 18L, 17L, 16L, 15L, 14L, 13L, 12L, 11L, 10L, 9L, 8L, 7L, 6L, 5L, 4L, 3L, 2L, 1L));
+    }
+
+    @Test public void
+    seeks_timestamps_in_the_archive() {
+        EventReader reader = readerArchivingBelow(10, 20);
+
+        assertThat(positionsOf(reader.readAllForwardsFrom(start.plusSeconds(5)).limit(2)), contains(5L, 6L));
+        assertThat(positionsOf(reader.readAllForwardsFrom(start.plusSeconds(22)).limit(2)), contains(22L, 23L));
+    }
+
+    private EventReader readerArchivingBelow(long... upperBounds) {
+        PartitionArchive archive = new PartitionArchive(archiveDirectory.getRoot().toPath(), "events");
+        List<ResolvedEvent> live = new ArrayList<>(events);
+        for (long upperBound : upperBounds) {
+            archiveBelow(archive, live, upperBound);
+        }
+        return new ArchiveStitchingEventReader(archive, new ListEventReader(live));
+    }
+
+    private static void archiveBelow(PartitionArchive archive, List<ResolvedEvent> live, long upperBound) {
+        archive.write("p" + upperBound, upperBound, live.stream().filter(e -> positionOf(e) < upperBound).iterator());
+        live.removeIf(e -> positionOf(e) < upperBound);
+    }
+
+    private ResolvedEvent eventAt(long position) {
+        return eventRecord(start.plusSeconds(position), streamId("alpha", "1"), position - 1, "Type", ("data-" + position).getBytes(UTF_8), "{}".getBytes(UTF_8))
+                .toResolvedEvent(new BasicMysqlEventStorePosition(position));
+    }
+
+    private static List<Long> positionsOf(Stream<ResolvedEvent> events) {
+        return events.map(ArchiveStitchingEventReaderTest::positionOf).collect(toList());
+    }
+
+    private static long positionOf(ResolvedEvent event) {
+        return ((BasicMysqlEventStorePosition) event.position()).value;
+    }
+
+    /**
+     * Reads forwards an event at a time, like a table read in pages, so it sees events removed during a read.
+     */
+    private static final class ListEventReader implements EventReader {
+        private final List<ResolvedEvent> events;
+        private int forwardsReads = 0;
+
+        private ListEventReader(List<ResolvedEvent> events) {
+            this.events = events;
+        }
+
+        @Nonnull
+        @Override
+        public Stream<ResolvedEvent> readAllForwards(Position positionExclusive) {
+            forwardsReads++;
+            Iterator<ResolvedEvent> iterator = new Iterator<ResolvedEvent>() {
+                private long position = ((BasicMysqlEventStorePosition) positionExclusive).value;
+
+                @Override
+                public boolean hasNext() {
+                    return nextEvent().isPresent();
+                }
+
+                @Override
+                public ResolvedEvent next() {
+                    ResolvedEvent event = nextEvent().orElseThrow(NoSuchElementException::new);
+                    position = positionOf(event);
+                    return event;
+                }
+
+                private Optional<ResolvedEvent> nextEvent() {
+                    return events.stream().filter(e -> positionOf(e) > position).findFirst();
+                }
+            };
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false);
+        }
+
+        @Nonnull
+        @Override
+        public Stream<ResolvedEvent> readAllBackwards() {
+            return readAllBackwards(new BasicMysqlEventStorePosition(Long.MAX_VALUE));
+        }
+
+        @Nonnull
+        @Override
+        public Stream<ResolvedEvent> readAllBackwards(Position positionExclusive) {
+            List<ResolvedEvent> backwards = events.stream().filter(e -> positionOf(e) < ((BasicMysqlEventStorePosition) positionExclusive).value).collect(toList());
+            Collections.reverse(backwards);
+            return backwards.stream();
+        }
+
+        @Nonnull
+        @Override
+        public Position emptyStorePosition() {
+            return BasicMysqlEventStorePosition.EMPTY_STORE_POSITION;
+        }
+    }
+}
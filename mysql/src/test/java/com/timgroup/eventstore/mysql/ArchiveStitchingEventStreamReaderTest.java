@@ -0,0 +1,119 @@
+package com.timgroup.eventstore.mysql;
+
+import com.timgroup.eventstore.api.EventStreamReader;
+import com.timgroup.eventstore.api.NoSuchStreamException;
+import com.timgroup.eventstore.api.ResolvedEvent;
+import com.timgroup.eventstore.api.StreamId;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.annotation.Nonnull;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.timgroup.eventstore.api.EventRecord.eventRecord;
+import static com.timgroup.eventstore.api.StreamId.streamId;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+public class ArchiveStitchingEventStreamReaderTest {
+    @Rule
+    public final TemporaryFolder archiveDirectory = new TemporaryFolder();
+
+    private final Instant start = Instant.parse("2017-05-01T10:15:30.123456Z");
+    private final StreamId archived = streamId("alpha", "archived");
+    private final StreamId spanning = streamId("alpha", "spanning");
+    private final StreamId live = streamId("alpha", "live");
+
+    private final List<ResolvedEvent> events = new ArrayList<>();
+    private EventStreamReader reader;
+
+    @Before
+    public void archive_the_first_partition() {
+        events.add(eventAt(1, archived, 0));
+        events.add(eventAt(2, spanning, 0));
+        events.add(eventAt(3, archived, 1));
+        events.add(eventAt(4, spanning, 1));
+        events.add(eventAt(5, spanning, 2));
+        events.add(eventAt(6, live, 0));
+        events.add(eventAt(7, spanning, 3));
+
+        PartitionArchive archive = new PartitionArchive(archiveDirectory.getRoot().toPath(), "events");
+        archive.write("p5", 5, events.stream().filter(e -> positionOf(e) < 5).iterator());
+        reader = new ArchiveStitchingEventStreamReader(archive, new ListEventStreamReader(events.stream().filter(e -> positionOf(e) >= 5).collect(toList())));
+    }
+
+    @Test public void
+    reads_streams_forwards_across_the_archive() {
+        assertThat(positionsOf(reader.readStreamForwards(spanning)), contains(2L, 4L, 5L, 7L));
+        assertThat(positionsOf(reader.readStreamForwards(spanning, 0)), contains(4L, 5L, 7L));
+        assertThat(positionsOf(reader.readStreamForwards(spanning, 1)), contains(5L, 7L));
+        assertThat(positionsOf(reader.readStreamForwards(archived)), contains(1L, 3L));
+        assertThat(positionsOf(reader.readStreamForwards(archived, 0)), contains(3L));
+        assertThat(positionsOf(reader.readStreamForwards(live)), contains(6L));
+    }
+
+    @Test public void
+    reads_streams_backwards_across_the_archive() {
+        assertThat(positionsOf(reader.readStreamBackwards(spanning)), contains(7L, 5L, 4L, 2L));
+        assertThat(positionsOf(reader.readStreamBackwards(spanning, 2)), contains(4L, 2L));
+        assertThat(positionsOf(reader.readStreamBackwards(archived)), contains(3L, 1L));
+        assertThat(positionOf(reader.readLastEventInStream(archived)), is(3L));
+    }
+
+    @Test(expected = NoSuchStreamException.class) public void
+    fails_to_read_a_stream_in_neither_the_archive_nor_the_table() {
+        reader.readStreamForwards(streamId("alpha", "missing")).count();
+    }
+
+    private ResolvedEvent eventAt(long position, StreamId streamId, long eventNumber) {
+        return eventRecord(start.plusSeconds(position), streamId, eventNumber, "Type", ("data-" + position).getBytes(UTF_8), "{}".getBytes(UTF_8))
+                .toResolvedEvent(new BasicMysqlEventStorePosition(position));
+    }
+
+    private static List<Long> positionsOf(Stream<ResolvedEvent> events) {
+        return events.map(ArchiveStitchingEventStreamReaderTest::positionOf).collect(toList());
+    }
+
+    private static long positionOf(ResolvedEvent event) {
+        return ((BasicMysqlEventStorePosition) event.position()).value;
+    }
+
+    private static final class ListEventStreamReader implements EventStreamReader {
+        private final List<ResolvedEvent> events;
+
+        private ListEventStreamReader(List<ResolvedEvent> events) {
+            this.events = events;
+        }
+
+        @Nonnull
+        @Override
+        public Stream<ResolvedEvent> readStreamForwards(StreamId streamId, long eventNumber) {
+            return eventsOf(streamId).stream().filter(e -> e.eventRecord().eventNumber() > eventNumber);
+        }
+
+        @Nonnull
+        @Override
+        public Stream<ResolvedEvent> readStreamBackwards(StreamId streamId, long eventNumber) {
+            List<ResolvedEvent> backwards = eventsOf(streamId).stream().filter(e -> e.eventRecord().eventNumber() < eventNumber).collect(toList());
+            Collections.reverse(backwards);
+            return backwards.stream();
+        }
+
+        private List<ResolvedEvent> eventsOf(StreamId streamId) {
+            List<ResolvedEvent> stream = events.stream().filter(e -> e.eventRecord().streamId().equals(streamId)).collect(toList());
+            if (stream.isEmpty()) {
+                throw new NoSuchStreamException(streamId);
+            }
+            return stream;
+        }
+    }
+}
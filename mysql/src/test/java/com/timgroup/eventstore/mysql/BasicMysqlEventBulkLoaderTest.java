@@ -0,0 +1,93 @@
+package com.timgroup.eventstore.mysql;
+
+import com.timgroup.eventstore.api.EventRecord;
+import com.timgroup.eventstore.api.ResolvedEvent;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.timgroup.eventstore.api.EventRecord.eventRecord;
+import static com.timgroup.eventstore.api.StreamId.streamId;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+
+public class BasicMysqlEventBulkLoaderTest {
+    static {
+        try {
+            DriverManager.registerDriver(new com.mysql.jdbc.Driver());
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private final ConnectionProvider connectionProvider = () -> DriverManager.getConnection("jdbc:mysql://localhost:3306/sql_eventstore?useGmtMillisForDatetimes=true&useJDBCCompliantTimezoneShift=true&useLegacyDatetimeCode=false&useTimezone=true&serverTimezone=UTC&allowLoadLocalInfile=true");
+
+    private final String tableName = "bulk_loaded_eventstore";
+
+    private final Instant timestamp = Instant.parse("2017-05-01T10:15:30.123456Z");
+
+    @Test public void
+    escapes_separators_in_rows() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        new BasicMysqlEventBulkLoader.Row(7, eventRecord(timestamp, streamId("alpha", "1"), 2, "Type", new byte[] { 'a', '\t', 0, '\\', '\n' }, "{}".getBytes(UTF_8))).writeTo(out);
+
+        assertThat(new String(out.toByteArray(), UTF_8), is("7\t2017-05-01 10:15:30.123456\talpha\t1\t2\tType\ta\\t\\0\\\\\\n\t{}\n"));
+    }
+
+    @Test public void
+    loads_events_keeping_their_positions_and_event_numbers() {
+        BasicMysqlEventSource eventSource = freshEventSource();
+        List<ResolvedEvent> events = asList(
+                eventRecord(timestamp, streamId("alpha", "1"), 0, "Type", "data\t0".getBytes(UTF_8), "{}".getBytes(UTF_8)).toResolvedEvent(new BasicMysqlEventStorePosition(10)),
+                eventRecord(timestamp, streamId("alpha", "1"), 1, "Type", "data\n1".getBytes(UTF_8), "{}".getBytes(UTF_8)).toResolvedEvent(new BasicMysqlEventStorePosition(20)),
+                eventRecord(timestamp, streamId("beta", "1"), 0, "Type", "data\\2".getBytes(UTF_8), "{}".getBytes(UTF_8)).toResolvedEvent(new BasicMysqlEventStorePosition(30)));
+
+        long loaded = eventSource.bulkLoader(2).load(events.stream());
+
+        assertThat(loaded, is(3L));
+        assertThat(eventSource.readAll().readAllForwards().collect(toList()), equalTo(events));
+    }
+
+    @Test public void
+    appends_events_after_the_last_position() {
+        BasicMysqlEventSource eventSource = freshEventSource();
+        eventSource.bulkLoader(10).load(Stream.of(eventRecord(timestamp, streamId("alpha", "1"), 0, "Type", new byte[0], new byte[0]).toResolvedEvent(new BasicMysqlEventStorePosition(5))));
+
+        eventSource.bulkLoader(10).append(Stream.of(eventRecord(timestamp, streamId("alpha", "1"), 1, "Type", new byte[0], new byte[0])));
+
+        assertThat(eventSource.readAll().readAllForwards().map(e -> e.position().toString()).collect(toList()), contains("5", "6"));
+    }
+
+    @Test public void
+    fails_chunk_with_duplicate_event_numbers() {
+        BasicMysqlEventSource eventSource = freshEventSource();
+        EventRecord event = eventRecord(timestamp, streamId("alpha", "1"), 0, "Type", new byte[0], new byte[0]);
+        eventSource.bulkLoader(10).append(Stream.of(event));
+
+        try {
+            eventSource.bulkLoader(10).append(Stream.of(eventRecord(timestamp, streamId("alpha", "2"), 0, "Type", new byte[0], new byte[0]), event));
+            fail("expected the load to fail");
+        } catch (IllegalStateException e) {
+            assertThat(eventSource.readAll().readAllForwards().count(), is(1L));
+        }
+    }
+
+    private BasicMysqlEventSource freshEventSource() {
+        BasicMysqlEventStoreSetup setup = new BasicMysqlEventStoreSetup(connectionProvider, tableName);
+        setup.drop();
+        setup.lazyCreate();
+        return new BasicMysqlEventSource(connectionProvider, tableName, 100_000, "test", null);
+    }
+}
@@ -2,16 +2,27 @@ package com.timgroup.eventstore.mysql;
 
 import com.timgroup.eventstore.api.EventSource;
 import com.timgroup.eventstore.api.JavaEventStoreTest;
+import com.timgroup.eventstore.api.ResolvedEvent;
 import com.typesafe.config.Config;
 import org.junit.After;
 import org.junit.Before;
+import org.junit.Test;
 
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import static com.timgroup.eventstore.api.NewEvent.newEvent;
+import static com.timgroup.eventstore.api.StreamId.streamId;
 import static com.typesafe.config.ConfigFactory.parseString;
 import static com.typesafe.config.ConfigParseOptions.defaults;
 import static com.typesafe.config.ConfigSyntax.PROPERTIES;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
 
 public class BasicMysqlEventSourceTest extends JavaEventStoreTest {
     static {
@@ -49,6 +60,24 @@ public class BasicMysqlEventSourceTest extends JavaEventStoreTest {
         return eventSource;
     }
 
+    @Test public void
+    reads_the_same_events_in_parallel_as_sequentially() {
+        eventSource.writeStream().write(streamId("alpha", "1"), IntStream.range(0, 50).mapToObj(i -> newEvent("Type", new byte[] { (byte) i })).collect(toList()));
+        BasicMysqlEventReader reader = new BasicMysqlEventReader(connectionProvider, "sql_eventstore", tableName, 3, null);
+
+        assertThat(reader.readAllForwardsInParallel(reader.emptyStorePosition()).collect(toList()), equalTo(reader.readAllForwards().collect(toList())));
+        assertThat(reader.readAllForwardsInParallel(new BasicMysqlEventStorePosition(20)).collect(toList()), equalTo(reader.readAllForwards(new BasicMysqlEventStorePosition(20)).collect(toList())));
+    }
+
+    @Test public void
+    reads_several_categories_only_up_to_the_head_when_the_read_started() {
+        eventSource.writeStream().write(streamId("alpha", "1"), singletonList(newEvent("Early", new byte[0])));
+        Stream<ResolvedEvent> events = eventSource.readCategory().readCategoriesForwards(asList("alpha", "beta"), eventSource.readAll().emptyStorePosition());
+        eventSource.writeStream().write(streamId("beta", "1"), singletonList(newEvent("Late", new byte[0])));
+
+        assertThat(events.map(e -> e.eventRecord().eventType()).collect(toList()), equalTo(singletonList("Early")));
+    }
+
     @After
     public void closeEventSource() {
         ((BasicMysqlEventSource.PooledMysqlEventSource)eventSource).close();
@@ -3,7 +3,11 @@ package com.timgroup.eventstore.mysql;
 import org.junit.Test;
 
 import static com.timgroup.eventstore.api.StreamId.streamId;
+import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 
 public class BasicMysqlEventStreamWriterTest {
     @Test public void
@@ -13,4 +17,10 @@ public class BasicMysqlEventStreamWriterTest {
         writer.write(streamId("", ""), emptyList());
         writer.write(streamId("", ""), emptyList(), 5);
     }
-}
\ No newline at end of file
+
+    @Test public void
+    buckets_version_lookups_by_number_of_streams_in_powers_of_two() {
+        assertThat(asList(1, 2, 3, 4, 5, 64, 65).stream().map(BasicMysqlEventStreamWriter::batchSizeBucket).collect(toList()),
+                contains("upto_1", "upto_2", "upto_4", "upto_4", "upto_8", "upto_64", "over_64"));
+    }
+}
@@ -0,0 +1,121 @@
+package com.timgroup.eventstore.mysql;
+
+import com.timgroup.eventstore.api.EventStreamWriter.StreamWriteRequest;
+import com.timgroup.eventstore.api.StreamId;
+import com.timgroup.eventstore.api.WrongExpectedVersionException;
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.timgroup.eventstore.api.NewEvent.newEvent;
+import static com.timgroup.eventstore.api.StreamId.streamId;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+public class GroupCommittingEventStreamWriterTest {
+    private final List<List<StreamId>> batches = new CopyOnWriteArrayList<>();
+    private final Map<StreamId, String> failingStreams = new HashMap<>();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    private final GroupCommittingEventStreamWriter writer = new GroupCommittingEventStreamWriter(
+            this::executeBatch, "test", Duration.ofSeconds(5), 3, Optional.empty(), Optional.empty());
+
+    @After
+    public void closeWriter() {
+        writer.close();
+        callers.shutdownNow();
+    }
+
+    @Test public void
+    commits_concurrent_writes_in_one_batch() throws Exception {
+        List<CompletableFuture<Object>> writes = asList(
+                writeInBackground(streamId("a", "1")),
+                writeInBackground(streamId("a", "2")),
+                writeInBackground(streamId("a", "3")));
+
+        for (CompletableFuture<Object> write : writes) {
+            assertThat(write.get(1, TimeUnit.SECONDS), is("written"));
+        }
+        assertThat(batches, hasSize(1));
+        assertThat(batches.get(0), containsInAnyOrder(streamId("a", "1"), streamId("a", "2"), streamId("a", "3")));
+    }
+
+    @Test public void
+    fails_only_the_caller_whose_expected_version_is_wrong() throws Exception {
+        failingStreams.put(streamId("a", "2"), "a/2: current version: 0, expected version: 5");
+
+        List<CompletableFuture<Object>> writes = asList(
+                writeInBackground(streamId("a", "1")),
+                writeInBackground(streamId("a", "2")),
+                writeInBackground(streamId("a", "3")));
+
+        List<Object> outcomes = new ArrayList<>();
+        for (CompletableFuture<Object> write : writes) {
+            outcomes.add(write.get(1, TimeUnit.SECONDS));
+        }
+        assertThat(outcomes.get(0), is("written"));
+        assertThat(outcomes.get(1), instanceOf(WrongExpectedVersionException.class));
+        assertThat(((Exception) outcomes.get(1)).getMessage(), is("a/2: current version: 0, expected version: 5"));
+        assertThat(outcomes.get(2), is("written"));
+    }
+
+    @Test public void
+    defers_writes_to_a_stream_already_in_the_batch_to_the_next_batch() throws Exception {
+        GroupCommittingEventStreamWriter shortDelayWriter = new GroupCommittingEventStreamWriter(
+                this::executeBatch, "test", Duration.ofMillis(200), 3, Optional.empty(), Optional.empty());
+        try {
+            List<CompletableFuture<Object>> writes = asList(
+                    writeInBackground(shortDelayWriter, streamId("a", "1")),
+                    writeInBackground(shortDelayWriter, streamId("a", "1")));
+
+            for (CompletableFuture<Object> write : writes) {
+                assertThat(write.get(5, TimeUnit.SECONDS), is("written"));
+            }
+            assertThat(batches, contains(singletonList(streamId("a", "1")), singletonList(streamId("a", "1"))));
+        } finally {
+            shortDelayWriter.close();
+        }
+    }
+
+    private Map<StreamId, String> executeBatch(Collection<StreamWriteRequest> writeRequests) {
+        List<StreamId> streamIds = writeRequests.stream().map(r -> r.streamId).collect(toList());
+        batches.add(streamIds);
+        Map<StreamId, String> failures = new HashMap<>(failingStreams);
+        failures.keySet().retainAll(streamIds);
+        return failures;
+    }
+
+    private CompletableFuture<Object> writeInBackground(StreamId streamId) {
+        return writeInBackground(writer, streamId);
+    }
+
+    private CompletableFuture<Object> writeInBackground(GroupCommittingEventStreamWriter writer, StreamId streamId) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                writer.write(streamId, singletonList(newEvent("Event", new byte[0], new byte[0])));
+                return "written";
+            } catch (RuntimeException e) {
+                return e;
+            }
+        }, callers);
+    }
+}
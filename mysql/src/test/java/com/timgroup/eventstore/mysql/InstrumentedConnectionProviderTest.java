@@ -0,0 +1,93 @@
+package com.timgroup.eventstore.mysql;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.timgroup.eventstore.mysql.InstrumentedConnectionProvider.instrumentedConnectionProvider;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+public class InstrumentedConnectionProviderTest {
+    private final MetricRegistry metricRegistry = new MetricRegistry();
+    private final AtomicInteger rowsLeft = new AtomicInteger(3);
+    private final ResultSet resultSet = stub(ResultSet.class, (method, args) -> method.equals("next") ? rowsLeft.getAndDecrement() > 0 : null);
+    private final PreparedStatement statement = stub(PreparedStatement.class, (method, args) -> method.equals("executeQuery") ? resultSet : null);
+    private final Connection connection = stub(Connection.class, (method, args) -> method.equals("prepareStatement") ? statement : null);
+
+    @Test public void
+    times_acquiring_executing_iterating_and_holding_connections_by_operation() throws SQLException {
+        ConnectionProvider provider = instrumentedConnectionProvider(() -> connection, "test", metricRegistry, Duration.ofMinutes(1)).forOperation("read_all");
+
+        try (Connection connection = provider.getConnection();
+             PreparedStatement statement = connection.prepareStatement("select 1");
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                resultSet.getLong(1);
+            }
+        }
+
+        assertThat(metricRegistry.timer("database.test.connections.read_all.acquire_time").getCount(), is(1L));
+        assertThat(metricRegistry.timer("database.test.connections.read_all.execute_time").getCount(), is(1L));
+        assertThat(metricRegistry.timer("database.test.connections.read_all.iterate_time").getCount(), is(1L));
+        assertThat(metricRegistry.timer("database.test.connections.read_all.held_time").getCount(), is(1L));
+        assertThat(metricRegistry.meter("database.test.connections.read_all.held_too_long").getCount(), is(0L));
+        assertThat(metricRegistry.timer("database.test.connections.write.held_time").getCount(), is(0L));
+    }
+
+    @Test public void
+    marks_connections_held_too_long() throws SQLException, InterruptedException {
+        ConnectionProvider provider = instrumentedConnectionProvider(() -> connection, "test", metricRegistry, Duration.ofMillis(1)).forOperation("read_stream");
+
+        try (Connection ignored = provider.getConnection()) {
+            Thread.sleep(5);
+        }
+
+        assertThat(metricRegistry.meter("database.test.connections.read_stream.held_too_long").getCount(), is(1L));
+    }
+
+    @Test public void
+    marks_connections_held_too_long_while_they_are_still_open() throws SQLException, InterruptedException {
+        try (InstrumentedConnectionProvider instrumented = instrumentedConnectionProvider(() -> connection, "test", metricRegistry, Duration.ofMillis(1))) {
+            ConnectionProvider provider = instrumented.forOperation("read_all");
+            Meter heldTooLong = metricRegistry.meter("database.test.connections.read_all.held_too_long");
+
+            try (Connection ignored = provider.getConnection()) {
+                long deadline = System.currentTimeMillis() + 1000;
+                while (heldTooLong.getCount() == 0 && System.currentTimeMillis() < deadline) {
+                    Thread.sleep(5);
+                }
+                assertThat(heldTooLong.getCount(), is(1L));
+            }
+
+            assertThat(heldTooLong.getCount(), is(1L));
+        }
+    }
+
+    @FunctionalInterface
+    private interface Behaviour {
+        Object invoke(String method, Object[] args);
+    }
+
+    private static <T> T stub(Class<T> type, Behaviour behaviour) {
+        return type.cast(Proxy.newProxyInstance(InstrumentedConnectionProviderTest.class.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    Object result = behaviour.invoke(method.getName(), args);
+                    if (result == null && method.getReturnType() == boolean.class) {
+                        return false;
+                    }
+                    if (result == null && method.getReturnType() == long.class) {
+                        return 0L;
+                    }
+                    return result;
+                }));
+    }
+}
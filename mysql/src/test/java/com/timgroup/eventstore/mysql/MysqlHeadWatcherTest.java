@@ -0,0 +1,82 @@
+package com.timgroup.eventstore.mysql;
+
+import com.timgroup.eventstore.api.HeadWatcher;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static com.timgroup.eventstore.api.NewEvent.newEvent;
+import static com.timgroup.eventstore.api.StreamId.streamId;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class MysqlHeadWatcherTest {
+    static {
+        try {
+            DriverManager.registerDriver(new com.mysql.jdbc.Driver());
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private final ConnectionProvider connectionProvider = () -> DriverManager.getConnection("jdbc:mysql://localhost:3306/sql_eventstore?useGmtMillisForDatetimes=true&useJDBCCompliantTimezoneShift=true&useLegacyDatetimeCode=false&useTimezone=true&serverTimezone=UTC");
+
+    private final String tableName = "head_watcher_eventstore";
+
+    private final BasicMysqlEventSource eventSource = new BasicMysqlEventSource(connectionProvider, tableName, 100_000, "test", null);
+    private final MysqlHeadWatcher watcher = new MysqlHeadWatcher(connectionProvider, "sql_eventstore", tableName, Duration.ofMillis(10), null);
+
+    @Before
+    public void createTables() {
+        BasicMysqlEventStoreSetup setup = new BasicMysqlEventStoreSetup(connectionProvider, tableName);
+        setup.drop();
+        setup.lazyCreate();
+    }
+
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    @After
+    public void closeWatcher() {
+        watcher.close();
+    }
+
+    @Test public void
+    wakes_listeners_when_events_are_written_and_not_otherwise() throws Exception {
+        Semaphore wakeUps = new Semaphore(0);
+        try (HeadWatcher.Registration ignored = watcher.register(wakeUps::release)) {
+            assertThat(wakeUps.tryAcquire(1, TimeUnit.SECONDS), is(true));
+            assertThat(wakeUps.tryAcquire(100, TimeUnit.MILLISECONDS), is(false));
+
+            eventSource.writeStream().write(streamId("alpha", "1"), singletonList(newEvent("type", new byte[0], new byte[0])));
+
+            assertThat(wakeUps.tryAcquire(1, TimeUnit.SECONDS), is(true));
+            assertThat(wakeUps.tryAcquire(100, TimeUnit.MILLISECONDS), is(false));
+        }
+    }
+
+    @Test public void
+    shares_one_watcher_per_source_at_the_interval_first_asked_for() {
+        try {
+            MysqlHeadWatcher shared = eventSource.headWatcher(Duration.ofMillis(200));
+
+            assertThat(eventSource.headWatcher(), is(sameInstance(shared)));
+            assertThat(eventSource.headWatcher(Duration.ofMillis(200)), is(sameInstance(shared)));
+
+            thrown.expect(IllegalStateException.class);
+            eventSource.headWatcher(Duration.ofMillis(50));
+        } finally {
+            eventSource.closeHeadWatcher();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.timgroup.eventstore.mysql;
+
+import com.timgroup.eventstore.api.EventReader;
+import com.timgroup.eventstore.api.EventSource;
+import com.timgroup.eventstore.api.NewEvent;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.timgroup.eventstore.api.NewEvent.newEvent;
+import static com.timgroup.eventstore.api.StreamId.streamId;
+import static com.timgroup.eventstore.mysql.PositionAllocator.serialisingSequenceRow;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+public class MysqlPartitionMaintenanceTest {
+    static {
+        try {
+            DriverManager.registerDriver(new com.mysql.jdbc.Driver());
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Rule
+    public final TemporaryFolder archiveDirectory = new TemporaryFolder();
+
+    private final ConnectionProvider connectionProvider = () -> DriverManager.getConnection("jdbc:mysql://localhost:3306/sql_eventstore?useGmtMillisForDatetimes=true&useJDBCCompliantTimezoneShift=true&useLegacyDatetimeCode=false&useTimezone=true&serverTimezone=UTC");
+
+    private final String tableName = "partitioned_eventstore";
+
+    private final BasicMysqlEventSource eventSource = new BasicMysqlEventSource(connectionProvider, tableName, 100_000, "test", null, null, null, null, serialisingSequenceRow());
+
+    private MysqlPartitionMaintenance maintenance;
+
+    @Before
+    public void createTables() {
+        BasicMysqlEventStoreSetup setup = new BasicMysqlEventStoreSetup(connectionProvider, tableName);
+        setup.drop();
+        setup.createPartitioned(10, 2);
+        maintenance = new MysqlPartitionMaintenance(connectionProvider, tableName, 10, archiveDirectory.getRoot().toPath());
+    }
+
+    @Test public void
+    adds_partitions_ahead_of_the_highest_position() {
+        writeEvents(15);
+
+        maintenance.ensurePartitionsAhead(3);
+
+        assertThat(maintenance.partitionUpperBounds(), contains(10L, 20L, 30L, 40L));
+    }
+
+    @Test public void
+    archives_partitions_that_have_been_written_past() {
+        maintenance.ensurePartitionsAhead(4);
+        writeEvents(25);
+
+        int archived = maintenance.archivePartitionsBelow(40);
+
+        assertThat(archived, is(2));
+        assertThat(maintenance.partitionUpperBounds(), contains(30L, 40L));
+        assertThat(eventSource.readAll().readAllForwards().count(), is(5L));
+    }
+
+    @Test public void
+    reads_archived_events_before_the_table() {
+        maintenance.ensurePartitionsAhead(4);
+        List<String> written = writeEvents(25);
+        maintenance.archivePartitionsBelow(20);
+
+        EventReader reader = maintenance.readingArchive(eventSource.readAll());
+
+        assertThat(reader.readAllForwards().map(e -> new String(e.eventRecord().data(), UTF_8)).collect(toList()), equalTo(written));
+    }
+
+    @Test public void
+    reads_archived_categories_and_streams_before_the_table() {
+        maintenance.ensurePartitionsAhead(4);
+        List<String> written = writeEvents(25);
+        maintenance.archivePartitionsBelow(20);
+
+        EventSource source = maintenance.readingArchive(eventSource);
+
+        assertThat(source.readCategory().readCategoryForwards("alpha").map(e -> new String(e.eventRecord().data(), UTF_8)).collect(toList()), equalTo(written));
+        assertThat(source.readStream().readStreamForwards(streamId("alpha", "1")).map(e -> new String(e.eventRecord().data(), UTF_8)).collect(toList()), equalTo(written));
+        assertThat(source.readStream().readStreamBackwards(streamId("alpha", "1")).count(), is(25L));
+    }
+
+    private List<String> writeEvents(int count) {
+        List<String> data = IntStream.rangeClosed(1, count).mapToObj(i -> "event-" + i).collect(toList());
+        List<NewEvent> events = data.stream().map(d -> newEvent("Type", d.getBytes(UTF_8), new byte[0])).collect(toList());
+        eventSource.writeStream().write(streamId("alpha", "1"), events);
+        return data;
+    }
+}
@@ -0,0 +1,87 @@
+package com.timgroup.eventstore.mysql;
+
+import com.timgroup.eventstore.api.ResolvedEvent;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+import static com.timgroup.eventstore.api.EventRecord.eventRecord;
+import static com.timgroup.eventstore.api.StreamId.streamId;
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.StreamSupport.stream;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+public class PositionMergingSpliteratorTest {
+    @Test public void
+    merges_cursors_by_position() {
+        List<Spliterator<ResolvedEvent>> cursors = asList(
+                cursor("alpha", 1, 4, 5, 9),
+                cursor("beta"),
+                cursor("gamma", 2, 3, 8),
+                cursor("delta", 6, 7));
+
+        List<Long> positions = stream(new PositionMergingSpliterator(cursors), false)
+                .map(e -> ((BasicMysqlEventStorePosition) e.position()).value)
+                .collect(toList());
+
+        assertThat(positions, contains(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L));
+    }
+
+    @Test public void
+    reads_each_cursor_only_when_its_last_event_is_taken() {
+        CountingCursor alpha = new CountingCursor(cursor("alpha", 1, 2, 3));
+        CountingCursor beta = new CountingCursor(cursor("beta", 10, 11, 12));
+        Spliterator<ResolvedEvent> merged = new PositionMergingSpliterator(asList(alpha, beta));
+
+        merged.tryAdvance(e -> {});
+        merged.tryAdvance(e -> {});
+
+        assertThat(alpha.advances, is(3));
+        assertThat(beta.advances, is(1));
+    }
+
+    private static Spliterator<ResolvedEvent> cursor(String category, long... positions) {
+        return LongStream.of(positions)
+                .mapToObj(position -> eventRecord(Instant.EPOCH, streamId(category, "1"), position, "Type", new byte[0], new byte[0])
+                        .toResolvedEvent(new BasicMysqlEventStorePosition(position)))
+                .collect(toList())
+                .spliterator();
+    }
+
+    private static final class CountingCursor implements Spliterator<ResolvedEvent> {
+        private final Spliterator<ResolvedEvent> underlying;
+        private int advances = 0;
+
+        private CountingCursor(Spliterator<ResolvedEvent> underlying) {
+            this.underlying = underlying;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super ResolvedEvent> action) {
+            advances++;
+            return underlying.tryAdvance(action);
+        }
+
+        @Override
+        public Spliterator<ResolvedEvent> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return underlying.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return underlying.characteristics();
+        }
+    }
+}
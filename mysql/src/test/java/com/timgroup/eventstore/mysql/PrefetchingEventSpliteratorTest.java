@@ -0,0 +1,121 @@
+package com.timgroup.eventstore.mysql;
+
+import com.timgroup.eventstore.api.ResolvedEvent;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+import static com.timgroup.eventstore.api.EventRecord.eventRecord;
+import static com.timgroup.eventstore.api.StreamId.streamId;
+import static com.timgroup.eventstore.mysql.BasicMysqlEventStorePosition.EMPTY_STORE_POSITION;
+import static com.timgroup.eventstore.mysql.PrefetchPolicy.prefetchPolicy;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.StreamSupport.stream;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+
+public class PrefetchingEventSpliteratorTest {
+    private final List<ResolvedEvent> events = LongStream.rangeClosed(1, 5).mapToObj(PrefetchingEventSpliteratorTest::event).collect(toList());
+    private final List<BasicMysqlEventStorePosition> requestedPages = new ArrayList<>();
+
+    @Test public void
+    reads_all_events_across_pages_in_order() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            PrefetchingEventSpliterator<BasicMysqlEventStorePosition> spliterator = spliterator(prefetchPolicy(executor, 2, Long.MAX_VALUE), pagesOf(2));
+
+            assertThat(stream(spliterator, false).map(e -> e.position().toString()).collect(toList()), contains("1", "2", "3", "4", "5"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test public void
+    does_not_fetch_until_first_event_is_requested() {
+        spliterator(prefetchPolicy(Runnable::run, 2, Long.MAX_VALUE), pagesOf(2));
+
+        assertThat(requestedPages.size(), is(0));
+    }
+
+    @Test public void
+    fetches_no_more_than_the_maximum_number_of_pages_ahead() {
+        PrefetchingEventSpliterator<BasicMysqlEventStorePosition> spliterator = spliterator(prefetchPolicy(Runnable::run, 2, Long.MAX_VALUE), pagesOf(1));
+
+        spliterator.tryAdvance(e -> {});
+
+        assertThat(requestedPages, contains(position(0), position(1), position(2)));
+    }
+
+    @Test public void
+    stops_fetching_ahead_once_buffered_payloads_reach_the_byte_limit() {
+        PrefetchingEventSpliterator<BasicMysqlEventStorePosition> spliterator = spliterator(prefetchPolicy(Runnable::run, 10, 2), pagesOf(1));
+
+        spliterator.tryAdvance(e -> {});
+
+        assertThat(requestedPages, contains(position(0)));
+
+        spliterator.tryAdvance(e -> {});
+
+        assertThat(requestedPages, contains(position(0), position(1)));
+    }
+
+    @Test public void
+    rethrows_failures_from_fetching_a_page_to_the_consumer() {
+        RuntimeException failure = new RuntimeException("failed to fetch page");
+        PrefetchingEventSpliterator<BasicMysqlEventStorePosition> spliterator = spliterator(prefetchPolicy(Runnable::run, 1, Long.MAX_VALUE), pos -> { throw failure; });
+
+        try {
+            spliterator.tryAdvance(e -> {});
+            fail("expected failure to be rethrown");
+        } catch (RuntimeException e) {
+            assertThat(e, is(failure));
+        }
+    }
+
+    @Test public void
+    cannot_read_after_reaching_end() {
+        PrefetchingEventSpliterator<BasicMysqlEventStorePosition> spliterator = spliterator(prefetchPolicy(Runnable::run, 1, Long.MAX_VALUE), pagesOf(10));
+
+        Iterator<ResolvedEvent> iterator = Spliterators.iterator(spliterator);
+        while (iterator.hasNext()) {
+            iterator.next();
+        }
+        events.add(event(6));
+
+        assertThat(iterator.hasNext(), equalTo(false));
+    }
+
+    private PrefetchingEventSpliterator<BasicMysqlEventStorePosition> spliterator(PrefetchPolicy policy, Function<BasicMysqlEventStorePosition, List<ResolvedEvent>> pageFetcher) {
+        return new PrefetchingEventSpliterator<>(policy, EMPTY_STORE_POSITION, pos -> {
+            requestedPages.add(pos);
+            return pageFetcher.apply(pos);
+        }, e -> (BasicMysqlEventStorePosition) e.position());
+    }
+
+    private Function<BasicMysqlEventStorePosition, List<ResolvedEvent>> pagesOf(int pageSize) {
+        return pos -> events.stream()
+                .filter(e -> ((BasicMysqlEventStorePosition) e.position()).value > pos.value)
+                .limit(pageSize)
+                .collect(toList());
+    }
+
+    private static BasicMysqlEventStorePosition position(long value) {
+        return value == 0 ? EMPTY_STORE_POSITION : new BasicMysqlEventStorePosition(value);
+    }
+
+    private static ResolvedEvent event(long position) {
+        return eventRecord(Instant.EPOCH, streamId("stream", "1"), position - 1, "type", new byte[] { 1 }, new byte[] { 2 })
+                .toResolvedEvent(new BasicMysqlEventStorePosition(position));
+    }
+}
@@ -0,0 +1,56 @@
+package com.timgroup.eventstore.mysql;
+
+import com.timgroup.eventstore.api.ResolvedEvent;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class RangeSplittingEventSpliteratorTest {
+    private final ConnectionProvider unreachable = () -> { throw new AssertionError("should not connect"); };
+    private final QueryTimers timers = QueryTimers.queryTimers(null, "test", "events", "read_all");
+
+    @Test public void
+    splits_down_to_ranges_of_the_minimum_size_sharing_out_the_estimated_size() {
+        List<Spliterator<ResolvedEvent>> ranges = splitFully(new RangeSplittingEventSpliterator(unreachable, "events", 10, 10, timers, 0, 80, 40));
+
+        assertThat(ranges, hasSize(8));
+        assertThat(ranges.stream().mapToLong(Spliterator::estimateSize).sum(), is(40L));
+        assertThat(ranges.stream().map(Spliterator::estimateSize).collect(toList()), everyItem(is(5L)));
+    }
+
+    @Test public void
+    does_not_split_below_twice_the_minimum_size() {
+        RangeSplittingEventSpliterator spliterator = new RangeSplittingEventSpliterator(unreachable, "events", 10, 10, timers, 100, 119, 19);
+
+        assertThat(spliterator.trySplit(), is(nullValue()));
+        assertThat(spliterator.estimateSize(), is(19L));
+    }
+
+    @Test public void
+    keeps_whole_estimated_size_across_uneven_splits() {
+        List<Spliterator<ResolvedEvent>> ranges = splitFully(new RangeSplittingEventSpliterator(unreachable, "events", 1, 1, timers, -1, 1000, 777));
+
+        assertThat(ranges.stream().mapToLong(Spliterator::estimateSize).sum(), is(777L));
+        assertThat(ranges.stream().map(Spliterator::estimateSize).collect(toList()), everyItem(greaterThanOrEqualTo(0L)));
+    }
+
+    private static List<Spliterator<ResolvedEvent>> splitFully(Spliterator<ResolvedEvent> spliterator) {
+        List<Spliterator<ResolvedEvent>> ranges = new ArrayList<>();
+        Spliterator<ResolvedEvent> lower;
+        while ((lower = spliterator.trySplit()) != null) {
+            ranges.addAll(splitFully(lower));
+        }
+        ranges.add(spliterator);
+        return ranges;
+    }
+}
@@ -0,0 +1,171 @@
+package com.timgroup.eventstore.mysql;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.timgroup.eventstore.api.EventCategoryReader;
+import com.timgroup.eventstore.api.EventReader;
+import com.timgroup.eventstore.api.EventSource;
+import com.timgroup.eventstore.api.EventStreamReader;
+import com.timgroup.eventstore.api.EventStreamWriter;
+import com.timgroup.eventstore.api.NewEvent;
+import com.timgroup.eventstore.api.PositionCodec;
+import com.timgroup.eventstore.api.ResolvedEvent;
+import com.timgroup.eventstore.api.StreamId;
+import com.timgroup.eventstore.memory.InMemoryEventSource;
+import com.timgroup.eventstore.memory.JavaInMemoryEventStore;
+import com.timgroup.tucker.info.Component;
+import org.junit.Test;
+
+import javax.annotation.Nonnull;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static com.timgroup.eventstore.api.NewEvent.newEvent;
+import static com.timgroup.eventstore.api.StreamId.streamId;
+import static java.time.ZoneOffset.UTC;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class ReadReplicaRoutingEventSourceTest {
+    private final InMemoryEventSource master = new InMemoryEventSource(new JavaInMemoryEventStore(Clock.systemUTC()));
+    private final InMemoryEventSource replica = new InMemoryEventSource(new JavaInMemoryEventStore(Clock.systemUTC()));
+
+    private final ReadReplicaRoutingEventSource eventSource = new ReadReplicaRoutingEventSource(master, replica, "test", null);
+
+    @Test public void
+    reads_from_replica_when_nothing_has_been_written() {
+        assertThat(eventSource.readAll(), sameInstance(replica.readAll()));
+        assertThat(eventSource.readStream(), sameInstance(replica.readStream()));
+    }
+
+    @Test public void
+    reads_own_writes_from_master_until_replica_catches_up() {
+        eventSource.writeStream().write(streamId("alpha", "1"), singletonList(newEvent("type", new byte[0], new byte[0])));
+
+        assertThat(eventSource.readAll(), sameInstance(master.readAll()));
+        assertThat(eventSource.readCategory(), sameInstance(master.readCategory()));
+
+        replicate();
+
+        assertThat(eventSource.readAll(), sameInstance(replica.readAll()));
+        assertThat(eventSource.readCategory(), sameInstance(replica.readCategory()));
+    }
+
+    @Test public void
+    reads_own_writes_from_master_when_the_writer_does_not_report_positions() {
+        ReadReplicaRoutingEventSource eventSource = new ReadReplicaRoutingEventSource(withPlainWriter(master), replica, "test", null);
+
+        eventSource.writeStream().write(streamId("alpha", "1"), singletonList(newEvent("type", new byte[0], new byte[0])));
+
+        assertThat(eventSource.readAll(), sameInstance(master.readAll()));
+    }
+
+    @Test public void
+    reads_from_replica_on_threads_that_have_not_written() throws Exception {
+        eventSource.writeStream().write(streamId("alpha", "1"), singletonList(newEvent("type", new byte[0], new byte[0])));
+
+        Object reader = CompletableFuture.supplyAsync(eventSource::readAll).get();
+
+        assertThat(reader, sameInstance(replica.readAll()));
+    }
+
+    @Test public void
+    reports_the_replica_lag_polled_in_the_background() throws Exception {
+        Instant now = Instant.parse("2017-05-01T10:15:30Z");
+        InMemoryEventSource master = new InMemoryEventSource(new JavaInMemoryEventStore(Clock.fixed(now.plusSeconds(10), UTC)));
+        InMemoryEventSource replica = new InMemoryEventSource(new JavaInMemoryEventStore(Clock.fixed(now, UTC)));
+        MetricRegistry metricRegistry = new MetricRegistry();
+        try (ReadReplicaRoutingEventSource eventSource = new ReadReplicaRoutingEventSource(master, replica, "test", metricRegistry, Duration.ofMillis(5))) {
+            Gauge<?> lag = metricRegistry.getGauges().get("database.test.replica.lag_ms");
+            assertThat(lag.getValue(), equalTo(0L));
+
+            eventSource.writeStream().write(streamId("alpha", "1"), singletonList(newEvent("type", new byte[0], new byte[0])));
+            replica.writeStream().write(streamId("alpha", "1"), singletonList(newEvent("type", new byte[0], new byte[0])));
+
+            eventually(() -> assertThat(lag.getValue(), equalTo(10_000L)));
+        }
+    }
+
+    private static void eventually(Runnable work) throws InterruptedException {
+        Duration patience = Duration.ofSeconds(1);
+        Duration interval = Duration.ofMillis(15);
+        int remaining = (int) (patience.toMillis() / interval.toMillis());
+
+        while (true) {
+            try {
+                work.run();
+                return;
+            } catch (AssertionError e) {
+                if (remaining-- == 0) {
+                    throw e;
+                }
+                Thread.sleep(interval.toMillis());
+            }
+        }
+    }
+
+    private static EventSource withPlainWriter(EventSource source) {
+        return new EventSource() {
+            @Nonnull
+            @Override
+            public EventReader readAll() {
+                return source.readAll();
+            }
+
+            @Nonnull
+            @Override
+            public EventCategoryReader readCategory() {
+                return source.readCategory();
+            }
+
+            @Nonnull
+            @Override
+            public EventStreamReader readStream() {
+                return source.readStream();
+            }
+
+            @Nonnull
+            @Override
+            public EventStreamWriter writeStream() {
+                EventStreamWriter writer = source.writeStream();
+                return new EventStreamWriter() {
+                    @Override
+                    public void write(StreamId streamId, Collection<NewEvent> events) {
+                        writer.write(streamId, events);
+                    }
+
+                    @Override
+                    public void write(StreamId streamId, Collection<NewEvent> events, long expectedVersion) {
+                        writer.write(streamId, events, expectedVersion);
+                    }
+                };
+            }
+
+            @Nonnull
+            @Override
+            public PositionCodec positionCodec() {
+                return source.positionCodec();
+            }
+
+            @Nonnull
+            @Override
+            public Collection<Component> monitoring() {
+                return source.monitoring();
+            }
+        };
+    }
+
+    private void replicate() {
+        List<ResolvedEvent> events = master.readAll().readAllForwards().collect(toList());
+        for (ResolvedEvent event : events) {
+            replica.writeStream().write(event.eventRecord().streamId(), singletonList(newEvent(event.eventRecord().eventType(), event.eventRecord().data(), event.eventRecord().metadata())));
+        }
+    }
+}
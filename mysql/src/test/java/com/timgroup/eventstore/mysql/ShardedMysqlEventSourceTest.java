@@ -0,0 +1,101 @@
+package com.timgroup.eventstore.mysql;
+
+import com.timgroup.eventstore.api.EventSource;
+import com.timgroup.eventstore.api.JavaEventStoreTest;
+import com.timgroup.eventstore.api.Position;
+import com.timgroup.eventstore.api.ResolvedEvent;
+import com.timgroup.eventstore.memory.InMemoryEventSource;
+import com.timgroup.eventstore.memory.JavaInMemoryEventStore;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static com.timgroup.eventstore.api.NewEvent.newEvent;
+import static com.timgroup.eventstore.api.StreamId.streamId;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+
+public class ShardedMysqlEventSourceTest extends JavaEventStoreTest {
+    private final Clock clock = new TickingClock(Instant.now());
+
+    private final List<InMemoryEventSource> shards = asList(
+            new InMemoryEventSource(new JavaInMemoryEventStore(clock)),
+            new InMemoryEventSource(new JavaInMemoryEventStore(clock)),
+            new InMemoryEventSource(new JavaInMemoryEventStore(clock)));
+
+    private final ShardedMysqlEventSource eventSource = ShardedMysqlEventSource.ofShards(shards);
+
+    @Override
+    public EventSource eventSource() {
+        return eventSource;
+    }
+
+    @Override
+    protected boolean writeResultsHaveStreamVersions() {
+        return false;
+    }
+
+    @Override
+    protected boolean writeResultsHavePositions() {
+        return false;
+    }
+
+    @Test public void
+    writes_each_stream_to_one_shard_only() {
+        IntStream.range(0, 30).forEach(i -> eventSource.writeStream().write(streamId("category", "stream-" + i), singletonList(newEvent("type", new byte[0], new byte[0]))));
+
+        for (InMemoryEventSource shard : shards) {
+            assertThat(shard.readAll().readAllForwards().count() > 0, is(true));
+        }
+        assertThat(shards.stream().mapToLong(shard -> shard.readAll().readAllForwards().count()).sum(), is(30L));
+        assertThat(eventSource.readAll().readAllForwards().map(e -> e.eventRecord().streamId()).collect(toSet()), hasSize(30));
+    }
+
+    @Test public void
+    positions_survive_serialisation() {
+        IntStream.range(0, 5).forEach(i -> eventSource.writeStream().write(streamId("category", "stream-" + i), singletonList(newEvent("type", new byte[0], new byte[0]))));
+
+        List<Position> positions = eventSource.readAll().readAllForwards().map(ResolvedEvent::position).collect(toList());
+
+        for (Position position : positions) {
+            String serialised = eventSource.positionCodec().serializePosition(position);
+            assertThat(eventSource.positionCodec().deserializePosition(serialised), is(position));
+        }
+        assertThat(eventSource.positionCodec().comparePositions(positions.get(0), positions.get(4)) < 0, is(true));
+    }
+
+    private static final class TickingClock extends Clock {
+        private final AtomicLong micros;
+
+        private TickingClock(Instant start) {
+            this.micros = new AtomicLong(start.toEpochMilli() * 1000);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            long now = micros.incrementAndGet();
+            return Instant.ofEpochSecond(now / 1_000_000, (now % 1_000_000) * 1000);
+        }
+    }
+}
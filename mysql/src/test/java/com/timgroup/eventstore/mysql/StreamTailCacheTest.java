@@ -0,0 +1,90 @@
+package com.timgroup.eventstore.mysql;
+
+import com.timgroup.eventstore.api.ResolvedEvent;
+import com.timgroup.eventstore.api.StreamId;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.LongStream;
+
+import static com.timgroup.eventstore.api.EventRecord.eventRecord;
+import static com.timgroup.eventstore.api.StreamId.streamId;
+import static com.timgroup.eventstore.mysql.StreamTailCachePolicy.streamTailCachePolicy;
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.StreamSupport.stream;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class StreamTailCacheTest {
+    private final StreamId alpha = streamId("alpha", "1");
+    private final StreamId beta = streamId("beta", "1");
+    private final StreamId gamma = streamId("gamma", "1");
+
+    @Test public void
+    caches_stream_once_fully_read() {
+        StreamTailCache cache = new StreamTailCache(streamTailCachePolicy(10, 1000), "db", "events", null);
+        List<ResolvedEvent> events = events(alpha, 0, 3, 10);
+
+        Spliterator<ResolvedEvent> filling = cache.filling(alpha, emptyList(), events.spliterator());
+        filling.tryAdvance(e -> {});
+        assertThat(cache.get(alpha), is(nullValue()));
+
+        assertThat(stream(filling, false).count(), is(2L));
+        assertThat(cache.get(alpha), equalTo(events));
+    }
+
+    @Test public void
+    extends_cached_stream_with_newer_events() {
+        StreamTailCache cache = new StreamTailCache(streamTailCachePolicy(10, 1000), "db", "events", null);
+        List<ResolvedEvent> first = events(alpha, 0, 2, 10);
+        List<ResolvedEvent> second = events(alpha, 2, 2, 10);
+        stream(cache.filling(alpha, emptyList(), first.spliterator()), false).count();
+
+        assertThat(stream(cache.filling(alpha, cache.get(alpha), second.spliterator()), false).collect(toList()), equalTo(second));
+
+        assertThat(cache.get(alpha), equalTo(events(alpha, 0, 4, 10)));
+    }
+
+    @Test public void
+    evicts_least_recently_read_streams_beyond_the_stream_limit() {
+        StreamTailCache cache = new StreamTailCache(streamTailCachePolicy(2, 1000), "db", "events", null);
+        fill(cache, alpha, 1, 10);
+        fill(cache, beta, 1, 10);
+        cache.get(alpha);
+
+        fill(cache, gamma, 1, 10);
+
+        assertThat(cache.streamCount(), is(2));
+        assertThat(cache.get(beta), is(nullValue()));
+        assertThat(cache.get(alpha).size(), is(1));
+    }
+
+    @Test public void
+    evicts_streams_beyond_the_byte_limit_and_skips_streams_that_could_never_fit() {
+        StreamTailCache cache = new StreamTailCache(streamTailCachePolicy(10, 100), "db", "events", null);
+        fill(cache, alpha, 6, 10);
+        fill(cache, beta, 6, 10);
+        fill(cache, gamma, 11, 10);
+
+        assertThat(cache.get(alpha), is(nullValue()));
+        assertThat(cache.get(beta).size(), is(6));
+        assertThat(cache.get(gamma), is(nullValue()));
+        assertThat(cache.bytes(), is(60L));
+    }
+
+    private static void fill(StreamTailCache cache, StreamId streamId, int count, int bytesPerEvent) {
+        stream(cache.filling(streamId, emptyList(), events(streamId, 0, count, bytesPerEvent).spliterator()), false).count();
+    }
+
+    private static List<ResolvedEvent> events(StreamId streamId, long firstEventNumber, int count, int bytesPerEvent) {
+        return LongStream.range(firstEventNumber, firstEventNumber + count)
+                .mapToObj(eventNumber -> eventRecord(Instant.EPOCH, streamId, eventNumber, "Type", new byte[bytesPerEvent], new byte[0])
+                        .toResolvedEvent(new BasicMysqlEventStorePosition(eventNumber + 1)))
+                .collect(toList());
+    }
+}
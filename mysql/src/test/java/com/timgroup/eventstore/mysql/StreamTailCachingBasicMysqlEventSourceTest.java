@@ -0,0 +1,38 @@
+package com.timgroup.eventstore.mysql;
+
+import com.timgroup.eventstore.api.EventSource;
+import com.timgroup.eventstore.api.JavaEventStoreTest;
+import org.junit.Before;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+import static com.timgroup.eventstore.mysql.StreamTailCachePolicy.streamTailCachePolicy;
+
+public class StreamTailCachingBasicMysqlEventSourceTest extends JavaEventStoreTest {
+    static {
+        try {
+            DriverManager.registerDriver(new com.mysql.jdbc.Driver());
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private final ConnectionProvider connectionProvider = () -> DriverManager.getConnection("jdbc:mysql://localhost:3306/sql_eventstore?useGmtMillisForDatetimes=true&useJDBCCompliantTimezoneShift=true&useLegacyDatetimeCode=false&useTimezone=true&serverTimezone=UTC");
+
+    private final String tableName = "stream_tail_caching_basic_eventstore";
+
+    private final BasicMysqlEventSource eventSource = new BasicMysqlEventSource(connectionProvider, tableName, 100_000, "test", null, null, null, null, null, streamTailCachePolicy(100, 1_000_000));
+
+    @Before
+    public void createTables() {
+        BasicMysqlEventStoreSetup setup = new BasicMysqlEventStoreSetup(connectionProvider, tableName);
+        setup.drop();
+        setup.lazyCreate();
+    }
+
+    @Override
+    public EventSource eventSource() {
+        return eventSource;
+    }
+}
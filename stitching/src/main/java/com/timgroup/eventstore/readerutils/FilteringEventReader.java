@@ -6,6 +6,7 @@ import com.timgroup.eventstore.api.ResolvedEvent;
 
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
@@ -17,16 +18,25 @@ public final class FilteringEventReader implements EventReader {
 
     private final EventReader underlying;
     private final Predicate<? super ResolvedEvent> predicate;
+    @Nullable private final Set<String> eventTypes;
 
     public FilteringEventReader(EventReader underlying, Predicate<? super ResolvedEvent> predicate) {
+        this(underlying, predicate, null);
+    }
+
+    private FilteringEventReader(EventReader underlying, Predicate<? super ResolvedEvent> predicate, @Nullable Set<String> eventTypes) {
         this.underlying = requireNonNull(underlying);
         this.predicate = requireNonNull(predicate);
+        this.eventTypes = eventTypes;
     }
 
     @CheckReturnValue
     @Nonnull
     @Override
     public Stream<ResolvedEvent> readAllForwards(Position positionExclusive) {
+        if (eventTypes != null) {
+            return underlying.readAllForwardsOfTypes(eventTypes, positionExclusive);
+        }
         return underlying.readAllForwards(positionExclusive).filter(predicate);
     }
 
@@ -64,8 +74,12 @@ public final class FilteringEventReader implements EventReader {
                 '}';
     }
 
+    /**
+     * Reads forwards with {@link EventReader#readAllForwardsOfTypes}, so that the underlying reader can skip
+     * events of other types without loading them.
+     */
     public static FilteringEventReader containingEventTypes(EventReader underlying, Set<String> eventTypes) {
-        return new FilteringEventReader(underlying, e -> eventTypes.contains(e.eventRecord().eventType()));
+        return new FilteringEventReader(underlying, e -> eventTypes.contains(e.eventRecord().eventType()), eventTypes);
     }
 
 }
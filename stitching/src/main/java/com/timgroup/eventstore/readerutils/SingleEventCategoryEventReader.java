@@ -1,6 +1,7 @@
 package com.timgroup.eventstore.readerutils;
 
 import com.timgroup.eventstore.api.EventCategoryReader;
+import com.timgroup.eventstore.api.EventHeader;
 import com.timgroup.eventstore.api.EventReader;
 import com.timgroup.eventstore.api.EventSource;
 import com.timgroup.eventstore.api.Position;
@@ -9,6 +10,7 @@ import com.timgroup.eventstore.api.ResolvedEvent;
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import static java.util.Objects.requireNonNull;
@@ -34,6 +36,20 @@ public final class SingleEventCategoryEventReader implements EventReader {
         return underlying.readCategoryForwards(this.category, positionExclusive);
     }
 
+    @CheckReturnValue
+    @Nonnull
+    @Override
+    public Stream<ResolvedEvent> readAllForwardsOfTypes(Set<String> eventTypes, Position positionExclusive) {
+        return underlying.readCategoryForwardsOfTypes(this.category, eventTypes, positionExclusive);
+    }
+
+    @CheckReturnValue
+    @Nonnull
+    @Override
+    public Stream<EventHeader> readAllHeadersForwards(Position positionExclusive) {
+        return underlying.readCategoryHeadersForwards(this.category, positionExclusive);
+    }
+
     @Nonnull
     @Override
     public Position emptyStorePosition() {
@@ -10,9 +10,12 @@ import org.junit.Test;
 
 import java.time.Instant;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import static com.timgroup.eventstore.api.NewEvent.newEvent;
 import static com.timgroup.eventstore.api.StreamId.streamId;
@@ -162,6 +165,36 @@ public final class FilteringEventReaderTest {
         ));
     }
 
+    @Test public void
+    asks_underlying_reader_for_only_the_contained_event_types() throws Exception {
+        inputEventArrived(streamId("david", "tom"), newEvent("CoolenessAdded", new byte[0], new byte[0]));
+        inputEventArrived(streamId("foo", "bar"), newEvent("CoolenessRemoved", new byte[0], new byte[0]));
+
+        List<Set<String>> requestedEventTypes = new ArrayList<>();
+        EventReader underlying = new EventReader() {
+            @Override
+            public Stream<ResolvedEvent> readAllForwards(Position positionExclusive) {
+                throw new UnsupportedOperationException("should not read events of all types");
+            }
+
+            @Override
+            public Stream<ResolvedEvent> readAllForwardsOfTypes(Set<String> eventTypes, Position positionExclusive) {
+                requestedEventTypes.add(eventTypes);
+                return inputSource.readAll().readAllForwardsOfTypes(eventTypes, positionExclusive);
+            }
+
+            @Override
+            public Position emptyStorePosition() {
+                return inputSource.readAll().emptyStorePosition();
+            }
+        };
+
+        FilteringEventReader underTest = FilteringEventReader.containingEventTypes(underlying, Sets.newHashSet("CoolenessRemoved"));
+
+        assertThat(underTest.readAllForwards().map(e -> e.eventRecord().eventType()).collect(toList()), contains("CoolenessRemoved"));
+        assertThat(requestedEventTypes, contains(Sets.newHashSet("CoolenessRemoved")));
+    }
+
     private void inputEventArrived(StreamId streamId, NewEvent... events) {
         inputReader.write(streamId, Lists.newArrayList(events));
     }
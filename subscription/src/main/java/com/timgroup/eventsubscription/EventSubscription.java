@@ -5,6 +5,7 @@ import com.lmax.disruptor.ExceptionHandler;
 import com.lmax.disruptor.dsl.Disruptor;
 import com.timgroup.eventstore.api.EventCategoryReader;
 import com.timgroup.eventstore.api.EventReader;
+import com.timgroup.eventstore.api.HeadWatcher;
 import com.timgroup.eventstore.api.Position;
 import com.timgroup.eventstore.api.ResolvedEvent;
 import com.timgroup.eventsubscription.healthcheck.ChaserHealth;
@@ -18,6 +19,7 @@ import com.timgroup.tucker.info.Health;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.time.Clock;
 import java.time.Duration;
 import java.util.ArrayList;
@@ -25,8 +27,10 @@ import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 import java.util.stream.Stream;
 
@@ -43,6 +47,9 @@ public class EventSubscription<T> {
     private final Disruptor<EventContainer<T>> disruptor;
     private final EventStoreChaser chaser;
     private final Duration runFrequency;
+    @Nullable private final HeadWatcher headWatcher;
+    private final AtomicBoolean wakePending = new AtomicBoolean(false);
+    private HeadWatcher.Registration headWatcherRegistration = null;
 
     EventSubscription(
                 String name,
@@ -57,9 +64,11 @@ public class EventSubscription<T> {
                 DurationThreshold initialReplay,
                 DurationThreshold staleness,
                 List<SubscriptionListener> listeners,
-                EventSink eventSink
+                EventSink eventSink,
+                @Nullable HeadWatcher headWatcher
     ) {
         this.runFrequency = runFrequency;
+        this.headWatcher = headWatcher;
         ChaserHealth chaserHealth = new ChaserHealth(name, clock, runFrequency);
         subscriptionStatus = new EventSubscriptionStatus(name, clock, initialReplay, staleness, eventSink);
 
@@ -122,10 +131,16 @@ public class EventSubscription<T> {
     public void start() {
         disruptor.start();
         chaserExecutor.scheduleWithFixedDelay(chaser, 0, runFrequency.toMillis(), MILLISECONDS);
+        if (headWatcher != null) {
+            headWatcherRegistration = headWatcher.register(this::wakeChaser);
+        }
     }
 
     public void stop() {
         try {
+            if (headWatcherRegistration != null) {
+                headWatcherRegistration.close();
+            }
             chaserExecutor.shutdown();
             chaserExecutor.awaitTermination(1, TimeUnit.SECONDS);
             disruptor.halt();
@@ -136,6 +151,23 @@ public class EventSubscription<T> {
         }
     }
 
+    /**
+     * Runs the chaser as soon as possible, in addition to its regular runs. A wake-up that arrives while one is
+     * already waiting to run is dropped, as the waiting run will pick up whatever caused it.
+     */
+    private void wakeChaser() {
+        if (wakePending.compareAndSet(false, true)) {
+            try {
+                chaserExecutor.execute(() -> {
+                    wakePending.set(false);
+                    chaser.run();
+                });
+            } catch (RejectedExecutionException e) {
+                wakePending.set(false);
+            }
+        }
+    }
+
     public static String descriptionFor(EventCategoryReader eventReader,
                                   String category) {
         return "reader=" + eventReader.toString() + ",category="+category;
@@ -2,6 +2,7 @@ package com.timgroup.eventsubscription;
 
 import com.timgroup.eventstore.api.EventCategoryReader;
 import com.timgroup.eventstore.api.EventReader;
+import com.timgroup.eventstore.api.HeadWatcher;
 import com.timgroup.eventstore.api.Position;
 import com.timgroup.eventstore.api.ResolvedEvent;
 import com.timgroup.eventsubscription.healthcheck.DurationThreshold;
@@ -22,6 +23,8 @@ import java.util.stream.Stream;
 import static java.util.Objects.requireNonNull;
 
 public class SubscriptionBuilder<T> {
+    private static final Duration DEFAULT_FALLBACK_RUN_FREQUENCY = Duration.ofSeconds(10);
+
     private final String name;
     private Clock clock = Clock.systemUTC();
     private Duration runFrequency = Duration.ofSeconds(1);
@@ -36,6 +39,8 @@ public class SubscriptionBuilder<T> {
     private Deserializer<? extends T> deserializer = null;
     private EventSink eventSink = new Slf4jEventSink();
     private String readerDescription = null;
+    private HeadWatcher headWatcher = null;
+    private Duration fallbackRunFrequency = null;
 
     private SubscriptionBuilder(String name) {
         this.name = name;
@@ -65,6 +70,26 @@ public class SubscriptionBuilder<T> {
         return this;
     }
 
+    /**
+     * Also reads new events as soon as the watcher reports that the store has advanced. Reads on the subscription's
+     * own schedule are then only a fallback, so they happen at the run frequency or every ten seconds, whichever is
+     * less often. The chaser health thresholds follow the fallback frequency.
+     */
+    public SubscriptionBuilder<T> wokenBy(HeadWatcher headWatcher) {
+        this.headWatcher = requireNonNull(headWatcher);
+        this.fallbackRunFrequency = null;
+        return this;
+    }
+
+    /**
+     * @param fallbackRunFrequency how often to read new events without being woken, in place of the run frequency
+     */
+    public SubscriptionBuilder<T> wokenBy(HeadWatcher headWatcher, Duration fallbackRunFrequency) {
+        this.headWatcher = requireNonNull(headWatcher);
+        this.fallbackRunFrequency = requireNonNull(fallbackRunFrequency);
+        return this;
+    }
+
     public SubscriptionBuilder<T> withMaxInitialReplayDuration(Duration maxInitialReplayDuration) {
         this.initialReplay = DurationThreshold.warningThresholdWithCriticalRatio(maxInitialReplayDuration, 1.25);
         return this;
@@ -164,13 +189,24 @@ public class SubscriptionBuilder<T> {
                 eventHandler,
                 clock,
                 bufferSize,
-                runFrequency,
+                scheduledRunFrequency(),
                 startingPosition,
                 initialReplay,
                 staleness,
                 listeners,
-                eventSink
+                eventSink,
+                headWatcher
         );
     }
 
+    private Duration scheduledRunFrequency() {
+        if (headWatcher == null) {
+            return runFrequency;
+        }
+        if (fallbackRunFrequency != null) {
+            return fallbackRunFrequency;
+        }
+        return runFrequency.compareTo(DEFAULT_FALLBACK_RUN_FREQUENCY) > 0 ? runFrequency : DEFAULT_FALLBACK_RUN_FREQUENCY;
+    }
+
 }
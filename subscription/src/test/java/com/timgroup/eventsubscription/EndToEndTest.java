@@ -2,6 +2,7 @@ package com.timgroup.eventsubscription;
 
 import com.timgroup.clocks.testing.ManualClock;
 import com.timgroup.eventstore.api.EventRecord;
+import com.timgroup.eventstore.api.HeadWatcher;
 import com.timgroup.eventstore.api.NewEvent;
 import com.timgroup.eventstore.api.Position;
 import com.timgroup.eventstore.api.ResolvedEvent;
@@ -34,6 +35,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
@@ -52,6 +54,7 @@ import static java.util.Objects.requireNonNull;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.core.StringContains.containsString;
 import static org.mockito.Matchers.argThat;
 import static org.mockito.Mockito.verify;
@@ -264,6 +267,61 @@ public class EndToEndTest {
         });
     }
 
+    @Test
+    public void processes_new_events_as_soon_as_woken_by_head_watcher() throws Exception {
+        AtomicReference<Runnable> wakeUp = new AtomicReference<>();
+        HeadWatcher headWatcher = listener -> {
+            wakeUp.set(listener);
+            return () -> wakeUp.set(null);
+        };
+        AtomicInteger eventsProcessed = new AtomicInteger();
+        subscription = SubscriptionBuilder.<DeserialisedEvent>eventSubscription("test")
+                .withClock(clock)
+                .withRunFrequency(Duration.ofHours(1))
+                .readingFrom(store)
+                .deserializingUsing(EndToEndTest::deserialize)
+                .publishingTo(EventHandler.ofConsumer(e -> eventsProcessed.incrementAndGet()))
+                .wokenBy(headWatcher)
+                .build();
+        subscription.start();
+
+        eventually(() -> {
+            assertThat(subscription.health().get(), is(healthy));
+        });
+
+        store.write(stream, singletonList(newEvent()));
+        wakeUp.get().run();
+
+        eventually(() -> {
+            assertThat(eventsProcessed.get(), is(1));
+        });
+
+        subscription.stop();
+        subscription = null;
+        assertThat(wakeUp.get(), is(nullValue()));
+    }
+
+    @Test
+    public void processes_new_events_on_the_fallback_schedule_when_not_woken() throws Exception {
+        HeadWatcher headWatcher = listener -> () -> {};
+        AtomicInteger eventsProcessed = new AtomicInteger();
+        subscription = SubscriptionBuilder.<DeserialisedEvent>eventSubscription("test")
+                .withClock(clock)
+                .withRunFrequency(Duration.ofHours(1))
+                .readingFrom(store)
+                .deserializingUsing(EndToEndTest::deserialize)
+                .publishingTo(EventHandler.ofConsumer(e -> eventsProcessed.incrementAndGet()))
+                .wokenBy(headWatcher, Duration.ofMillis(5))
+                .build();
+        subscription.start();
+
+        store.write(stream, singletonList(newEvent()));
+
+        eventually(() -> {
+            assertThat(eventsProcessed.get(), is(1));
+        });
+    }
+
     private EventSubscription<DeserialisedEvent> subscription(Deserializer<DeserialisedEvent> deserializer, EventHandler<DeserialisedEvent> eventHandler) {
         return subscription(deserializer, eventHandler, store.emptyStorePosition());
     }